@@ -3,12 +3,15 @@ package com.demoApp.admin.security;
 import java.util.Date;
 import java.util.function.Function;
 
+import com.demoApp.common.security.JwksKeyResolver;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.SecretKey;
@@ -16,11 +19,16 @@ import java.nio.charset.StandardCharsets;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class JwtService {
 
+    private final JwksKeyResolver jwksKeyResolver;
+
     @Value("${app.security.jwt.secret}")
     private String jwtSecret;
 
+    private JwtParser parser;
+
     public String extractUsername(Claims claims) {
         return claims.getSubject();
     }
@@ -31,10 +39,7 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -44,12 +49,15 @@ public class JwtService {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    // Key selection by kid or legacy secret: see JwksKeyResolver
+    @PostConstruct
+    void initParser() {
+        parser = jwksKeyResolver.parser(getSigningKey());
+    }
+
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             log.error("Invalid JWT: {}", e.getMessage());
@@ -3,7 +3,7 @@ package com.demoApp.api;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"com.demoApp.api", "com.demoApp.apigateway"})
 public class ApiApplication {
 
 	public static void main(String[] args) {
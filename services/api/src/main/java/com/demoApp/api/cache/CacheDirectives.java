@@ -0,0 +1,98 @@
+package com.demoApp.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Locale;
+
+/**
+ * The {@code Cache-Control} directives of a downstream response that decide whether the
+ * gateway may keep or share it.
+ */
+public final class CacheDirectives {
+
+    private final boolean noStore;
+    private final boolean noCache;
+    private final boolean privateResponse;
+    private final boolean publicResponse;
+    private final long maxAgeSeconds;
+    private final long sharedMaxAgeSeconds;
+    private final boolean setsCookie;
+
+    private CacheDirectives(boolean noStore, boolean noCache, boolean privateResponse, boolean publicResponse,
+                            long maxAgeSeconds, long sharedMaxAgeSeconds, boolean setsCookie) {
+        this.noStore = noStore;
+        this.noCache = noCache;
+        this.privateResponse = privateResponse;
+        this.publicResponse = publicResponse;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.sharedMaxAgeSeconds = sharedMaxAgeSeconds;
+        this.setsCookie = setsCookie;
+    }
+
+    public static CacheDirectives of(HttpHeaders headers) {
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean privateResponse = false;
+        boolean publicResponse = false;
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                String name = directive.trim().toLowerCase(Locale.ROOT);
+                int eq = name.indexOf('=');
+                String argument = eq > 0 ? name.substring(eq + 1).trim() : null;
+                name = eq > 0 ? name.substring(0, eq).trim() : name;
+                switch (name) {
+                    case "no-store" -> noStore = true;
+                    case "no-cache" -> noCache = true;
+                    case "private" -> privateResponse = true;
+                    case "public" -> publicResponse = true;
+                    case "max-age" -> maxAge = seconds(argument);
+                    case "s-maxage" -> sharedMaxAge = seconds(argument);
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new CacheDirectives(noStore, noCache, privateResponse, publicResponse, maxAge, sharedMaxAge,
+                headers.containsKey(HttpHeaders.SET_COOKIE));
+    }
+
+    /**
+     * Whether the response may be handed to anyone other than the client that asked for it,
+     * including other requests from the same user: not {@code private}, not {@code no-store},
+     * no cookie set.
+     */
+    public boolean isShareable() {
+        return !noStore && !privateResponse && !setsCookie;
+    }
+
+    /**
+     * Whether any user may be served this response. Requests through the gateway carry
+     * credentials, so only responses marked {@code public} or with {@code s-maxage} qualify.
+     */
+    public boolean isSharedAcrossUsers() {
+        return isShareable() && !noCache && (publicResponse || sharedMaxAgeSeconds >= 0);
+    }
+
+    /**
+     * How long a shared cache may keep the response, or 0 if it may not keep it at all.
+     */
+    public long sharedTtlSeconds() {
+        if (!isShareable() || noCache) {
+            return 0;
+        }
+        return Math.max(0, sharedMaxAgeSeconds >= 0 ? sharedMaxAgeSeconds : maxAgeSeconds);
+    }
+
+    private static long seconds(String argument) {
+        if (argument == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(argument.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.demoApp.apigateway.cache;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached gateway responses when menu or mess data changes.
+ *
+ * Each gateway instance consumes with its own group id so every instance sees every event.
+ * Menus are shown on mess pages as well, so a menu change clears both routes.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private final ResponseCache responseCache;
+
+    public CacheInvalidationListener(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    // Published as MenuUpdatedEvent by menu-service
+    @KafkaListener(topics = "menu-updated", groupId = "${gateway.response-cache.invalidation-group-id}")
+    public void onMenuUpdated(String event) {
+        responseCache.invalidateRoute("menu-service");
+        responseCache.invalidateRoute("mess-service");
+    }
+
+    // Published as MessCreatedEvent (and its update counterpart) by mess-service
+    @KafkaListener(topics = {"mess-created", "mess-updated"}, groupId = "${gateway.response-cache.invalidation-group-id}")
+    public void onMessChanged(String event) {
+        responseCache.invalidateRoute("mess-service");
+    }
+}
@@ -0,0 +1,43 @@
+package com.demoApp.apigateway.cache;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A buffered downstream response together with its strong ETag.
+ */
+public class CachedResponse {
+
+    private final MediaType contentType;
+    private final String cacheControl;
+    private final byte[] body;
+    private final String etag;
+    private final long ttlNanos;
+
+    public CachedResponse(MediaType contentType, String cacheControl, byte[] body, String etag, long ttlNanos) {
+        this.contentType = contentType;
+        this.cacheControl = cacheControl;
+        this.body = body;
+        this.etag = etag;
+        this.ttlNanos = ttlNanos;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getTtlNanos() {
+        return ttlNanos;
+    }
+}
@@ -0,0 +1,67 @@
+package com.demoApp.apigateway.cache;
+
+import com.demoApp.apigateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.logging.Logger;
+
+/**
+ * In-memory store of GET responses cached by the gateway, bounded by total body size and
+ * a per-route TTL. Keys start with the route id so a whole route can be dropped at once
+ * when its data changes.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger logger = Logger.getLogger(ResponseCache.class.getName());
+
+    private final Cache<String, CachedResponse> cache;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSizeBytes())
+                .weigher((String key, CachedResponse response) -> response.getBody().length + key.length())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.getTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.getTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+    }
+
+    public static String key(String routeId, String requestKey) {
+        return routeId + ' ' + requestKey;
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    public void invalidateRoute(String routeId) {
+        String prefix = routeId + ' ';
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        logger.info("Invalidated cached responses for route " + routeId);
+    }
+}
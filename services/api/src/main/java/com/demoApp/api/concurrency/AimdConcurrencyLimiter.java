@@ -0,0 +1,93 @@
+package com.demoApp.apigateway.concurrency;
+
+import com.demoApp.apigateway.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one downstream target that adapts with additive increase /
+ * multiplicative decrease.
+ *
+ * Every completed request is a sample: a fast, successful response while the limit is
+ * actually being used grows the limit by {@code 1/limit}, so about one per round trip; a
+ * slow or failed response multiplies it by the backoff ratio, at most once per round
+ * trip. Reads may only use part of the limit so writes still get through when the target
+ * is congested.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final double readShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+    private boolean decreased;
+
+    public AimdConcurrencyLimiter(ConcurrencyLimitProperties.Limit settings) {
+        this.minLimit = settings.getMinLimit();
+        this.maxLimit = settings.getMaxLimit();
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(settings.getLatencyThresholdMillis());
+        this.backoffRatio = settings.getBackoffRatio();
+        this.readShare = settings.getReadShare();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, settings.getInitialLimit()));
+    }
+
+    /**
+     * Reserves a slot, or returns false when the request should be shed.
+     */
+    public boolean tryAcquire(boolean write) {
+        int allowed = write ? (int) limit : Math.max(1, (int) (limit * readShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot and feeds the outcome into the limit.
+     *
+     * @param startNanos {@link System#nanoTime()} when the request was admitted
+     * @param endNanos   {@link System#nanoTime()} when it completed
+     */
+    public void onComplete(long startNanos, long endNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || endNanos - startNanos > latencyThresholdNanos) {
+                // Requests already in flight at the last decrease saw the same congestion
+                if (!decreased || startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = endNanos;
+                    decreased = true;
+                }
+            } else if (current * 2 >= limit) {
+                // Only grow while the limit is the constraint, not while the target is idle
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Releases a slot without a sample, e.g. when the client went away.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
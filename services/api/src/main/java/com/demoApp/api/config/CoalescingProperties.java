@@ -0,0 +1,70 @@
+package com.demoApp.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for {@link com.demoApp.apigateway.filter.RequestCoalescingFilter}.
+ * Routes opt in by having the filter applied in {@link RouteConfiguration}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+    // How long a follower waits for the shared response before calling downstream itself
+    private long maxWaitMillis = 2000;
+    // Responses larger than this are not shared; followers fall back to their own call
+    private int maxBodyBytes = 1024 * 1024;
+    // Gateway paths whose responses are the same for every user, collapsed across users
+    private List<String> sharedPaths = new ArrayList<>();
+    private List<PathPattern> sharedPathPatterns = List.of();
+
+    public boolean isSharedPath(PathContainer path) {
+        for (PathPattern pattern : sharedPathPatterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public List<String> getSharedPaths() {
+        return sharedPaths;
+    }
+
+    public void setSharedPaths(List<String> sharedPaths) {
+        this.sharedPaths = sharedPaths;
+        this.sharedPathPatterns = sharedPaths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+}
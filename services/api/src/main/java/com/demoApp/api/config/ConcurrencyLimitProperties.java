@@ -0,0 +1,108 @@
+package com.demoApp.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for {@link com.demoApp.apigateway.filter.ConcurrencyLimitFilter}.
+ * Routes without an entry under {@code routes} use the defaults.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private Limit defaults = new Limit();
+    private Map<String, Limit> routes = new HashMap<>();
+
+    public Limit forRoute(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Limit getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Limit defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    public static class Limit {
+        private int initialLimit = 50;
+        private int minLimit = 5;
+        private int maxLimit = 500;
+        // Responses slower than this count as congestion and shrink the limit
+        private long latencyThresholdMillis = 1000;
+        // Multiplicative decrease applied on congestion
+        private double backoffRatio = 0.9;
+        // Share of the limit available to reads; the rest is kept for writes
+        private double readShare = 0.8;
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public long getLatencyThresholdMillis() {
+            return latencyThresholdMillis;
+        }
+
+        public void setLatencyThresholdMillis(long latencyThresholdMillis) {
+            this.latencyThresholdMillis = latencyThresholdMillis;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public double getReadShare() {
+            return readShare;
+        }
+
+        public void setReadShare(double readShare) {
+            this.readShare = readShare;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.demoApp.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Downstream calls ("legs") made by the student home screen endpoint.
+ * URIs may use the {messId} and {userId} placeholders; legs that need a placeholder the
+ * request does not provide are skipped.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.home")
+public class HomeAggregationProperties {
+
+    private Map<String, Leg> legs = new LinkedHashMap<>();
+
+    public Map<String, Leg> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(Map<String, Leg> legs) {
+        this.legs = legs;
+    }
+
+    public static class Leg {
+        private String uri;
+        private long timeoutMillis = 800;
+
+        public String getUri() {
+            return uri;
+        }
+
+        public void setUri(String uri) {
+            this.uri = uri;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+}
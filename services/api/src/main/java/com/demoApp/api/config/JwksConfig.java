@@ -0,0 +1,28 @@
+package com.demoApp.apigateway.config;
+
+import com.demoApp.common.security.JwksKeyResolver;
+import com.demoApp.common.security.RevokedTokens;
+import com.demoApp.common.security.TokenRevocationConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Verification keys for the gateway's JWT check, from the authentication service's JWKS
+ * endpoint. Tokens without a {@code kid} are only accepted while {@code jwt.legacy-hmac.enabled}
+ * is set, and tokens revoked by the authentication service are rejected.
+ */
+@Configuration
+@Import(TokenRevocationConfiguration.class)
+public class JwksConfig {
+
+    @Bean
+    public JwksKeyResolver jwksKeyResolver(
+            @Value("${gateway.jwks.uri:http://auth-service:8081/.well-known/jwks.json}") String jwksUri,
+            @Value("${gateway.jwks.refresh-seconds:300}") long refreshSeconds,
+            @Value("${jwt.legacy-hmac.enabled:false}") boolean legacyHmacEnabled,
+            RevokedTokens revokedTokens) {
+        return new JwksKeyResolver(jwksUri, refreshSeconds, legacyHmacEnabled, revokedTokens);
+    }
+}
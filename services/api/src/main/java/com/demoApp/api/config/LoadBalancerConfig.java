@@ -0,0 +1,28 @@
+package com.demoApp.apigateway.config;
+
+import com.demoApp.common.loadbalancer.EwmaLoadBalancerConfiguration;
+import com.demoApp.common.loadbalancer.InstanceLatencyStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Uses latency-aware (EWMA, power of two choices) instance selection for all lb:// routes
+ * and load-balanced WebClients instead of round-robin.
+ *
+ * For local testing, instances can be stubbed without Eureka through
+ * {@code spring.cloud.discovery.client.simple.instances.<service-id>[n].uri}.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = EwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public InstanceLatencyStats instanceLatencyStats(
+            @Value("${gateway.load-balancer.decay-millis:10000}") long decayMillis,
+            @Value("${gateway.load-balancer.failure-penalty-millis:1000}") long failurePenaltyMillis,
+            @Value("${gateway.load-balancer.max-probes:1}") int maxProbes) {
+        return new InstanceLatencyStats(decayMillis, failurePenaltyMillis, maxProbes);
+    }
+}
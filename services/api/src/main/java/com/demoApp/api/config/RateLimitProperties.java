@@ -0,0 +1,80 @@
+package com.demoApp.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limits applied by {@link com.demoApp.apigateway.filter.RateLimitFilter}.
+ * Routes without an entry under {@code routes} use the default limit.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private long maxTrackedClients = 100_000;
+    private Limit defaults = new Limit();
+    private Map<String, Limit> routes = new HashMap<>();
+
+    public Limit forRoute(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxTrackedClients() {
+        return maxTrackedClients;
+    }
+
+    public void setMaxTrackedClients(long maxTrackedClients) {
+        this.maxTrackedClients = maxTrackedClients;
+    }
+
+    public Limit getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Limit defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    public static class Limit {
+        // Maximum burst a single client can send
+        private int capacity = 50;
+        // Sustained requests per second per client
+        private double refillTokensPerSecond = 10;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillTokensPerSecond() {
+            return refillTokensPerSecond;
+        }
+
+        public void setRefillTokensPerSecond(double refillTokensPerSecond) {
+            this.refillTokensPerSecond = refillTokensPerSecond;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.demoApp.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for {@link com.demoApp.apigateway.filter.ResponseCacheFilter}.
+ * Only routes that have the filter applied in {@link RouteConfiguration} are cached.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    // Upper bound on the total size of cached bodies
+    private long maxSizeBytes = 64L * 1024 * 1024;
+    // Larger responses are passed through without being cached
+    private int maxEntryBytes = 512 * 1024;
+    private RouteCache defaults = new RouteCache();
+    private Map<String, RouteCache> routes = new HashMap<>();
+
+    public RouteCache forRoute(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    public void setMaxSizeBytes(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public void setMaxEntryBytes(int maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public RouteCache getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(RouteCache defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, RouteCache> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, RouteCache> routes) {
+        this.routes = routes;
+    }
+
+    public static class RouteCache {
+        // Upper bound; the downstream Cache-Control decides whether and how long to keep a response
+        private long ttlSeconds = 60;
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.demoApp.apigateway.config;
 
 import com.demoApp.apigateway.filter.AuthenticationFilter;
+import com.demoApp.apigateway.filter.ConcurrencyLimitFilter;
+import com.demoApp.apigateway.filter.HedgingFilter;
+import com.demoApp.apigateway.filter.RateLimitFilter;
+import com.demoApp.apigateway.filter.RateLimitFilter.KeyResolver;
+import com.demoApp.apigateway.filter.RequestCoalescingFilter;
+import com.demoApp.apigateway.filter.ResponseCacheFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -13,72 +20,127 @@ public class RouteConfiguration {
     @Autowired
     private AuthenticationFilter authenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+
+    @Autowired
+    private RequestCoalescingFilter requestCoalescingFilter;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private HedgingFilter hedgingFilter;
+
     @Bean
     public RouteLocator routes(RouteLocatorBuilder builder) {
         return builder.routes()
                 // User service routes
                 .route("user-service", r -> r.path("/api/users/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("user-service", KeyResolver.USER))
+                                .filter(concurrencyLimit("user-service"))
                                 .rewritePath("/api/users/(?<segment>.*)", "/${segment}"))
                         .uri("lb://user-service"))
                 
                 // Auth service routes - No auth filter for login/register
                 .route("auth-service", r -> r.path("/api/auth/**")
-                        .filters(f -> f.rewritePath("/api/auth/(?<segment>.*)", "/${segment}"))
+                        .filters(f -> f.filter(rateLimit("auth-service", KeyResolver.IP))
+                                .filter(concurrencyLimit("auth-service"))
+                                .rewritePath("/api/auth/(?<segment>.*)", "/${segment}"))
                         .uri("lb://auth-service"))
 
                 // Owner service routes
                 .route("owner-service", r -> r.path("/api/owners/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("owner-service", KeyResolver.USER))
+                                .filter(concurrencyLimit("owner-service"))
                                 .rewritePath("/api/owners/(?<segment>.*)", "/${segment}"))
                         .uri("lb://owner-service"))
 
                 // Mess service routes
                 .route("mess-service", r -> r.path("/api/mess/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("mess-service", KeyResolver.USER))
+                                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config("mess-service")))
+                                .filter(requestCoalescingFilter.apply(new RequestCoalescingFilter.Config("mess-service")))
+                                .filter(concurrencyLimit("mess-service"))
                                 .rewritePath("/api/mess/(?<segment>.*)", "/${segment}"))
                         .uri("lb://mess-service"))
 
                 // OTP service routes - Some endpoints don't need auth
                 .route("otp-service", r -> r.path("/api/otp/**")
-                        .filters(f -> f.rewritePath("/api/otp/(?<segment>.*)", "/${segment}"))
+                        .filters(f -> f.filter(rateLimit("otp-service", KeyResolver.IP))
+                                .filter(concurrencyLimit("otp-service"))
+                                .rewritePath("/api/otp/(?<segment>.*)", "/${segment}"))
                         .uri("lb://otp-service"))
 
                 // Subscription service routes
                 .route("subscription-service", r -> r.path("/api/subscriptions/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("subscription-service", KeyResolver.USER))
+                                .filter(concurrencyLimit("subscription-service"))
                                 .rewritePath("/api/subscriptions/(?<segment>.*)", "/${segment}"))
                         .uri("lb://subscription-service"))
 
                 // Payment service routes
                 .route("payment-service", r -> r.path("/api/payments/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("payment-service", KeyResolver.USER))
+                                .filter(concurrencyLimit("payment-service"))
                                 .rewritePath("/api/payments/(?<segment>.*)", "/${segment}"))
                         .uri("lb://payment-service"))
 
                 // Admin service routes
                 .route("admin-service", r -> r.path("/api/admin/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("admin-service", KeyResolver.USER))
+                                .filter(concurrencyLimit("admin-service"))
                                 .rewritePath("/api/admin/(?<segment>.*)", "/${segment}"))
                         .uri("lb://admin-service"))
                         
                 // Menu service routes
                 .route("menu-service", r -> r.path("/api/menu/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("menu-service", KeyResolver.USER))
+                                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config("menu-service")))
+                                .filter(requestCoalescingFilter.apply(new RequestCoalescingFilter.Config("menu-service")))
+                                .filter(concurrencyLimit("menu-service"))
+                                .filter(hedging("menu-service"))
                                 .rewritePath("/api/menu/(?<segment>.*)", "/${segment}"))
                         .uri("lb://menu-service"))
                         
                 // Campus service routes
                 .route("campus-service", r -> r.path("/api/campus/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("campus-service", KeyResolver.USER))
+                                .filter(concurrencyLimit("campus-service"))
+                                .filter(hedging("campus-service"))
                                 .rewritePath("/api/campus/(?<segment>.*)", "/${segment}"))
                         .uri("lb://campus-service"))
                         
                 // Delivery service routes
                 .route("delivery-service", r -> r.path("/api/delivery/**")
                         .filters(f -> f.filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(rateLimit("delivery-service", KeyResolver.USER))
+                                .filter(concurrencyLimit("delivery-service"))
                                 .rewritePath("/api/delivery/(?<segment>.*)", "/${segment}"))
                         .uri("lb://delivery-service"))
                 .build();
     }
+
+    private GatewayFilter rateLimit(String routeId, KeyResolver keyResolver) {
+        return rateLimitFilter.apply(new RateLimitFilter.Config(routeId, keyResolver));
+    }
+
+    private GatewayFilter concurrencyLimit(String routeId) {
+        return concurrencyLimitFilter.apply(new ConcurrencyLimitFilter.Config(routeId));
+    }
+
+    private GatewayFilter hedging(String routeId) {
+        return hedgingFilter.apply(new HedgingFilter.Config(routeId));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.demoApp.apigateway.config;
+
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class WebClientConfig {
+
+    // Resolves lb:// URIs through the service registry. Built from Boot's builder rather than
+    // declared as a @LoadBalanced builder bean, which would replace that builder for every client.
+    @Bean
+    public WebClient homeWebClient(WebClient.Builder webClientBuilder,
+                                   LoadBalancedExchangeFilterFunction loadBalancerExchangeFilterFunction) {
+        return webClientBuilder.clone()
+                .filter(loadBalancerExchangeFilterFunction)
+                .build();
+    }
+}
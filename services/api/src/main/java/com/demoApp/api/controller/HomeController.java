@@ -0,0 +1,86 @@
+package com.demoApp.apigateway.controller;
+
+import com.demoApp.apigateway.dto.HomeSection;
+import com.demoApp.apigateway.security.JwtClaimsCache;
+import com.demoApp.apigateway.service.HomeAggregationService;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Student home screen in a single round trip.
+ *
+ * {@code application/json} returns one object with a section per downstream service;
+ * {@code application/x-ndjson} streams each section as soon as it is ready.
+ */
+@RestController
+@RequestMapping("/api/home")
+public class HomeController {
+
+    private final HomeAggregationService homeAggregationService;
+    private final JwtClaimsCache jwtClaimsCache;
+
+    public HomeController(HomeAggregationService homeAggregationService, JwtClaimsCache jwtClaimsCache) {
+        this.homeAggregationService = homeAggregationService;
+        this.jwtClaimsCache = jwtClaimsCache;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<String, HomeSection>> getHome(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(required = false) String messId) {
+        Claims claims = authenticate(authorization);
+        return homeAggregationService.compose(variables(claims, messId), forwardedHeaders(authorization, claims));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<HomeSection> streamHome(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(required = false) String messId) {
+        Claims claims = authenticate(authorization);
+        return homeAggregationService.sections(variables(claims, messId), forwardedHeaders(authorization, claims));
+    }
+
+    private Claims authenticate(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid authorization header");
+        }
+        try {
+            return jwtClaimsCache.getVerifiedClaims(authorization.substring(7));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token: " + e.getMessage());
+        }
+    }
+
+    private Map<String, String> variables(Claims claims, String messId) {
+        Map<String, String> variables = new HashMap<>();
+        Object userId = claims.get("userId");
+        variables.put("userId", userId != null ? userId.toString() : claims.getSubject());
+        if (messId != null) {
+            variables.put("messId", messId);
+        }
+        return variables;
+    }
+
+    // Same identity headers the AuthenticationFilter adds on proxied routes
+    private HttpHeaders forwardedHeaders(String authorization, Claims claims) {
+        String roles = claims.get("roles", String.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        headers.set("X-User-Id", claims.getSubject());
+        headers.set("X-User-Roles", roles != null ? roles : "");
+        return headers;
+    }
+}
@@ -0,0 +1,50 @@
+package com.demoApp.apigateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One part of the home screen response, with the outcome of the downstream call that
+ * produced it so the client can render partial results.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HomeSection {
+
+    public enum Status {
+        OK, TIMEOUT, ERROR, SKIPPED
+    }
+
+    private final String section;
+    private final Status status;
+    private final Integer httpStatus;
+    private final long latencyMs;
+    private final JsonNode data;
+
+    public HomeSection(String section, Status status, Integer httpStatus, long latencyMs, JsonNode data) {
+        this.section = section;
+        this.status = status;
+        this.httpStatus = httpStatus;
+        this.latencyMs = latencyMs;
+        this.data = data;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public JsonNode getData() {
+        return data;
+    }
+}
@@ -1,13 +1,7 @@
 package com.demoApp.apigateway.filter;
 
+import com.demoApp.apigateway.security.JwtClaimsCache;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
@@ -18,8 +12,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
@@ -29,8 +21,7 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
     private static final Logger logger = Logger.getLogger(AuthenticationFilter.class.getName());
 
-    @Value("${jwt.secret:yourJwtSecretKey}")
-    private String jwtSecret;
+    private final JwtClaimsCache jwtClaimsCache;
 
     // List of paths that don't require authentication
     private final List<String> excludedPaths = Arrays.asList(
@@ -44,8 +35,9 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
             "/actuator/info"
     );
 
-    public AuthenticationFilter() {
+    public AuthenticationFilter(JwtClaimsCache jwtClaimsCache) {
         super(Config.class);
+        this.jwtClaimsCache = jwtClaimsCache;
     }
 
     @Override
@@ -68,10 +60,10 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
                 String token = authHeader.substring(7);
                 try {
-                    validateToken(token);
+                    // Verified once per token, then served from the cache until it expires
+                    Claims claims = jwtClaimsCache.getVerifiedClaims(token);
                     
                     // Add user information to headers for downstream services
-                    Claims claims = extractClaims(token);
                     String userId = claims.getSubject();
                     String roles = claims.get("roles", String.class);
                     
@@ -102,36 +94,6 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
         return response.setComplete();
     }
 
-    private void validateToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-        } catch (ExpiredJwtException e) {
-            throw new RuntimeException("JWT token has expired");
-        } catch (UnsupportedJwtException e) {
-            throw new RuntimeException("JWT token is unsupported");
-        } catch (MalformedJwtException e) {
-            throw new RuntimeException("Invalid JWT token");
-        } catch (SignatureException e) {
-            throw new RuntimeException("Invalid JWT signature");
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("JWT token compact of handler are invalid");
-        }
-    }
-    
-    private Claims extractClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
     public static class Config {
         // Configuration properties if needed
     }
@@ -0,0 +1,104 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.concurrency.AimdConcurrencyLimiter;
+import com.demoApp.apigateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds load in front of a slow downstream service before it drags the gateway down.
+ *
+ * Each route gets an {@link AimdConcurrencyLimiter}. Requests beyond the current limit
+ * fail fast with 503 instead of queueing on gateway connections. Writes (anything other
+ * than GET/HEAD, e.g. placing an order or paying) may use the whole limit, while listing
+ * traffic is capped below it.
+ */
+@Component
+public class ConcurrencyLimitFilter extends AbstractGatewayFilterFactory<ConcurrencyLimitFilter.Config> {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AimdConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        AimdConcurrencyLimiter limiter = limiters.computeIfAbsent(routeId, this::createLimiter);
+        Counter shedReads = meterRegistry.counter("gateway.concurrency.shed", "route", routeId, "priority", "read");
+        Counter shedWrites = meterRegistry.counter("gateway.concurrency.shed", "route", routeId, "priority", "write");
+
+        return (exchange, chain) -> {
+            if (!properties.isEnabled()) {
+                return chain.filter(exchange);
+            }
+
+            HttpMethod method = exchange.getRequest().getMethod();
+            boolean write = method != HttpMethod.GET && method != HttpMethod.HEAD;
+            if (!limiter.tryAcquire(write)) {
+                (write ? shedWrites : shedReads).increment();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return response.setComplete();
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limiter.onIgnore();
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                limiter.onComplete(start, System.nanoTime(), failed);
+            });
+        };
+    }
+
+    private AimdConcurrencyLimiter createLimiter(String routeId) {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(properties.forRoute(routeId));
+        Gauge.builder("gateway.concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    public static class Config {
+        private String routeId;
+
+        public Config() {
+        }
+
+        public Config(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
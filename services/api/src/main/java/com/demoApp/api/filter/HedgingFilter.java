@@ -0,0 +1,312 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.config.HedgingProperties;
+import com.demoApp.apigateway.hedging.HedgeBudget;
+import com.demoApp.apigateway.metrics.LatencyHistogram;
+import com.demoApp.apigateway.metrics.RouteLatencyRecorder;
+import com.demoApp.common.loadbalancer.EwmaLoadBalancerLifecycle;
+import com.demoApp.common.loadbalancer.InstanceLatencyStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedges idempotent reads against a second instance when the first is slow.
+ *
+ * Runs right after the load balancer has picked an instance and takes over the downstream
+ * call for GET requests. If the chosen instance has not returned response headers within
+ * the route's observed upstream percentile (p95 by default), the same request is sent to
+ * another instance; whichever answers first is streamed to the client and the other call
+ * is cancelled. Hedges are limited by a {@link HedgeBudget} so a struggling service never
+ * sees more than a few percent of extra load.
+ */
+@Component
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> {
+
+    // Percentiles are read from the histograms at most this often per route
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private enum Outcome {
+        NOT_HEDGED, NO_ALTERNATE, BUDGET_EXHAUSTED, HEDGE_SENT
+    }
+
+    private final HedgingProperties properties;
+    private final RouteLatencyRecorder latencyRecorder;
+    private final LoadBalancerClientFactory clientFactory;
+    private final InstanceLatencyStats instanceStats;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+    private final Map<String, RouteState> states = new ConcurrentHashMap<>();
+
+    public HedgingFilter(HedgingProperties properties, RouteLatencyRecorder latencyRecorder,
+                         LoadBalancerClientFactory clientFactory, InstanceLatencyStats instanceStats,
+                         ObjectProvider<List<HttpHeadersFilter>> headersFilters, HttpClient httpClient,
+                         MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.latencyRecorder = latencyRecorder;
+        this.clientFactory = clientFactory;
+        this.instanceStats = instanceStats;
+        this.headersFilters = headersFilters;
+        this.meterRegistry = meterRegistry;
+        // Same client as NettyRoutingFilter, but without the load-balancer exchange filter:
+        // both legs are sent to instances chosen here
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        RouteState state = states.computeIfAbsent(routeId, this::createState);
+        Counter notHedged = outcomeCounter(routeId, "not_hedged");
+        Counter noAlternate = outcomeCounter(routeId, "no_alternate");
+        Counter budgetExhausted = outcomeCounter(routeId, "budget_exhausted");
+        Counter primaryWon = outcomeCounter(routeId, "primary_won");
+        Counter hedgeWon = outcomeCounter(routeId, "hedge_won");
+
+        GatewayFilter filter = (exchange, chain) -> {
+            Response<ServiceInstance> lbResponse =
+                    exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (!properties.isEnabled() || exchange.getRequest().getMethod() != HttpMethod.GET
+                    || lbResponse == null || !lbResponse.hasServer() || requestUrl == null || route == null) {
+                return chain.filter(exchange);
+            }
+
+            long delayNanos = state.delayNanos();
+            if (delayNanos < 0) {
+                // Not enough samples yet to know what "slow" means for this route
+                return chain.filter(exchange);
+            }
+            state.budget.deposit();
+
+            ServiceInstance primaryInstance = lbResponse.getServer();
+            String serviceId = route.getUri().getHost();
+            HttpHeaders requestHeaders = requestHeaders(exchange);
+            AtomicReference<Outcome> outcome = new AtomicReference<>(Outcome.NOT_HEDGED);
+
+            Mono<Leg> primary = send(requestUrl, requestHeaders, primaryInstance, false);
+            Mono<Leg> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                    .flatMap(tick -> alternateInstance(serviceId, primaryInstance))
+                    .switchIfEmpty(Mono.<ServiceInstance>fromRunnable(() -> outcome.set(Outcome.NO_ALTERNATE)))
+                    .flatMap(instance -> {
+                        if (!state.budget.tryAcquire()) {
+                            outcome.set(Outcome.BUDGET_EXHAUSTED);
+                            return Mono.empty();
+                        }
+                        outcome.set(Outcome.HEDGE_SENT);
+                        return send(LoadBalancerUriTools.reconstructURI(instance, requestUrl), requestHeaders, instance, true);
+                    })
+                    // Without a hedge the race is decided by the primary alone
+                    .switchIfEmpty(Mono.never());
+
+            long upstreamStart = System.nanoTime();
+            exchange.getAttributes().put(LatencyTimingFilter.UPSTREAM_START_ATTR, upstreamStart);
+            // The load balancer lifecycle would time the primary until the winner is written
+            exchange.getAttributes().put(EwmaLoadBalancerLifecycle.RECORDED_BY_CALLER_ATTR, Boolean.TRUE);
+            return Mono.firstWithSignal(primary, hedge)
+                    .doOnNext(winner -> {
+                        exchange.getAttributes().put(LatencyTimingFilter.UPSTREAM_NANOS_ATTR,
+                                System.nanoTime() - upstreamStart);
+                        switch (outcome.get()) {
+                            case NO_ALTERNATE -> noAlternate.increment();
+                            case BUDGET_EXHAUSTED -> budgetExhausted.increment();
+                            case HEDGE_SENT -> (winner.hedge ? hedgeWon : primaryWon).increment();
+                            default -> notHedged.increment();
+                        }
+                    })
+                    .flatMap(winner -> write(exchange, winner.response));
+        };
+        return new OrderedGatewayFilter(filter, ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1);
+    }
+
+    private Mono<Leg> send(URI uri, HttpHeaders headers, ServiceInstance instance, boolean hedge) {
+        Mono<Leg> leg = webClient.get()
+                .uri(uri)
+                .headers(h -> h.addAll(headers))
+                .retrieve()
+                // Downstream errors are passed through to the client like NettyRoutingFilter does
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> new Leg(response, hedge));
+        // Each leg is timed on its own instance; the primary was already counted as started
+        // by the load balancer lifecycle. A cancelled loser records how long it took so far.
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            if (hedge) {
+                instanceStats.onStart(instance);
+            }
+            AtomicBoolean serverError = new AtomicBoolean();
+            return leg.doOnNext(result -> serverError.set(result.response.getStatusCode().is5xxServerError()))
+                    .doFinally(signal -> instanceStats.onComplete(instance, System.nanoTime() - start,
+                            signal == SignalType.ON_ERROR || serverError.get()));
+        });
+    }
+
+    private Mono<ServiceInstance> alternateInstance(String serviceId, ServiceInstance primary) {
+        ServiceInstanceListSupplier supplier = clientFactory
+                .getLazyProvider(serviceId, ServiceInstanceListSupplier.class)
+                .getIfAvailable();
+        if (supplier == null) {
+            return Mono.empty();
+        }
+        return supplier.get().next().flatMap(instances -> {
+            ServiceInstance best = null;
+            double bestScore = Double.MAX_VALUE;
+            for (ServiceInstance instance : instances) {
+                if (instance.getHost().equals(primary.getHost()) && instance.getPort() == primary.getPort()) {
+                    continue;
+                }
+                // Unprobed instances count as fastest, as in EwmaLoadBalancer
+                double score = Math.max(instanceStats.score(instance), 0);
+                if (score < bestScore) {
+                    best = instance;
+                    bestScore = score;
+                }
+            }
+            return Mono.justOrEmpty(best);
+        });
+    }
+
+    private HttpHeaders requestHeaders(ServerWebExchange exchange) {
+        // Without header filters this is the read-only request headers
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(Collections::emptyList), exchange));
+        headers.remove(HttpHeaders.HOST);
+        return headers;
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<Flux<DataBuffer>> upstream) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(upstream.getStatusCode());
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters.getIfAvailable(Collections::emptyList),
+                upstream.getHeaders(), exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(headers);
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        Flux<DataBuffer> body = upstream.getBody();
+        return response.writeWith(body != null ? body : Flux.empty());
+    }
+
+    private RouteState createState(String routeId) {
+        RouteState state = new RouteState(routeId, properties.forRoute(routeId));
+        Gauge.builder("gateway.hedging.delay", state, s -> Math.max(s.delayNanos(), 0) / 1_000_000.0)
+                .tag("route", routeId)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return state;
+    }
+
+    private Counter outcomeCounter(String routeId, String outcome) {
+        return meterRegistry.counter("gateway.hedging.requests", "route", routeId, "outcome", outcome);
+    }
+
+    private class RouteState {
+        private final String routeId;
+        private final HedgingProperties.Policy policy;
+        private final HedgeBudget budget;
+        private volatile long delayNanos = -1;
+        private volatile long refreshedAt;
+
+        RouteState(String routeId, HedgingProperties.Policy policy) {
+            this.routeId = routeId;
+            this.policy = policy;
+            this.budget = new HedgeBudget(policy.getBudgetRatio(), policy.getMaxBurst());
+            this.refreshedAt = System.nanoTime() - DELAY_REFRESH_NANOS;
+        }
+
+        /**
+         * Returns the current hedge delay, or -1 while the route has too few samples.
+         */
+        long delayNanos() {
+            long now = System.nanoTime();
+            if (now - refreshedAt >= DELAY_REFRESH_NANOS) {
+                refreshedAt = now;
+                delayNanos = computeDelayNanos();
+            }
+            return delayNanos;
+        }
+
+        private long computeDelayNanos() {
+            LatencyHistogram[] histograms = latencyRecorder.getRoutes().get(routeId);
+            if (histograms == null) {
+                return -1;
+            }
+            LatencyHistogram upstream = histograms[RouteLatencyRecorder.Phase.UPSTREAM.ordinal()];
+            if (upstream.getCount() < policy.getMinSamples()) {
+                return -1;
+            }
+            long millis = TimeUnit.MICROSECONDS.toMillis(upstream.percentileMicros(policy.getPercentile()));
+            long clamped = Math.max(policy.getMinDelayMillis(), Math.min(policy.getMaxDelayMillis(), millis));
+            return TimeUnit.MILLISECONDS.toNanos(clamped);
+        }
+    }
+
+    private static class Leg {
+        private final ResponseEntity<Flux<DataBuffer>> response;
+        private final boolean hedge;
+
+        Leg(ResponseEntity<Flux<DataBuffer>> response, boolean hedge) {
+            this.response = response;
+            this.hedge = hedge;
+        }
+    }
+
+    public static class Config {
+        private String routeId;
+
+        public Config() {
+        }
+
+        public Config(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
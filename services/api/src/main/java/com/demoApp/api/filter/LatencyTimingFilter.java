@@ -0,0 +1,77 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.metrics.RouteLatencyRecorder;
+import com.demoApp.apigateway.metrics.RouteLatencyRecorder.Phase;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times every routed request and reports the split between gateway filters and the
+ * downstream service, both into {@link RouteLatencyRecorder} and to the client as a
+ * {@code Server-Timing} header.
+ *
+ * Runs first in the global filter chain; {@link UpstreamTimingFilter} marks the point where
+ * the request leaves the gateway.
+ */
+@Component
+public class LatencyTimingFilter implements GlobalFilter, Ordered {
+
+    static final String UPSTREAM_START_ATTR = LatencyTimingFilter.class.getName() + ".upstreamStart";
+    static final String UPSTREAM_NANOS_ATTR = LatencyTimingFilter.class.getName() + ".upstreamNanos";
+
+    private final RouteLatencyRecorder recorder;
+
+    public LatencyTimingFilter(RouteLatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        exchange.getResponse().beforeCommit(() -> {
+            record(exchange, start);
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    private void record(ServerWebExchange exchange, long start) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return;
+        }
+        long totalNanos = System.nanoTime() - start;
+        Long upstreamStart = exchange.getAttribute(UPSTREAM_START_ATTR);
+        Long upstreamNanos = exchange.getAttribute(UPSTREAM_NANOS_ATTR);
+        long filterNanos = upstreamStart != null ? upstreamStart - start : totalNanos;
+
+        recorder.record(route.getId(), Phase.FILTERS, filterNanos);
+        recorder.record(route.getId(), Phase.TOTAL, totalNanos);
+        if (upstreamNanos != null) {
+            recorder.record(route.getId(), Phase.UPSTREAM, upstreamNanos);
+        }
+
+        StringBuilder serverTiming = new StringBuilder(64)
+                .append("gateway;dur=").append(toMillis(filterNanos));
+        if (upstreamNanos != null) {
+            serverTiming.append(", upstream;dur=").append(toMillis(upstreamNanos));
+        }
+        serverTiming.append(", total;dur=").append(toMillis(totalNanos));
+        exchange.getResponse().getHeaders().add("Server-Timing", serverTiming.toString());
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,133 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.config.RateLimitProperties;
+import com.demoApp.apigateway.ratelimit.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Per-client, per-route admission control using in-memory token buckets.
+ *
+ * Clients are identified by the {@code X-User-Id} header set by {@link AuthenticationFilter}
+ * or, on unauthenticated routes, by their remote address. Rejected requests get a 429 with
+ * a {@code Retry-After} header. No external store is needed.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private static final Logger logger = Logger.getLogger(RateLimitFilter.class.getName());
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        // Idle clients are dropped so the bucket table stays bounded
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedClients())
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RateLimitProperties.Limit limit = properties.forRoute(config.getRouteId());
+        Counter allowed = meterRegistry.counter("gateway.ratelimit.requests",
+                "route", config.getRouteId(), "outcome", "allowed");
+        Counter rejected = meterRegistry.counter("gateway.ratelimit.requests",
+                "route", config.getRouteId(), "outcome", "rejected");
+
+        return (exchange, chain) -> {
+            if (!properties.isEnabled()) {
+                return chain.filter(exchange);
+            }
+
+            String clientKey = config.getRouteId() + '|' + resolveClient(exchange.getRequest(), config.getKeyResolver());
+            TokenBucket bucket = buckets.get(clientKey,
+                    k -> new TokenBucket(limit.getCapacity(), limit.getRefillTokensPerSecond()));
+
+            long waitNanos = bucket.tryAcquire();
+            if (waitNanos == 0) {
+                allowed.increment();
+                return chain.filter(exchange);
+            }
+
+            rejected.increment();
+            logger.fine("Rate limit exceeded for " + clientKey);
+            return onRejected(exchange, waitNanos);
+        };
+    }
+
+    private String resolveClient(ServerHttpRequest request, KeyResolver keyResolver) {
+        if (keyResolver == KeyResolver.USER) {
+            String userId = request.getHeaders().getFirst("X-User-Id");
+            if (userId != null && !userId.isEmpty()) {
+                return "user:" + userId;
+            }
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return "ip:" + (remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown");
+    }
+
+    private Mono<Void> onRejected(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    public enum KeyResolver {
+        // X-User-Id, falling back to the client address when the header is absent
+        USER,
+        // Client address only, for unauthenticated routes
+        IP
+    }
+
+    public static class Config {
+        private String routeId;
+        private KeyResolver keyResolver = KeyResolver.USER;
+
+        public Config() {
+        }
+
+        public Config(String routeId, KeyResolver keyResolver) {
+            this.routeId = routeId;
+            this.keyResolver = keyResolver;
+        }
+
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public KeyResolver getKeyResolver() {
+            return keyResolver;
+        }
+
+        public void setKeyResolver(KeyResolver keyResolver) {
+            this.keyResolver = keyResolver;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.cache.CacheDirectives;
+import com.demoApp.apigateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses identical concurrent GET requests into a single downstream call.
+ *
+ * The first request for a key becomes the leader and is routed normally; requests that
+ * arrive while it is in flight wait for the leader's buffered response and replay it. A
+ * follower that waits longer than the configured maximum, or whose leader produced no
+ * shareable response, calls downstream on its own.
+ *
+ * Requests are only collapsed with requests from the same user (X-User-Id and roles), and
+ * only responses that are not {@code private} or {@code no-store} and set no cookie are
+ * handed on. On the configured shared paths requests from all users are collapsed, and the
+ * response must be marked {@code public} or carry {@code s-maxage} to be handed on.
+ */
+@Component
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    private final CoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        Counter leaders = meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "outcome", "leader");
+        Counter coalesced = meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "outcome", "coalesced");
+        Counter fallbacks = meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "outcome", "fallback");
+
+        return (exchange, chain) -> {
+            if (!properties.isEnabled() || exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            boolean sharedPath = properties.isSharedPath(exchange.getRequest().getPath().pathWithinApplication());
+            String requestKey = sharedPath
+                    ? RequestKeys.shared(exchange.getRequest())
+                    : RequestKeys.forUser(exchange.getRequest());
+            if (requestKey == null) {
+                return chain.filter(exchange);
+            }
+            String key = routeId + ' ' + requestKey;
+            Sinks.One<SharedResponse> sink = Sinks.one();
+            Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, sink);
+
+            if (leader != null) {
+                return leader.asMono()
+                        .timeout(Duration.ofMillis(properties.getMaxWaitMillis()))
+                        .onErrorResume(TimeoutException.class, e -> Mono.empty())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(shared -> {
+                            if (shared.isPresent()) {
+                                coalesced.increment();
+                                return write(exchange, shared.get());
+                            }
+                            fallbacks.increment();
+                            return chain.filter(exchange);
+                        });
+            }
+
+            leaders.increment();
+            ServerHttpResponseDecorator sharing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    return DataBufferUtils.join(Flux.from(body)).flatMap(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+
+                        CacheDirectives directives = CacheDirectives.of(getHeaders());
+                        boolean shareable = sharedPath ? directives.isSharedAcrossUsers() : directives.isShareable();
+                        if (shareable && bytes.length <= properties.getMaxBodyBytes()) {
+                            sink.tryEmitValue(new SharedResponse(getStatusCode(), shareableHeaders(getHeaders()), bytes));
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    }).switchIfEmpty(Mono.defer(() -> super.writeWith(Flux.empty())));
+                }
+            };
+
+            return chain.filter(exchange.mutate().response(sharing).build())
+                    .doFinally(signal -> {
+                        inFlight.remove(key, sink);
+                        // Releases waiting followers if the leader never produced a body
+                        sink.tryEmitEmpty();
+                    });
+        };
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(shared.status);
+        response.getHeaders().putAll(shared.headers);
+        response.getHeaders().setContentLength(shared.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body)));
+    }
+
+    private static HttpHeaders shareableHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(source);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        return headers;
+    }
+
+    private static class SharedResponse {
+        private final HttpStatusCode status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    public static class Config {
+        private String routeId;
+
+        public Config() {
+        }
+
+        public Config(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
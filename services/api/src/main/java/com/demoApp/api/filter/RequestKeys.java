@@ -0,0 +1,37 @@
+package com.demoApp.apigateway.filter;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Builds the identity of a GET request for the filters that share responses between callers.
+ */
+final class RequestKeys {
+
+    private RequestKeys() {
+    }
+
+    /**
+     * The resource alone, for responses that are the same for every caller
+     */
+    static String shared(ServerHttpRequest request) {
+        return target(request);
+    }
+
+    /**
+     * The resource as seen by the calling user, or null when the request carries no user.
+     * X-User-Id and X-User-Roles are set by the AuthenticationFilter from the verified token.
+     */
+    static String forUser(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst("X-User-Id");
+        if (userId == null || userId.isEmpty()) {
+            return null;
+        }
+        String roles = request.getHeaders().getFirst("X-User-Roles");
+        return target(request) + " user:" + userId + " " + (roles != null ? roles : "");
+    }
+
+    private static String target(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return request.getURI().getRawPath() + (query != null ? "?" + query : "");
+    }
+}
@@ -0,0 +1,159 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.cache.CacheDirectives;
+import com.demoApp.apigateway.cache.CachedResponse;
+import com.demoApp.apigateway.cache.ResponseCache;
+import com.demoApp.apigateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches successful GET responses in the gateway and serves them without calling the
+ * downstream service. Every cached response carries a strong ETag computed from its body,
+ * and a matching {@code If-None-Match} is answered with 304.
+ *
+ * The downstream service decides what may be kept through {@code Cache-Control}. Responses
+ * marked {@code public} or with {@code s-maxage} are the same for everyone and are shared by
+ * all users. Other responses with a {@code max-age} are kept for the requesting user only,
+ * keyed by X-User-Id and roles. Anything {@code private}, {@code no-store}, {@code no-cache},
+ * without a lifetime, or setting a cookie is passed through. The route's TTL caps the lifetime.
+ *
+ * Entries are dropped early by {@link com.demoApp.apigateway.cache.CacheInvalidationListener}
+ * when the data changes.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(ResponseCache responseCache, ResponseCacheProperties properties,
+                               MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        long maxTtlSeconds = properties.forRoute(routeId).getTtlSeconds();
+        Counter notModified = meterRegistry.counter("gateway.response-cache.not-modified", "route", routeId);
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String sharedKey = ResponseCache.key(routeId, RequestKeys.shared(request));
+            String userRequestKey = RequestKeys.forUser(request);
+            String userKey = userRequestKey != null ? ResponseCache.key(routeId, userRequestKey) : null;
+
+            CachedResponse cached = responseCache.get(sharedKey);
+            if (cached == null && userKey != null) {
+                cached = responseCache.get(userKey);
+            }
+            if (cached != null) {
+                ServerHttpResponse response = exchange.getResponse();
+                response.getHeaders().setETag(cached.getEtag());
+                if (cached.getCacheControl() != null) {
+                    response.getHeaders().setCacheControl(cached.getCacheControl());
+                }
+                if (etagMatches(request, cached.getEtag())) {
+                    notModified.increment();
+                    response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                    return response.setComplete();
+                }
+                response.setStatusCode(HttpStatus.OK);
+                if (cached.getContentType() != null) {
+                    response.getHeaders().setContentType(cached.getContentType());
+                }
+                response.getHeaders().setContentLength(cached.getBody().length);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+            }
+
+            ServerHttpResponseDecorator caching = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    HttpStatusCode status = getStatusCode();
+                    CacheDirectives directives = CacheDirectives.of(getHeaders());
+                    String key = directives.isSharedAcrossUsers() ? sharedKey : userKey;
+                    long ttlSeconds = Math.min(maxTtlSeconds, directives.sharedTtlSeconds());
+                    if (status == null || status.value() != HttpStatus.OK.value() || key == null || ttlSeconds <= 0) {
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(Flux.from(body)).flatMap(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+
+                        if (bytes.length <= properties.getMaxEntryBytes()) {
+                            String etag = etag(bytes);
+                            responseCache.put(key, new CachedResponse(getHeaders().getContentType(),
+                                    getHeaders().getCacheControl(), bytes, etag, TimeUnit.SECONDS.toNanos(ttlSeconds)));
+                            getHeaders().setETag(etag);
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    }).switchIfEmpty(Mono.defer(() -> super.writeWith(Flux.empty())));
+                }
+            };
+            return chain.filter(exchange.mutate().response(caching).build());
+        };
+    }
+
+    private boolean etagMatches(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        return ifNoneMatch.contains(etag) || ifNoneMatch.contains("*");
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static class Config {
+        private String routeId;
+
+        public Config() {
+        }
+
+        public Config(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
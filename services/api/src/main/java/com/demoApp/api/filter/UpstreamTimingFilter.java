@@ -0,0 +1,31 @@
+package com.demoApp.apigateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs immediately before {@link NettyRoutingFilter} and measures how long the downstream
+ * service takes to return its response headers. See {@link LatencyTimingFilter}.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long upstreamStart = System.nanoTime();
+        exchange.getAttributes().put(LatencyTimingFilter.UPSTREAM_START_ATTR, upstreamStart);
+        return chain.filter(exchange)
+                .doOnTerminate(() -> exchange.getAttributes().put(LatencyTimingFilter.UPSTREAM_NANOS_ATTR,
+                        System.nanoTime() - upstreamStart));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.demoApp.apigateway.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged requests at a fixed share of the primary traffic.
+ *
+ * Every eligible request deposits {@code ratio} of a token, every hedge spends a whole one,
+ * and the balance is capped at {@code maxBurst} tokens. With a ratio of 0.05 a route can
+ * never add more than 5% extra load downstream, no matter how slow the target becomes.
+ */
+public class HedgeBudget {
+
+    private static final long UNIT = 1_000_000L;
+
+    private final long depositUnits;
+    private final long maxUnits;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double ratio, int maxBurst) {
+        this.depositUnits = Math.max(0, (long) (ratio * UNIT));
+        this.maxUnits = Math.max(1, maxBurst) * UNIT;
+    }
+
+    /**
+     * Called once per eligible request.
+     */
+    public void deposit() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxUnits) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxUnits, current + depositUnits)));
+    }
+
+    /**
+     * Spends one hedge, or returns false when the budget is exhausted.
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - UNIT));
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package com.demoApp.apigateway.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes per-route latency percentiles at {@code /actuator/gatewaylatency}.
+ * Read-only: the actuator endpoints are not authenticated.
+ */
+@Component
+@Endpoint(id = "gatewaylatency")
+public class GatewayLatencyEndpoint {
+
+    private final RouteLatencyRecorder recorder;
+
+    public GatewayLatencyEndpoint(RouteLatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> routes() {
+        Map<String, Object> result = new TreeMap<>();
+        recorder.getRoutes().forEach((routeId, histograms) -> result.put(routeId, summarize(histograms)));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> route(@Selector String routeId) {
+        LatencyHistogram[] histograms = recorder.getRoutes().get(routeId);
+        return histograms != null ? summarize(histograms) : null;
+    }
+
+    private Map<String, Object> summarize(LatencyHistogram[] histograms) {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (RouteLatencyRecorder.Phase phase : RouteLatencyRecorder.Phase.values()) {
+            LatencyHistogram histogram = histograms[phase.ordinal()];
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.getCount());
+            summary.put("p50Ms", toMillis(histogram.percentileMicros(50)));
+            summary.put("p95Ms", toMillis(histogram.percentileMicros(95)));
+            summary.put("p99Ms", toMillis(histogram.percentileMicros(99)));
+            summary.put("p999Ms", toMillis(histogram.percentileMicros(99.9)));
+            summary.put("maxMs", toMillis(histogram.getMaxMicros()));
+            phases.put(phase.name().toLowerCase(), summary);
+        }
+        return phases;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.demoApp.apigateway.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one latency histogram per route and phase.
+ *
+ * <ul>
+ *   <li>{@code FILTERS} - time spent in gateway filters before the request is sent downstream
+ *       (authentication, rate limiting, caching); for responses served by the gateway itself
+ *       this is the whole request</li>
+ *   <li>{@code UPSTREAM} - time until the downstream service returned its response headers</li>
+ *   <li>{@code TOTAL} - time until the gateway committed the response</li>
+ * </ul>
+ */
+@Component
+public class RouteLatencyRecorder {
+
+    public enum Phase {
+        FILTERS, UPSTREAM, TOTAL
+    }
+
+    private final ConcurrentMap<String, LatencyHistogram[]> routes = new ConcurrentHashMap<>();
+
+    public void record(String routeId, Phase phase, long nanos) {
+        LatencyHistogram[] histograms = routes.get(routeId);
+        if (histograms == null) {
+            histograms = routes.computeIfAbsent(routeId, id -> newHistograms());
+        }
+        histograms[phase.ordinal()].recordNanos(nanos);
+    }
+
+    public Map<String, LatencyHistogram[]> getRoutes() {
+        return Collections.unmodifiableMap(routes);
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,164 @@
+package com.demoApp.apigateway.security;
+
+import com.demoApp.common.security.JwksKeyResolver;
+import com.demoApp.common.security.RevokedTokenException;
+import com.demoApp.common.security.RevokedTokens;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies JWTs for the gateway and remembers the verified claims until the token expires.
+ *
+ * Entries are keyed by a SHA-256 digest of the raw token so the cache never holds bearer
+ * credentials, and each entry is evicted at the token's {@code exp} claim. Repeat requests
+ * from the same session therefore skip signature verification entirely. Cached claims are
+ * still checked against {@link RevokedTokens}, so logout, refresh and password changes take
+ * effect at the gateway as soon as the revocation arrives.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final String jwtSecret;
+    private final JwksKeyResolver jwksKeyResolver;
+    private final RevokedTokens revokedTokens;
+    private final long defaultTtlNanos;
+    private final Cache<String, Claims> cache;
+    private final Timer parseTimer;
+
+    private volatile JwtParser parser;
+
+    public JwtClaimsCache(@Value("${jwt.secret:yourJwtSecretKey}") String jwtSecret,
+                          @Value("${gateway.jwt-cache.max-size:10000}") long maxSize,
+                          @Value("${gateway.jwt-cache.default-ttl-seconds:300}") long defaultTtlSeconds,
+                          JwksKeyResolver jwksKeyResolver,
+                          RevokedTokens revokedTokens,
+                          MeterRegistry meterRegistry) {
+        this.jwtSecret = jwtSecret;
+        this.jwksKeyResolver = jwksKeyResolver;
+        this.revokedTokens = revokedTokens;
+        this.defaultTtlNanos = TimeUnit.SECONDS.toNanos(defaultTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        this.parseTimer = Timer.builder("gateway.jwt.parse")
+                .description("Time spent parsing and verifying JWTs on a cache miss")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayJwtClaims");
+    }
+
+    /**
+     * Returns the verified claims for the token, parsing and verifying the signature only
+     * when the token has not been seen before (or its cached entry has expired).
+     *
+     * @throws RuntimeException with a client-safe message when the token is invalid
+     */
+    public Claims getVerifiedClaims(String token) {
+        String key = digest(token);
+        Claims claims = cache.getIfPresent(key);
+        if (claims != null) {
+            if (revokedTokens.isRevoked(claims)) {
+                cache.invalidate(key);
+                throw new RuntimeException("JWT token has been revoked");
+            }
+            return claims;
+        }
+
+        claims = parseTimer.record(() -> parse(token));
+        cache.put(key, claims);
+        return claims;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    private Claims parse(String token) {
+        try {
+            return parser().parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException e) {
+            throw new RuntimeException("JWT token has expired");
+        } catch (RevokedTokenException e) {
+            throw new RuntimeException("JWT token has been revoked");
+        } catch (UnsupportedJwtException e) {
+            throw new RuntimeException("JWT token is unsupported");
+        } catch (MalformedJwtException e) {
+            throw new RuntimeException("Invalid JWT token");
+        } catch (SignatureException e) {
+            throw new RuntimeException("Invalid JWT signature");
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("JWT token compact of handler are invalid");
+        }
+    }
+
+    // Built once on first use; a weak secret keeps failing per request as before instead of
+    // preventing the gateway from starting. Auth service tokens carry a kid and verify against
+    // its published keys, older ones against the shared secret while jwt.legacy-hmac.enabled is set.
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            synchronized (this) {
+                current = parser;
+                if (current == null) {
+                    current = jwksKeyResolver.parser(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)));
+                    parser = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return defaultTtlNanos;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.demoApp.apigateway.service;
+
+import com.demoApp.apigateway.config.HomeAggregationProperties;
+import com.demoApp.apigateway.dto.HomeSection;
+import com.demoApp.apigateway.dto.HomeSection.Status;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * Fans the home screen out to the mess, menu and subscription services in parallel.
+ * Every leg has its own timeout and never fails the whole response: a slow or failing leg
+ * is reported through its section status instead.
+ */
+@Service
+public class HomeAggregationService {
+
+    private static final Logger logger = Logger.getLogger(HomeAggregationService.class.getName());
+
+    private final WebClient webClient;
+    private final HomeAggregationProperties properties;
+
+    public HomeAggregationService(WebClient homeWebClient, HomeAggregationProperties properties) {
+        this.webClient = homeWebClient;
+        this.properties = properties;
+    }
+
+    /**
+     * Emits each section as soon as its leg completes, times out or fails.
+     */
+    public Flux<HomeSection> sections(Map<String, String> variables, HttpHeaders forwardedHeaders) {
+        List<Mono<HomeSection>> legs = new ArrayList<>();
+        properties.getLegs().forEach((name, leg) -> legs.add(fetch(name, leg, variables, forwardedHeaders)));
+        return Flux.merge(legs);
+    }
+
+    /**
+     * Waits for all legs and returns the sections keyed by name, in configuration order.
+     */
+    public Mono<Map<String, HomeSection>> compose(Map<String, String> variables, HttpHeaders forwardedHeaders) {
+        return sections(variables, forwardedHeaders)
+                .collectMap(HomeSection::getSection)
+                .map(bySection -> {
+                    Map<String, HomeSection> ordered = new LinkedHashMap<>();
+                    properties.getLegs().keySet().forEach(name -> ordered.put(name, bySection.get(name)));
+                    return ordered;
+                });
+    }
+
+    private Mono<HomeSection> fetch(String name, HomeAggregationProperties.Leg leg,
+                                    Map<String, String> variables, HttpHeaders forwardedHeaders) {
+        String uri;
+        try {
+            uri = UriComponentsBuilder.fromUriString(leg.getUri()).buildAndExpand(variables).toUriString();
+        } catch (IllegalArgumentException e) {
+            // A placeholder this request did not supply, e.g. no messId
+            return Mono.just(new HomeSection(name, Status.SKIPPED, null, 0, null));
+        }
+
+        long start = System.nanoTime();
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> headers.addAll(forwardedHeaders))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(Duration.ofMillis(leg.getTimeoutMillis()))
+                .map(body -> new HomeSection(name, Status.OK, 200, elapsedMillis(start), body))
+                .defaultIfEmpty(new HomeSection(name, Status.OK, 200, 0, null))
+                .onErrorResume(TimeoutException.class,
+                        e -> Mono.just(new HomeSection(name, Status.TIMEOUT, null, elapsedMillis(start), null)))
+                .onErrorResume(WebClientResponseException.class,
+                        e -> Mono.just(new HomeSection(name, Status.ERROR, e.getStatusCode().value(), elapsedMillis(start), null)))
+                .onErrorResume(e -> {
+                    logger.warning("Home section " + name + " failed: " + e.getMessage());
+                    return Mono.just(new HomeSection(name, Status.ERROR, null, elapsedMillis(start), null));
+                });
+    }
+
+    private static long elapsedMillis(long start) {
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+}
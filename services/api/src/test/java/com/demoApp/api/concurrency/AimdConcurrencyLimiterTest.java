@@ -0,0 +1,119 @@
+package com.demoApp.apigateway.concurrency;
+
+import com.demoApp.apigateway.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdConcurrencyLimiterTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+	@Test
+	void cutsTheLimitOnceForABurstOfSlowResponses() {
+		AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(settings(100, 10, 1000));
+		for (int i = 0; i < 100; i++) {
+			assertTrue(limiter.tryAcquire(true));
+		}
+
+		for (int i = 0; i < 100; i++) {
+			limiter.onComplete(0, SLOW + i, false);
+		}
+
+		assertEquals(90, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void cutsAgainForRequestsAdmittedAfterTheLastCut() {
+		AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(settings(100, 10, 1000));
+		limiter.tryAcquire(true);
+		limiter.onComplete(0, SLOW, false);
+		limiter.tryAcquire(true);
+		limiter.onComplete(SLOW + 1, SLOW + 1 + FAST, true);
+
+		assertEquals(81, limiter.getLimit());
+	}
+
+	@Test
+	void growsByAboutOnePerRoundTripWhileSaturated() {
+		AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(settings(10, 1, 100));
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire(true);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			limiter.onComplete(0, FAST, false);
+			limiter.tryAcquire(true);
+		}
+		assertEquals(10, limiter.getLimit());
+
+		limiter.onComplete(0, FAST, false);
+		assertEquals(11, limiter.getLimit());
+	}
+
+	@Test
+	void doesNotGrowWhileTheTargetIsIdle() {
+		AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(settings(10, 1, 100));
+
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire(false);
+			limiter.onComplete(0, FAST, false);
+		}
+
+		assertEquals(10, limiter.getLimit());
+	}
+
+	@Test
+	void neverDropsBelowTheMinimum() {
+		AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(settings(10, 8, 100));
+
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire(true);
+			limiter.onComplete(i * SLOW + 1, (i + 1) * SLOW, true);
+		}
+
+		assertEquals(8, limiter.getLimit());
+	}
+
+	@Test
+	void keepsPartOfTheLimitForWrites() {
+		AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(settings(10, 1, 100));
+		for (int i = 0; i < 8; i++) {
+			assertTrue(limiter.tryAcquire(false));
+		}
+
+		assertFalse(limiter.tryAcquire(false));
+		assertTrue(limiter.tryAcquire(true));
+		assertTrue(limiter.tryAcquire(true));
+		assertFalse(limiter.tryAcquire(true));
+	}
+
+	@Test
+	void ignoredRequestsReleaseTheirSlotWithoutMovingTheLimit() {
+		AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(settings(10, 1, 100));
+		limiter.tryAcquire(true);
+
+		limiter.onIgnore();
+
+		assertEquals(0, limiter.getInFlight());
+		assertEquals(10, limiter.getLimit());
+	}
+
+	private static ConcurrencyLimitProperties.Limit settings(int initial, int min, int max) {
+		ConcurrencyLimitProperties.Limit settings = new ConcurrencyLimitProperties.Limit();
+		settings.setInitialLimit(initial);
+		settings.setMinLimit(min);
+		settings.setMaxLimit(max);
+		settings.setLatencyThresholdMillis(1000);
+		settings.setBackoffRatio(0.9);
+		settings.setReadShare(0.8);
+		return settings;
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrencyLimitFilterTest {
+
+	private static final String ROUTE = "mess-service";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final GatewayFilter filter = newFilter();
+	private final Sinks.Empty<Void> downstream = Sinks.empty();
+	private final GatewayFilterChain pending = exchange -> downstream.asMono();
+
+	@Test
+	void shedsReadsBeyondTheirShareWith503() {
+		filter.filter(get(), pending).subscribe();
+		filter.filter(get(), pending).subscribe();
+
+		MockServerWebExchange shed = get();
+		filter.filter(shed, pending).block();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+		assertEquals(1, meterRegistry.counter("gateway.concurrency.shed", "route", ROUTE, "priority", "read").count());
+		assertEquals(2, inFlight());
+	}
+
+	@Test
+	void admitsWritesWhenReadsAreShed() {
+		filter.filter(get(), pending).subscribe();
+		filter.filter(get(), pending).subscribe();
+
+		MockServerWebExchange write = MockServerWebExchange.from(MockServerHttpRequest.post("/api/mess/orders"));
+		filter.filter(write, pending).subscribe();
+
+		assertNull(write.getResponse().getStatusCode());
+		assertEquals(3, inFlight());
+	}
+
+	@Test
+	void releasesTheSlotWhenTheClientCancels() {
+		Disposable request = filter.filter(get(), pending).subscribe();
+		assertEquals(1, inFlight());
+
+		request.dispose();
+
+		assertEquals(0, inFlight());
+		assertEquals(4, limit());
+	}
+
+	@Test
+	void shrinksTheLimitOnServerErrors() {
+		GatewayFilterChain failing = exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+			return Mono.empty();
+		};
+
+		filter.filter(get(), failing).block();
+
+		assertEquals(0, inFlight());
+		assertEquals(2, limit());
+	}
+
+	@Test
+	void passesThroughWhenDisabled() {
+		ConcurrencyLimitProperties properties = properties();
+		properties.setEnabled(false);
+		GatewayFilter disabled = new ConcurrencyLimitFilter(properties, new SimpleMeterRegistry())
+				.apply(new ConcurrencyLimitFilter.Config("other"));
+
+		for (int i = 0; i < 10; i++) {
+			MockServerWebExchange exchange = get();
+			disabled.filter(exchange, pending).subscribe();
+			assertNull(exchange.getResponse().getStatusCode());
+		}
+	}
+
+	private double inFlight() {
+		return meterRegistry.get("gateway.concurrency.inflight").tag("route", ROUTE).gauge().value();
+	}
+
+	private double limit() {
+		return meterRegistry.get("gateway.concurrency.limit").tag("route", ROUTE).gauge().value();
+	}
+
+	private GatewayFilter newFilter() {
+		return new ConcurrencyLimitFilter(properties(), meterRegistry).apply(new ConcurrencyLimitFilter.Config(ROUTE));
+	}
+
+	private static ConcurrencyLimitProperties properties() {
+		ConcurrencyLimitProperties.Limit limit = new ConcurrencyLimitProperties.Limit();
+		limit.setInitialLimit(4);
+		limit.setMinLimit(2);
+		limit.setMaxLimit(10);
+		limit.setBackoffRatio(0.5);
+		limit.setReadShare(0.5);
+		ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+		properties.setDefaults(limit);
+		return properties;
+	}
+
+	private static MockServerWebExchange get() {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/api/mess/menus"));
+	}
+
+}
@@ -0,0 +1,213 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.config.HedgingProperties;
+import com.demoApp.apigateway.metrics.RouteLatencyRecorder;
+import com.demoApp.common.loadbalancer.EwmaLoadBalancerLifecycle;
+import com.demoApp.common.loadbalancer.InstanceLatencyStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingFilterTest {
+
+	private static final String ROUTE = "menu-service";
+	private static final long HEDGE_DELAY_MILLIS = 100;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final InstanceLatencyStats instanceStats = new InstanceLatencyStats(10_000, 1_000);
+	private final AtomicInteger alternateCalls = new AtomicInteger();
+	private final GatewayFilterChain notRouted = exchange -> Mono.error(new AssertionError("not hedged"));
+
+	private DisposableServer primaryServer;
+	private DisposableServer alternateServer;
+
+	@AfterEach
+	void stopUpstreams() {
+		if (primaryServer != null) {
+			primaryServer.disposeNow();
+		}
+		if (alternateServer != null) {
+			alternateServer.disposeNow();
+		}
+	}
+
+	@Test
+	void servesThePrimaryWhenItAnswersBeforeTheHedgeDelay() {
+		ServiceInstance primary = primary(Duration.ZERO);
+		ServiceInstance alternate = alternate();
+		MockServerWebExchange exchange = exchange(primary);
+
+		filter(1.0, primary, alternate).filter(exchange, notRouted).block();
+
+		assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(0, alternateCalls.get());
+		assertEquals(1, outcome("not_hedged"));
+		assertTrue(awaitSample(primary));
+		assertTrue(exchange.getAttributes().containsKey(EwmaLoadBalancerLifecycle.RECORDED_BY_CALLER_ATTR));
+	}
+
+	@Test
+	void servesTheHedgeAndCancelsTheSlowPrimary() {
+		ServiceInstance primary = primary(Duration.ofSeconds(5));
+		ServiceInstance alternate = alternate();
+		MockServerWebExchange exchange = exchange(primary);
+
+		filter(1.0, primary, alternate).filter(exchange, notRouted).block(Duration.ofSeconds(2));
+
+		assertEquals("alternate", exchange.getResponse().getBodyAsString().block());
+		assertEquals(1, alternateCalls.get());
+		assertEquals(1, outcome("hedge_won"));
+		// The loser is recorded with its own elapsed time when cancelled, not with the winner's
+		double primaryNanos = instanceStats.score(primary);
+		assertTrue(primaryNanos >= TimeUnit.MILLISECONDS.toNanos(HEDGE_DELAY_MILLIS));
+		assertTrue(primaryNanos < TimeUnit.SECONDS.toNanos(5));
+		assertTrue(instanceStats.score(primary) > instanceStats.score(alternate));
+	}
+
+	@Test
+	void waitsForThePrimaryWithoutAnAlternate() {
+		ServiceInstance primary = primary(Duration.ofMillis(3 * HEDGE_DELAY_MILLIS));
+		MockServerWebExchange exchange = exchange(primary);
+
+		filter(1.0, primary).filter(exchange, notRouted).block(Duration.ofSeconds(2));
+
+		assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(1, outcome("no_alternate"));
+	}
+
+	@Test
+	void waitsForThePrimaryWhenTheBudgetIsExhausted() {
+		ServiceInstance primary = primary(Duration.ofMillis(3 * HEDGE_DELAY_MILLIS));
+		ServiceInstance alternate = alternate();
+		MockServerWebExchange exchange = exchange(primary);
+
+		filter(0.01, primary, alternate).filter(exchange, notRouted).block(Duration.ofSeconds(2));
+
+		assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(0, alternateCalls.get());
+		assertEquals(1, outcome("budget_exhausted"));
+	}
+
+	@Test
+	void failsWithoutHedgingWhenThePrimaryErrorsFirst() {
+		ServiceInstance primary = primary(Duration.ZERO);
+		ServiceInstance alternate = alternate();
+		primaryServer.disposeNow();
+		MockServerWebExchange exchange = exchange(primary);
+
+		assertThrows(RuntimeException.class,
+				() -> filter(1.0, primary, alternate).filter(exchange, notRouted).block(Duration.ofSeconds(2)));
+
+		assertEquals(0, alternateCalls.get());
+		// Failures count at least the penalty
+		assertTrue(awaitSample(primary));
+		assertTrue(instanceStats.score(primary) >= TimeUnit.SECONDS.toNanos(1));
+	}
+
+	private GatewayFilter filter(double budgetRatio, ServiceInstance... instances) {
+		HedgingProperties.Policy policy = new HedgingProperties.Policy();
+		policy.setMinSamples(1);
+		policy.setMinDelayMillis(HEDGE_DELAY_MILLIS);
+		policy.setMaxDelayMillis(HEDGE_DELAY_MILLIS);
+		policy.setBudgetRatio(budgetRatio);
+		HedgingProperties properties = new HedgingProperties();
+		properties.setDefaults(policy);
+
+		RouteLatencyRecorder latencyRecorder = new RouteLatencyRecorder();
+		latencyRecorder.record(ROUTE, RouteLatencyRecorder.Phase.UPSTREAM, TimeUnit.MILLISECONDS.toNanos(HEDGE_DELAY_MILLIS));
+
+		ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from(ROUTE, instances);
+		LoadBalancerClientFactory clientFactory = new LoadBalancerClientFactory(new LoadBalancerClientsProperties()) {
+			@Override
+			@SuppressWarnings("unchecked")
+			public <T> ObjectProvider<T> getLazyProvider(String name, Class<T> type) {
+				return new SimpleObjectProvider<>((T) supplier);
+			}
+		};
+
+		return new HedgingFilter(properties, latencyRecorder, clientFactory, instanceStats,
+				new SimpleObjectProvider<>(List.of()), HttpClient.create(), meterRegistry)
+				.apply(new HedgingFilter.Config(ROUTE));
+	}
+
+	private ServiceInstance primary(Duration delay) {
+		primaryServer = HttpServer.create()
+				.port(0)
+				.handle((request, response) -> Mono.delay(delay)
+						.then(response.sendString(Mono.just("primary")).then()))
+				.bindNow();
+		return new DefaultServiceInstance("menu-1", ROUTE, "localhost", primaryServer.port(), false);
+	}
+
+	private ServiceInstance alternate() {
+		alternateServer = HttpServer.create()
+				.port(0)
+				.handle((request, response) -> {
+					alternateCalls.incrementAndGet();
+					return response.sendString(Mono.just("alternate")).then();
+				})
+				.bindNow();
+		return new DefaultServiceInstance("menu-2", ROUTE, "localhost", alternateServer.port(), false);
+	}
+
+	private static MockServerWebExchange exchange(ServiceInstance primary) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/menu/menus"));
+		Route route = Route.async()
+				.id(ROUTE)
+				.uri(URI.create("lb://" + ROUTE))
+				.predicate(e -> true)
+				.build();
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(primary));
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+				URI.create("http://localhost:" + primary.getPort() + "/menus"));
+		return exchange;
+	}
+
+	private double outcome(String outcome) {
+		return meterRegistry.counter("gateway.hedging.requests", "route", ROUTE, "outcome", outcome).count();
+	}
+
+	// Legs are recorded when they terminate, which may be just after the client has the response
+	private boolean awaitSample(ServiceInstance instance) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (System.nanoTime() < deadline) {
+			double score = instanceStats.score(instance);
+			if (score >= 0 && score < Double.MAX_VALUE) {
+				return true;
+			}
+			Thread.onSpinWait();
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestCoalescingFilterTest {
+
+	private final GatewayFilter filter = newFilter();
+	private final AtomicInteger downstreamCalls = new AtomicInteger();
+
+	@Test
+	void collapsesConcurrentRequestsFromTheSameUser() {
+		GatewayFilterChain chain = slowDownstream(null, null);
+		MockServerWebExchange first = get("/api/mess/api/v1/users/me", "1");
+		MockServerWebExchange second = get("/api/mess/api/v1/users/me", "1");
+
+		Mono.when(filter.filter(first, chain), filter.filter(second, chain)).block();
+
+		assertEquals(1, downstreamCalls.get());
+		assertEquals("body for 1", second.getResponse().getBodyAsString().block());
+	}
+
+	@Test
+	void neverHandsOneUsersResponseToAnother() {
+		GatewayFilterChain chain = slowDownstream(null, null);
+		MockServerWebExchange first = get("/api/mess/api/v1/users/me", "1");
+		MockServerWebExchange second = get("/api/mess/api/v1/users/me", "2");
+
+		Mono.when(filter.filter(first, chain), filter.filter(second, chain)).block();
+
+		assertEquals(2, downstreamCalls.get());
+		assertEquals("body for 1", first.getResponse().getBodyAsString().block());
+		assertEquals("body for 2", second.getResponse().getBodyAsString().block());
+	}
+
+	@Test
+	void doesNotCollapseAnonymousRequestsOutsideSharedPaths() {
+		GatewayFilterChain chain = slowDownstream(null, null);
+		MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/mess/api/v1/users/me"));
+		MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/mess/api/v1/users/me"));
+
+		Mono.when(filter.filter(first, chain), filter.filter(second, chain)).block();
+
+		assertEquals(2, downstreamCalls.get());
+	}
+
+	@Test
+	void doesNotHandOnPrivateOrNoStoreResponses() {
+		GatewayFilterChain noStore = slowDownstream("no-cache, no-store, max-age=0, must-revalidate", null);
+		Mono.when(filter.filter(get("/api/mess/a", "1"), noStore), filter.filter(get("/api/mess/a", "1"), noStore)).block();
+		GatewayFilterChain privateResponse = slowDownstream("private, max-age=60", null);
+		Mono.when(filter.filter(get("/api/mess/b", "1"), privateResponse), filter.filter(get("/api/mess/b", "1"), privateResponse)).block();
+
+		assertEquals(4, downstreamCalls.get());
+	}
+
+	@Test
+	void doesNotHandOnResponsesThatSetCookies() {
+		GatewayFilterChain chain = slowDownstream(null, "session=abc");
+		MockServerWebExchange first = get("/api/mess/api/v1/users/me", "1");
+		MockServerWebExchange second = get("/api/mess/api/v1/users/me", "1");
+
+		Mono.when(filter.filter(first, chain), filter.filter(second, chain)).block();
+
+		assertEquals(2, downstreamCalls.get());
+		assertEquals("session=abc", second.getResponse().getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+	}
+
+	@Test
+	void collapsesAcrossUsersOnSharedPathsWhenTheResponseIsPublic() {
+		GatewayFilterChain chain = slowDownstream("public, max-age=0, s-maxage=300", null);
+		MockServerWebExchange first = get("/api/mess/api/v1/messes", "1");
+		MockServerWebExchange second = get("/api/mess/api/v1/messes", "2");
+
+		Mono.when(filter.filter(first, chain), filter.filter(second, chain)).block();
+
+		assertEquals(1, downstreamCalls.get());
+		assertEquals("body for 1", second.getResponse().getBodyAsString().block());
+	}
+
+	@Test
+	void fallsBackOnSharedPathsWhenTheResponseIsNotPublic() {
+		GatewayFilterChain chain = slowDownstream("max-age=60", null);
+		MockServerWebExchange first = get("/api/mess/api/v1/messes", "1");
+		MockServerWebExchange second = get("/api/mess/api/v1/messes", "2");
+
+		Mono.when(filter.filter(first, chain), filter.filter(second, chain)).block();
+
+		assertEquals(2, downstreamCalls.get());
+		assertEquals("body for 2", second.getResponse().getBodyAsString().block());
+		assertNull(second.getResponse().getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+	}
+
+	private GatewayFilterChain slowDownstream(String cacheControl, String cookie) {
+		return exchange -> Mono.delay(Duration.ofMillis(100)).then(Mono.defer(() -> {
+			downstreamCalls.incrementAndGet();
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+			if (cacheControl != null) {
+				response.getHeaders().setCacheControl(cacheControl);
+			}
+			if (cookie != null) {
+				response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+			}
+			String user = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+			byte[] body = ("body for " + (user != null ? user : "anonymous")).getBytes(StandardCharsets.UTF_8);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+		}));
+	}
+
+	private static MockServerWebExchange get(String path, String userId) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(path)
+				.header("X-User-Id", userId)
+				.header("X-User-Roles", "USER"));
+	}
+
+	private static GatewayFilter newFilter() {
+		CoalescingProperties properties = new CoalescingProperties();
+		properties.setSharedPaths(List.of("/api/mess/api/v1/messes"));
+		RequestCoalescingFilter factory = new RequestCoalescingFilter(properties, new SimpleMeterRegistry());
+		return factory.apply(new RequestCoalescingFilter.Config("mess-service"));
+	}
+}
@@ -0,0 +1,127 @@
+package com.demoApp.apigateway.filter;
+
+import com.demoApp.apigateway.cache.ResponseCache;
+import com.demoApp.apigateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ResponseCacheFilterTest {
+
+	private final GatewayFilter filter = newFilter();
+	private final AtomicInteger downstreamCalls = new AtomicInteger();
+
+	@Test
+	void sharesPublicResponsesBetweenUsers() {
+		GatewayFilterChain chain = downstream("public, max-age=0, s-maxage=300", null);
+
+		MockServerWebExchange first = get("/api/mess/api/v1/messes", "1");
+		filter.filter(first, chain).block();
+		MockServerWebExchange second = get("/api/mess/api/v1/messes", "2");
+		filter.filter(second, chain).block();
+
+		assertEquals(1, downstreamCalls.get());
+		assertEquals("body for 1", second.getResponse().getBodyAsString().block());
+		assertEquals("public, max-age=0, s-maxage=300", second.getResponse().getHeaders().getCacheControl());
+	}
+
+	@Test
+	void keepsOtherCacheableResponsesPerUser() {
+		GatewayFilterChain chain = downstream("max-age=60", null);
+
+		filter.filter(get("/api/mess/api/v1/users/me", "1"), chain).block();
+		MockServerWebExchange otherUser = get("/api/mess/api/v1/users/me", "2");
+		filter.filter(otherUser, chain).block();
+		MockServerWebExchange sameUser = get("/api/mess/api/v1/users/me", "1");
+		filter.filter(sameUser, chain).block();
+
+		assertEquals(2, downstreamCalls.get());
+		assertEquals("body for 2", otherUser.getResponse().getBodyAsString().block());
+		assertEquals("body for 1", sameUser.getResponse().getBodyAsString().block());
+	}
+
+	@Test
+	void doesNotKeepPrivateOrNoStoreResponses() {
+		filter.filter(get("/api/mess/a", "1"), downstream("no-cache, no-store, max-age=0, must-revalidate", null)).block();
+		filter.filter(get("/api/mess/a", "1"), downstream("no-cache, no-store, max-age=0, must-revalidate", null)).block();
+		filter.filter(get("/api/mess/b", "1"), downstream("private, max-age=60", null)).block();
+		filter.filter(get("/api/mess/b", "1"), downstream("private, max-age=60", null)).block();
+		filter.filter(get("/api/mess/c", "1"), downstream(null, null)).block();
+		filter.filter(get("/api/mess/c", "1"), downstream(null, null)).block();
+
+		assertEquals(6, downstreamCalls.get());
+	}
+
+	@Test
+	void doesNotKeepResponsesThatSetCookies() {
+		GatewayFilterChain chain = downstream("public, s-maxage=300", "session=abc");
+
+		filter.filter(get("/api/mess/api/v1/messes", "1"), chain).block();
+		filter.filter(get("/api/mess/api/v1/messes", "2"), chain).block();
+
+		assertEquals(2, downstreamCalls.get());
+	}
+
+	@Test
+	void answersMatchingIfNoneMatchWithNotModified() {
+		GatewayFilterChain chain = downstream("public, max-age=0, s-maxage=300", null);
+		MockServerWebExchange first = get("/api/menu/api/v1/menus/public/mess/1", "1");
+		filter.filter(first, chain).block();
+		String etag = first.getResponse().getHeaders().getETag();
+		assertNotNull(etag);
+
+		MockServerWebExchange revalidation = MockServerWebExchange.from(MockServerHttpRequest
+				.get("/api/menu/api/v1/menus/public/mess/1")
+				.header("X-User-Id", "2")
+				.header(HttpHeaders.IF_NONE_MATCH, etag));
+		filter.filter(revalidation, chain).block();
+
+		assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+		assertEquals(1, downstreamCalls.get());
+	}
+
+	private GatewayFilterChain downstream(String cacheControl, String cookie) {
+		return exchange -> {
+			downstreamCalls.incrementAndGet();
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+			if (cacheControl != null) {
+				response.getHeaders().setCacheControl(cacheControl);
+			}
+			if (cookie != null) {
+				response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+			}
+			String user = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+			byte[] body = ("body for " + (user != null ? user : "anonymous")).getBytes(StandardCharsets.UTF_8);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+		};
+	}
+
+	private static MockServerWebExchange get(String path, String userId) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(path)
+				.header("X-User-Id", userId)
+				.header("X-User-Roles", "USER"));
+	}
+
+	private static GatewayFilter newFilter() {
+		ResponseCacheProperties properties = new ResponseCacheProperties();
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ResponseCacheFilter factory = new ResponseCacheFilter(new ResponseCache(properties, meterRegistry), properties, meterRegistry);
+		return factory.apply(new ResponseCacheFilter.Config("mess-service"));
+	}
+}
@@ -0,0 +1,46 @@
+package com.demoApp.apigateway.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgeBudgetTest {
+
+	@Test
+	void startsEmpty() {
+		HedgeBudget budget = new HedgeBudget(0.05, 10);
+
+		assertFalse(budget.tryAcquire());
+	}
+
+	@Test
+	void allowsOneHedgePerTwentyRequestsAtFivePercent() {
+		HedgeBudget budget = new HedgeBudget(0.05, 10);
+
+		int hedges = 0;
+		for (int i = 0; i < 1000; i++) {
+			budget.deposit();
+			if (budget.tryAcquire()) {
+				hedges++;
+			}
+		}
+
+		assertEquals(50, hedges);
+	}
+
+	@Test
+	void capsSavedHedgesAtMaxBurst() {
+		HedgeBudget budget = new HedgeBudget(0.5, 3);
+
+		for (int i = 0; i < 100; i++) {
+			budget.deposit();
+		}
+
+		assertTrue(budget.tryAcquire());
+		assertTrue(budget.tryAcquire());
+		assertTrue(budget.tryAcquire());
+		assertFalse(budget.tryAcquire());
+	}
+}
@@ -0,0 +1,39 @@
+package com.demoApp.apigateway.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+	@Test
+	void percentilesStayWithinBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int ms = 1; ms <= 1000; ms++) {
+			histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(ms));
+		}
+
+		assertEquals(1000, histogram.getCount());
+		assertWithin(500_000, histogram.percentileMicros(50));
+		assertWithin(950_000, histogram.percentileMicros(95));
+		assertWithin(990_000, histogram.percentileMicros(99));
+		assertEquals(1_000_000, histogram.getMaxMicros());
+	}
+
+	@Test
+	void bucketBoundsCoverEveryIndex() {
+		for (long micros : new long[]{0, 1, 31, 32, 33, 63, 64, 1_000, 123_456, 60_000_000}) {
+			int index = LatencyHistogram.bucketIndex(micros);
+			assertTrue(LatencyHistogram.bucketUpperBound(index) >= micros);
+			assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < micros);
+		}
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		assertTrue(Math.abs(actual - expected) <= expected * 0.04, "expected ~" + expected + " but was " + actual);
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.demoApp.apigateway.security;
+
+import com.demoApp.common.security.JwksKeyResolver;
+import com.demoApp.common.security.RevokedTokens;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtClaimsCacheTest {
+
+	private static final String SECRET = "legacy-secret-that-is-at-least-32-bytes";
+
+	private final RevokedTokens revokedTokens = new RevokedTokens();
+	// Never started: legacy tokens verify against the secret without fetching any keys
+	private final JwksKeyResolver resolver = new JwksKeyResolver("http://127.0.0.1:1/jwks.json", 300, true, revokedTokens);
+	private final JwtClaimsCache cache = new JwtClaimsCache(SECRET, 100, 300, resolver, revokedTokens, new SimpleMeterRegistry());
+	private final long now = System.currentTimeMillis();
+
+	@Test
+	void servesRepeatRequestsFromTheCache() {
+		String token = token("jti-1", "alice", now);
+
+		assertEquals("alice", cache.getVerifiedClaims(token).getSubject());
+		assertEquals("alice", cache.getVerifiedClaims(token).getSubject());
+	}
+
+	@Test
+	void rejectsACachedTokenOnceItIsRevoked() {
+		String token = token("jti-1", "alice", now);
+		cache.getVerifiedClaims(token);
+
+		revokedTokens.revoke("jti-1", now + 60_000);
+
+		RuntimeException failure = assertThrows(RuntimeException.class, () -> cache.getVerifiedClaims(token));
+		assertEquals("JWT token has been revoked", failure.getMessage());
+	}
+
+	@Test
+	void rejectsTokensIssuedBeforeAPasswordChange() {
+		String token = token("jti-1", "alice", now - 10_000);
+
+		revokedTokens.revokeIssuedBefore("alice", now, now + 60_000);
+
+		RuntimeException failure = assertThrows(RuntimeException.class, () -> cache.getVerifiedClaims(token));
+		assertEquals("JWT token has been revoked", failure.getMessage());
+	}
+
+	private static String token(String jti, String subject, long issuedAtMillis) {
+		return Jwts.builder()
+				.setId(jti)
+				.setSubject(subject)
+				.setIssuedAt(new Date(issuedAtMillis))
+				.setExpiration(new Date(issuedAtMillis + 3_600_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+				.compact();
+	}
+}
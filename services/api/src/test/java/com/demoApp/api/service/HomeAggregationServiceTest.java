@@ -0,0 +1,120 @@
+package com.demoApp.apigateway.service;
+
+import com.demoApp.apigateway.config.HomeAggregationProperties;
+import com.demoApp.apigateway.dto.HomeSection;
+import com.demoApp.apigateway.dto.HomeSection.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HomeAggregationServiceTest {
+
+	private final List<String> requestedUris = new CopyOnWriteArrayList<>();
+	private final List<HttpHeaders> requestHeaders = new CopyOnWriteArrayList<>();
+
+	@Test
+	void composesSectionsInConfigurationOrderWithExpandedPlaceholders() {
+		HomeAggregationService service = newService(Map.of(), leg("mess", "lb://mess-service/api/v1/messes/{messId}"),
+				leg("subscriptions", "lb://subscription-service/api/v1/user-subscriptions/user/{userId}/active"));
+
+		Map<String, HomeSection> home = service.compose(Map.of("messId", "7", "userId", "42"), HttpHeaders.EMPTY).block();
+
+		assertEquals(List.of("mess", "subscriptions"), List.copyOf(home.keySet()));
+		assertEquals(Status.OK, home.get("mess").getStatus());
+		assertEquals("/api/v1/messes/7", home.get("mess").getData().get("path").asText());
+		assertEquals("/api/v1/user-subscriptions/user/42/active", home.get("subscriptions").getData().get("path").asText());
+	}
+
+	@Test
+	void skipsLegsWhosePlaceholderIsMissing() {
+		HomeAggregationService service = newService(Map.of(), leg("mess", "lb://mess-service/api/v1/messes/{messId}"));
+
+		HomeSection mess = service.compose(Map.of("userId", "42"), HttpHeaders.EMPTY).block().get("mess");
+
+		assertEquals(Status.SKIPPED, mess.getStatus());
+		assertEquals(0, requestedUris.size());
+	}
+
+	@Test
+	void reportsDownstreamErrorsWithoutFailingOtherLegs() {
+		HomeAggregationService service = newService(Map.of("/broken", HttpStatus.SERVICE_UNAVAILABLE),
+				leg("mess", "lb://mess-service/broken"), leg("menu", "lb://menu-service/ok"));
+
+		Map<String, HomeSection> home = service.compose(Map.of(), HttpHeaders.EMPTY).block();
+
+		assertEquals(Status.ERROR, home.get("mess").getStatus());
+		assertEquals(503, home.get("mess").getHttpStatus());
+		assertNull(home.get("mess").getData());
+		assertEquals(Status.OK, home.get("menu").getStatus());
+	}
+
+	@Test
+	void reportsSlowLegsAsTimedOut() {
+		HomeAggregationProperties.Leg slow = leg("menu", "lb://menu-service/slow").getValue();
+		slow.setTimeoutMillis(50);
+		HomeAggregationService service = newService(Map.of(), Map.entry("menu", slow));
+
+		HomeSection menu = service.compose(Map.of(), HttpHeaders.EMPTY).block().get("menu");
+
+		assertEquals(Status.TIMEOUT, menu.getStatus());
+	}
+
+	@Test
+	void forwardsIdentityHeadersToEveryLeg() {
+		HomeAggregationService service = newService(Map.of(), leg("mess", "lb://mess-service/a"), leg("menu", "lb://menu-service/b"));
+		HttpHeaders forwarded = new HttpHeaders();
+		forwarded.set(HttpHeaders.AUTHORIZATION, "Bearer token");
+		forwarded.set("X-User-Id", "student@example.com");
+
+		service.compose(Map.of(), forwarded).block();
+
+		assertEquals(2, requestHeaders.size());
+		requestHeaders.forEach(headers -> {
+			assertEquals("Bearer token", headers.getFirst(HttpHeaders.AUTHORIZATION));
+			assertEquals("student@example.com", headers.getFirst("X-User-Id"));
+		});
+	}
+
+	@SafeVarargs
+	private HomeAggregationService newService(Map<String, HttpStatus> failures,
+											  Map.Entry<String, HomeAggregationProperties.Leg>... legs) {
+		WebClient webClient = WebClient.builder()
+				.exchangeFunction(request -> {
+					requestedUris.add(request.url().toString());
+					requestHeaders.add(request.headers());
+					String path = request.url().getPath();
+					if (failures.containsKey(path)) {
+						return Mono.just(ClientResponse.create(failures.get(path)).build());
+					}
+					Mono<ClientResponse> response = Mono.just(ClientResponse.create(HttpStatus.OK)
+							.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+							.body("{\"path\":\"" + path + "\"}")
+							.build());
+					return path.equals("/slow") ? response.delayElement(Duration.ofMillis(500)) : response;
+				})
+				.build();
+		HomeAggregationProperties properties = new HomeAggregationProperties();
+		for (Map.Entry<String, HomeAggregationProperties.Leg> leg : legs) {
+			properties.getLegs().put(leg.getKey(), leg.getValue());
+		}
+		return new HomeAggregationService(webClient, properties);
+	}
+
+	private static Map.Entry<String, HomeAggregationProperties.Leg> leg(String name, String uri) {
+		HomeAggregationProperties.Leg leg = new HomeAggregationProperties.Leg();
+		leg.setUri(uri);
+		return Map.entry(name, leg);
+	}
+}
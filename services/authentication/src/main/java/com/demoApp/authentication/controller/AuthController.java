@@ -5,6 +5,7 @@ import com.demoApp.authentication.entity.Authentication;
 import com.demoApp.authentication.entity.Authentication.Role;
 import com.demoApp.authentication.exception.AuthenticationException;
 import com.demoApp.authentication.repository.AuthenticationRepository;
+import com.demoApp.authentication.security.ClientIpResolver;
 import com.demoApp.authentication.security.JwtTokenUtil;
 import com.demoApp.authentication.service.AuthenticationService;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -29,11 +31,13 @@ public class AuthController {
     private final AuthenticationService authService;
     private final AuthenticationRepository authRepository;
     private final JwtTokenUtil jwtTokenUtil;
+    private final ClientIpResolver clientIpResolver;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest authRequest) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest authRequest,
+                                              HttpServletRequest request) {
         log.info("Login request received for username: {}", authRequest.getUsername());
-        AuthResponse response = authService.login(authRequest);
+        AuthResponse response = authService.login(authRequest, clientIpResolver.resolve(request));
         
         if ("SUCCESS".equals(response.getStatus())) {
             return ResponseEntity.ok(response);
@@ -199,9 +203,8 @@ public class AuthController {
                     
                     String token = jwtTokenUtil.generateToken(auth.getUsername(), auth.getUserId(), rolesString);
                     
-                    // Update last login and token
+                    // Update last login
                     auth.setLastLogin(LocalDateTime.now());
-                    auth.setToken(token);
                     auth.resetFailedAttempts();
                     authRepository.save(auth);
                     
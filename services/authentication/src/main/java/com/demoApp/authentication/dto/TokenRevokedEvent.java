@@ -0,0 +1,25 @@
+package com.demoApp.authentication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Broadcast when a token is revoked, to every authentication-service instance and to the
+ * gateway and services that verify tokens themselves.
+ *
+ * Either a single token ({@code jti}) or, with no {@code jti}, every token of {@code username}
+ * issued before {@code issuedBeforeEpochMillis}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevokedEvent {
+    
+    private String jti;
+    private String username;
+    private long expiresAtEpochMillis;
+    private long issuedBeforeEpochMillis;
+}
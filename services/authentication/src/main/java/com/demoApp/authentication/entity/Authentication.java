@@ -29,9 +29,14 @@ public class Authentication {
     @Column(name = "user_id")
     private Long userId;
     
+    // Only used by tokens issued before they carried a jti; new tokens are stateless
     @Column(name = "token")
     private String token;
     
+    // Tokens issued before this instant are rejected, e.g. after a password change
+    @Column(name = "tokens_valid_after")
+    private LocalDateTime tokensValidAfter;
+    
     @Column(name = "reset_token")
     private String resetToken;
     
@@ -0,0 +1,43 @@
+package com.demoApp.authentication.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An RSA key pair used to sign access tokens, identified by the {@code kid} header it stamps
+ * on them. A key is published before it starts signing and kept after it stops, until the
+ * last token it signed has expired.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "signing_keys", indexes = @Index(name = "idx_signing_keys_expires_at", columnList = "expires_at"))
+public class SigningKey {
+    @Id
+    @Column(length = 64)
+    private String kid;
+    
+    // Base64 X.509 SubjectPublicKeyInfo
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey;
+    
+    // Base64 PKCS#8, encrypted by SigningKeyCipher when a KEK is configured
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "activates_at", nullable = false)
+    private LocalDateTime activatesAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,33 @@
+package com.demoApp.authentication.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds the address of the client behind the API gateway, for per-IP login limits.
+ *
+ * Each proxy appends the address it received the request from to X-Forwarded-For, so only
+ * the entries added by our own proxies can be trusted; everything to their left was sent
+ * by the client. With one trusted hop (the gateway) that is the last entry.
+ */
+@Component
+public class ClientIpResolver {
+
+    private final int trustedHops;
+
+    public ClientIpResolver(@Value("${app.security.trusted-proxy-hops:1}") int trustedHops) {
+        this.trustedHops = trustedHops;
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (trustedHops <= 0 || forwardedFor == null || forwardedFor.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        String[] hops = forwardedFor.split(",");
+        // A chain shorter than the trusted hops did not pass through all of our proxies
+        String address = hops.length >= trustedHops ? hops[hops.length - trustedHops].trim() : "";
+        return address.isEmpty() ? request.getRemoteAddr() : address;
+    }
+}
@@ -0,0 +1,110 @@
+package com.demoApp.authentication.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Counts failed logins in memory, per username and per source IP, over a sliding window.
+ *
+ * Failed attempts no longer write to the {@code authentication} table; the caller only
+ * persists the account once the user count reaches the lock threshold. The per-IP count
+ * lets a single source that sprays many usernames be turned away before any lookup.
+ * Counters are per instance, and entries for idle keys expire after one window.
+ */
+@Component
+public class FailedLoginTracker {
+
+    private static final int BUCKETS = 12;
+
+    private final long windowMillis;
+    private final int maxFailedAttemptsPerIp;
+    private final Cache<String, SlidingWindowCounter> byUsername;
+    private final Cache<String, SlidingWindowCounter> byIp;
+    private final Counter failedByUsername;
+    private final Counter failedByIp;
+    private final Counter lockouts;
+    private final Counter ipBlocked;
+
+    public FailedLoginTracker(
+            @Value("${app.account.failed-attempts-window-minutes:15}") long windowMinutes,
+            @Value("${app.account.max-failed-attempts-per-ip:50}") int maxFailedAttemptsPerIp,
+            @Value("${app.account.failed-attempts-max-tracked:100000}") long maxTracked,
+            MeterRegistry meterRegistry) {
+        this.windowMillis = Duration.ofMinutes(windowMinutes).toMillis();
+        this.maxFailedAttemptsPerIp = maxFailedAttemptsPerIp;
+        this.byUsername = newCache(maxTracked);
+        this.byIp = newCache(maxTracked);
+        this.failedByUsername = meterRegistry.counter("auth.login.failed", "key", "username");
+        this.failedByIp = meterRegistry.counter("auth.login.failed", "key", "ip");
+        this.lockouts = meterRegistry.counter("auth.login.lockouts");
+        this.ipBlocked = meterRegistry.counter("auth.login.ip.blocked");
+        Gauge.builder("auth.login.tracked", byUsername, Cache::estimatedSize).tag("key", "username").register(meterRegistry);
+        Gauge.builder("auth.login.tracked", byIp, Cache::estimatedSize).tag("key", "ip").register(meterRegistry);
+    }
+
+    /**
+     * Returns true when the source IP has too many recent failures to try again.
+     */
+    public boolean isIpBlocked(String ip) {
+        if (ip == null) {
+            return false;
+        }
+        SlidingWindowCounter counter = byIp.getIfPresent(ip);
+        if (counter != null && counter.count(System.currentTimeMillis()) >= maxFailedAttemptsPerIp) {
+            ipBlocked.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a failed attempt and returns the username's failures in the current window.
+     */
+    public int recordFailure(String username, String ip) {
+        long now = System.currentTimeMillis();
+        recordIpFailure(ip, now);
+        failedByUsername.increment();
+        return byUsername.get(username, key -> newCounter()).increment(now);
+    }
+
+    /**
+     * Records a failed attempt for a username that does not exist.
+     */
+    public void recordUnknownUser(String ip) {
+        recordIpFailure(ip, System.currentTimeMillis());
+    }
+
+    public void recordLockout(String username) {
+        lockouts.increment();
+        byUsername.invalidate(username);
+    }
+
+    public void reset(String username) {
+        byUsername.invalidate(username);
+    }
+
+    private void recordIpFailure(String ip, long now) {
+        if (ip != null) {
+            failedByIp.increment();
+            byIp.get(ip, key -> newCounter()).increment(now);
+        }
+    }
+
+    private SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(windowMillis, BUCKETS);
+    }
+
+    private Cache<String, SlidingWindowCounter> newCache(long maxTracked) {
+        return Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(windowMillis))
+                .maximumSize(maxTracked)
+                .build();
+    }
+}
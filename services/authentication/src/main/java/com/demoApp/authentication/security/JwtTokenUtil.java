@@ -1,9 +1,13 @@
 package com.demoApp.authentication.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -12,8 +16,17 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Issues access tokens signed with the current RSA key from {@link SigningKeyManager},
+ * stamped with its {@code kid} so services can verify them against the published key set.
+ *
+ * Tokens without a {@code kid} were signed with the shared HMAC secret before the switch and
+ * are still accepted while {@code jwt.legacy-hmac.enabled} is set; turn it off once they
+ * have all expired.
+ */
 @Component
 public class JwtTokenUtil {
 
@@ -23,6 +36,24 @@ public class JwtTokenUtil {
     @Value("${jwt.expiration:86400000}")
     private long expirationTime;
 
+    @Value("${jwt.legacy-hmac.enabled:true}")
+    private boolean legacyHmacEnabled;
+
+    private final SigningKeyManager signingKeyManager;
+    private final JwtParser parser;
+
+    public JwtTokenUtil(SigningKeyManager signingKeyManager) {
+        this.signingKeyManager = signingKeyManager;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header);
+                    }
+                })
+                .build();
+    }
+
     public String generateToken(String username, Long userId, String role) {
         Map<String, Object> claims = new HashMap<>();
         if (userId != null) {
@@ -30,29 +61,54 @@ public class JwtTokenUtil {
         }
         claims.put("roles", role != null ? role : "USER");
         
+        SigningKeyManager.LoadedKey signingKey = signingKeyManager.getSigningKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
                 .setClaims(claims)
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey.getPrivateKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
-    
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+
+    private Key resolveKey(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (!legacyHmacEnabled) {
+                throw new SignatureException("Token has no key id");
+            }
+            return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        }
+        Key key = signingKeyManager.getPublicKey(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key: " + kid);
+        }
+        return key;
     }
 
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Verifies the signature and expiry in a single parse.
+     * Returns null when the token is invalid or expired.
+     */
+    public Claims getValidClaims(String token) {
+        try {
+            return getAllClaimsFromToken(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -77,10 +133,7 @@ public class JwtTokenUtil {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody();
     }
 
@@ -0,0 +1,77 @@
+package com.demoApp.authentication.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts signing private keys at rest with a key-encryption key (AES-256-GCM), so a copy of
+ * the {@code signing_keys} table or a database backup is not enough to mint tokens.
+ *
+ * Without a configured KEK private keys are stored as plain Base64 PKCS#8. Keys stored
+ * before a KEK was configured stay readable; only new keys are encrypted.
+ */
+@Component
+@Slf4j
+public class SigningKeyCipher {
+
+    private static final String PREFIX = "aesgcm:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec kek;
+    private final SecureRandom random = new SecureRandom();
+
+    public SigningKeyCipher(@Value("${app.jwt.keys.kek:}") String kek) {
+        if (kek == null || kek.isBlank()) {
+            log.warn("app.jwt.keys.kek is not set; signing private keys are stored unencrypted");
+            this.kek = null;
+            return;
+        }
+        byte[] key = Base64.getDecoder().decode(kek.trim());
+        if (key.length != 32) {
+            throw new IllegalArgumentException("app.jwt.keys.kek must be 32 bytes, Base64 encoded");
+        }
+        this.kek = new SecretKeySpec(key, "AES");
+    }
+
+    /**
+     * Returns the value to store for a PKCS#8 encoded private key.
+     */
+    public String seal(byte[] pkcs8) throws GeneralSecurityException {
+        if (kek == null) {
+            return Base64.getEncoder().encodeToString(pkcs8);
+        }
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, kek, new GCMParameterSpec(TAG_BITS, iv));
+        byte[] sealed = cipher.doFinal(pkcs8);
+        return PREFIX + Base64.getEncoder().encodeToString(
+                ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed).array());
+    }
+
+    /**
+     * Returns the PKCS#8 encoded private key from a stored value, encrypted or not.
+     */
+    public byte[] open(String stored) throws GeneralSecurityException {
+        if (!stored.startsWith(PREFIX)) {
+            return Base64.getDecoder().decode(stored);
+        }
+        if (kek == null) {
+            throw new GeneralSecurityException("Signing key is encrypted but app.jwt.keys.kek is not set");
+        }
+        byte[] sealed = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, kek, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_BYTES));
+        return cipher.doFinal(sealed, IV_BYTES, sealed.length - IV_BYTES);
+    }
+}
@@ -0,0 +1,272 @@
+package com.demoApp.authentication.security;
+
+import com.demoApp.authentication.entity.SigningKey;
+import com.demoApp.authentication.repository.SigningKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Rotating RSA keys for signing access tokens, and the JWKS document that publishes them.
+ *
+ * Keys live in {@code signing_keys} so every instance signs with the same key and tokens
+ * survive restarts. A successor is created ahead of time and published for
+ * {@code publish-ahead-minutes} before it starts signing, which gives the services time to
+ * pick it up on their regular JWKS refresh. A retired key stays published until the last
+ * token it signed has expired. Successors are created under a database advisory lock so
+ * instances starting or refreshing together create only one, and private keys are sealed
+ * with {@link SigningKeyCipher}.
+ */
+@Component
+@Slf4j
+public class SigningKeyManager {
+
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = 5_000;
+    private static final long ROTATION_LOCK_KEY = 0x6a776b735fL;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final SigningKeyCipher cipher;
+    private final TransactionTemplate rotationTransaction;
+    private final Duration rotationInterval;
+    private final Duration publishAhead;
+    private final Duration tokenLifetime;
+    private final int keySize;
+
+    // Newest activation first
+    private volatile List<LoadedKey> keys = Collections.emptyList();
+    private volatile Map<String, LoadedKey> keysByKid = Collections.emptyMap();
+    private volatile long lastReloadMillis;
+
+    public SigningKeyManager(SigningKeyRepository signingKeyRepository,
+                             SigningKeyCipher cipher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.jwt.keys.rotation-hours:24}") long rotationHours,
+                             @Value("${app.jwt.keys.publish-ahead-minutes:15}") long publishAheadMinutes,
+                             @Value("${app.jwt.keys.key-size:2048}") int keySize,
+                             @Value("${jwt.expiration:86400000}") long tokenLifetimeMillis) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.cipher = cipher;
+        this.rotationTransaction = new TransactionTemplate(transactionManager);
+        this.rotationInterval = Duration.ofHours(rotationHours);
+        this.publishAhead = Duration.ofMinutes(publishAheadMinutes);
+        this.tokenLifetime = Duration.ofMillis(tokenLifetimeMillis);
+        this.keySize = keySize;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        rotateIfDue();
+    }
+
+    /**
+     * Picks up keys created by other instances, creates a successor when the signing key is
+     * due for rotation and drops keys that can no longer verify a live token.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.keys.refresh-interval-ms:60000}")
+    @Transactional
+    public void refresh() {
+        int deleted = signingKeyRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Removed {} expired signing keys", deleted);
+        }
+        reload();
+        rotateIfDue();
+    }
+
+    /**
+     * The key new tokens are signed with: the most recently activated one.
+     */
+    public LoadedKey getSigningKey() {
+        Instant now = Instant.now();
+        for (LoadedKey key : keys) {
+            if (!key.getActivatesAt().isAfter(now)) {
+                return key;
+            }
+        }
+        throw new IllegalStateException("No active signing key");
+    }
+
+    /**
+     * Looks up a published key, reloading once if another instance may have just created it.
+     * Returns null for unknown key ids.
+     */
+    public RSAPublicKey getPublicKey(String kid) {
+        LoadedKey key = keysByKid.get(kid);
+        if (key == null && System.currentTimeMillis() - lastReloadMillis >= MIN_RELOAD_INTERVAL_MILLIS) {
+            reload();
+            key = keysByKid.get(kid);
+        }
+        return key != null ? key.getPublicKey() : null;
+    }
+
+    /**
+     * All published keys as an RFC 7517 key set.
+     */
+    public Map<String, Object> getJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (LoadedKey key : keys) {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("use", "sig");
+            jwk.put("alg", "RS256");
+            jwk.put("kid", key.getKid());
+            jwk.put("n", base64Url(key.getPublicKey().getModulus()));
+            jwk.put("e", base64Url(key.getPublicKey().getPublicExponent()));
+            jwks.add(jwk);
+        }
+        return Map.of("keys", jwks);
+    }
+
+    private synchronized void reload() {
+        List<LoadedKey> loaded = new ArrayList<>();
+        Map<String, LoadedKey> byKid = new HashMap<>();
+        for (SigningKey entity : signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(LocalDateTime.now())) {
+            try {
+                LoadedKey key = decode(entity);
+                loaded.add(key);
+                byKid.put(key.getKid(), key);
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.error("Skipping unreadable signing key {}", entity.getKid(), e);
+            }
+        }
+        keys = Collections.unmodifiableList(loaded);
+        keysByKid = Collections.unmodifiableMap(byKid);
+        lastReloadMillis = System.currentTimeMillis();
+    }
+
+    private synchronized void rotateIfDue() {
+        if (successorActivation(keys, Instant.now()) == null) {
+            return;
+        }
+        rotationTransaction.executeWithoutResult(status -> {
+            signingKeyRepository.lockRotation(ROTATION_LOCK_KEY);
+            // Another instance may have created the successor while this one waited
+            reload();
+            Instant activatesAt = successorActivation(keys, Instant.now());
+            if (activatesAt != null) {
+                create(activatesAt);
+            }
+        });
+        reload();
+    }
+
+    /**
+     * When a new key should start signing, or null while the newest key needs no successor.
+     */
+    private Instant successorActivation(List<LoadedKey> published, Instant now) {
+        if (published.isEmpty()) {
+            // Nothing has been published yet, so there is nobody to give advance notice to
+            return now;
+        }
+        Instant newestActivation = published.get(0).getActivatesAt();
+        if (newestActivation.plus(rotationInterval).minus(publishAhead).isAfter(now)) {
+            return null;
+        }
+        Instant activatesAt = now.plus(publishAhead);
+        return activatesAt.isAfter(newestActivation) ? activatesAt : newestActivation;
+    }
+
+    private void create(Instant activatesAt) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(keySize);
+            KeyPair pair = generator.generateKeyPair();
+            // Signs until its successor activates, then verifies for one token lifetime more.
+            // The extra publish-ahead period covers a rotation that runs late.
+            Instant expiresAt = activatesAt.plus(rotationInterval).plus(publishAhead).plus(tokenLifetime);
+            SigningKey entity = signingKeyRepository.save(SigningKey.builder()
+                    .kid(UUID.randomUUID().toString())
+                    .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                    .privateKey(cipher.seal(pair.getPrivate().getEncoded()))
+                    .createdAt(LocalDateTime.now())
+                    .activatesAt(toLocalDateTime(activatesAt))
+                    .expiresAt(toLocalDateTime(expiresAt))
+                    .build());
+            log.info("Created signing key {} activating at {}", entity.getKid(), activatesAt);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to generate signing key", e);
+        }
+    }
+
+    private LoadedKey decode(SigningKey entity) throws GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        RSAPublicKey publicKey = (RSAPublicKey) keyFactory.generatePublic(
+                new X509EncodedKeySpec(Base64.getDecoder().decode(entity.getPublicKey())));
+        PrivateKey privateKey = keyFactory.generatePrivate(
+                new PKCS8EncodedKeySpec(cipher.open(entity.getPrivateKey())));
+        return new LoadedKey(entity.getKid(), publicKey, privateKey,
+                entity.getActivatesAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // JWK integers are unsigned big-endian, so drop the sign byte BigInteger may add
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    public static final class LoadedKey {
+        private final String kid;
+        private final RSAPublicKey publicKey;
+        private final PrivateKey privateKey;
+        private final Instant activatesAt;
+
+        LoadedKey(String kid, RSAPublicKey publicKey, PrivateKey privateKey, Instant activatesAt) {
+            this.kid = kid;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+            this.activatesAt = activatesAt;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public RSAPublicKey getPublicKey() {
+            return publicKey;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+
+        public Instant getActivatesAt() {
+            return activatesAt;
+        }
+    }
+}
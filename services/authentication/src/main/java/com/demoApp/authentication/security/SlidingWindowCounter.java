@@ -0,0 +1,63 @@
+package com.demoApp.authentication.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free event counter over a sliding time window.
+ *
+ * The window is split into a fixed ring of buckets. Each slot packs the bucket's epoch
+ * (time / bucket length) into the high bits and its count into the low bits, so a slot is
+ * updated, or recycled for a newer epoch, with a single compare-and-set.
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final long bucketMillis;
+
+    public SlidingWindowCounter(long windowMillis, int buckets) {
+        this.slots = new AtomicLongArray(buckets);
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+    }
+
+    /**
+     * Records one event and returns the number of events in the window, including this one.
+     */
+    public int increment(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int index = (int) (epoch % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            // A slot already on a newer epoch (a racing thread read the clock later) is kept
+            long next = (current >>> COUNT_BITS) >= epoch
+                    ? current + ((current & COUNT_MASK) < COUNT_MASK ? 1 : 0)
+                    : (epoch << COUNT_BITS) | 1;
+            if (slots.compareAndSet(index, current, next)) {
+                break;
+            }
+        }
+        return count(nowMillis);
+    }
+
+    public int count(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long oldest = epoch - slots.length() + 1;
+        int total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            long slotEpoch = slot >>> COUNT_BITS;
+            if (slotEpoch >= oldest && slotEpoch <= epoch) {
+                total += (int) (slot & COUNT_MASK);
+            }
+        }
+        return total;
+    }
+
+    public void reset() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.demoApp.authentication.security;
+
+import com.demoApp.authentication.dto.TokenRevokedEvent;
+import com.demoApp.authentication.entity.RevokedToken;
+import com.demoApp.authentication.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens revoked before their expiry, checked on every validation.
+ *
+ * A bloom filter answers the common case (token not revoked) without touching the exact
+ * set or the database. Hits are confirmed against an in-memory map of jti to expiry.
+ * Revocations are stored in {@code revoked_tokens} and reloaded at startup. They are also
+ * published on Kafka, once the revoking transaction commits, so every instance and every
+ * service verifying tokens learns about them without polling the table. The topic's retention
+ * must cover the token lifetime, since new consumers replay it from the start.
+ * Entries are dropped once the token would have expired anyway, and the bloom filter is
+ * rebuilt then because it cannot forget values.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String topic;
+    private final long expectedRevocations;
+    private final long tokenLifetimeMillis;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+    private volatile BloomFilter bloomFilter;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               KafkaTemplate<String, Object> kafkaTemplate,
+                               @Value("${app.auth.revocation.topic:token-revoked}") String topic,
+                               @Value("${app.auth.revocation.expected-revocations:100000}") long expectedRevocations,
+                               @Value("${jwt.expiration:86400000}") long tokenLifetimeMillis) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.expectedRevocations = expectedRevocations;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.bloomFilter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    public void load() {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            addLocal(token.getJti(), toEpochMillis(token.getExpiresAt()));
+        }
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        return bloomFilter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revokes a token until its expiry, persists the revocation and tells the other instances.
+     */
+    @Transactional
+    public void revoke(String jti, String username, Date expiresAt) {
+        long expiresAtMillis = expiresAt.getTime();
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .username(username)
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault()))
+                .revokedAt(LocalDateTime.now())
+                .build());
+        afterCommit(() -> {
+            addLocal(jti, expiresAtMillis);
+            kafkaTemplate.send(topic, jti, TokenRevokedEvent.builder()
+                    .jti(jti)
+                    .username(username)
+                    .expiresAtEpochMillis(expiresAtMillis)
+                    .build());
+        });
+        log.info("Token revoked for user: {}", username);
+    }
+
+    /**
+     * Tells the services verifying tokens themselves that every token of {@code username} issued
+     * before {@code validAfter} is revoked. This instance checks {@code tokens_valid_after}
+     * instead, so nothing is kept locally.
+     */
+    public void revokeIssuedBefore(String username, LocalDateTime validAfter) {
+        long issuedBeforeMillis = toEpochMillis(validAfter);
+        afterCommit(() -> kafkaTemplate.send(topic, username, TokenRevokedEvent.builder()
+                .username(username)
+                .issuedBeforeEpochMillis(issuedBeforeMillis)
+                .expiresAtEpochMillis(issuedBeforeMillis + tokenLifetimeMillis)
+                .build()));
+    }
+
+    // Every instance needs every revocation, so each one consumes with its own group
+    @KafkaListener(topics = "${app.auth.revocation.topic:token-revoked}",
+            groupId = "${app.auth.revocation.group-id}")
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        // Cutoff events carry no jti; tokens_valid_after already covers them here
+        if (event.getJti() != null && event.getExpiresAtEpochMillis() > System.currentTimeMillis()) {
+            addLocal(event.getJti(), event.getExpiresAtEpochMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (rebuildLock) {
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2L), FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+        }
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        log.debug("Purged {} expired token revocations", deleted);
+    }
+
+    private void addLocal(String jti, long expiresAtMillis) {
+        // Serialized with rebuilds so a new revocation cannot miss the swapped-in filter
+        synchronized (rebuildLock) {
+            revoked.put(jti, expiresAtMillis);
+            bloomFilter.put(jti);
+        }
+    }
+
+    // A rolled-back revocation must not reach the other instances or the services
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,134 @@
+package com.demoApp.authentication.security;
+
+import com.demoApp.authentication.entity.Authentication;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory snapshot of the account state that token validation needs, keyed by username,
+ * so validating a hot token does not hit the database.
+ *
+ * Entries are dropped whenever the account changes (password change, role change, lock)
+ * and expire after a short TTL as a safety net for changes made outside this service.
+ * Only a hash of the stored token is kept, for tokens issued before they carried a jti.
+ */
+@Component
+@Slf4j
+public class TokenValidationCache {
+
+    private final Cache<String, Entry> cache;
+
+    public TokenValidationCache(
+            @Value("${app.auth.validation-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${app.auth.validation-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Entry get(String username) {
+        return cache.getIfPresent(username);
+    }
+
+    /**
+     * Returns the entry for the user, re-reading the account on a miss or when a legacy
+     * token no longer matches the cached one (e.g. after a login on another instance).
+     * Returns null when the account does not exist.
+     *
+     * @param legacyToken the token when it carries no jti, otherwise null
+     */
+    public Entry load(String username, String legacyToken, Function<String, Optional<Authentication>> loader) {
+        Entry entry = cache.getIfPresent(username);
+        if (entry != null && (legacyToken == null || entry.matchesToken(legacyToken))) {
+            return entry;
+        }
+        return loader.apply(username).map(this::put).orElse(null);
+    }
+
+    public Entry put(Authentication auth) {
+        Entry entry = new Entry(
+                auth.isEnabled(),
+                auth.getToken() != null ? hash(auth.getToken()) : null,
+                auth.getRoles() != null ? Set.copyOf(auth.getRoles()) : Collections.emptySet(),
+                auth.getTokensValidAfter() != null
+                        ? auth.getTokensValidAfter().atZone(ZoneId.systemDefault()).toEpochSecond()
+                        : 0);
+        cache.put(auth.getUsername(), entry);
+        return entry;
+    }
+
+    /**
+     * Drops the entry now and again once the surrounding transaction commits, so a
+     * concurrent validation cannot re-cache the pre-commit row.
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+        log.debug("Token validation cache invalidated for user: {}", username);
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static final class Entry {
+        private final boolean enabled;
+        private final byte[] tokenHash;
+        private final Set<String> roles;
+        private final long tokensValidAfterEpochSecond;
+
+        Entry(boolean enabled, byte[] tokenHash, Set<String> roles, long tokensValidAfterEpochSecond) {
+            this.enabled = enabled;
+            this.tokenHash = tokenHash;
+            this.roles = roles;
+            this.tokensValidAfterEpochSecond = tokensValidAfterEpochSecond;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean matchesToken(String token) {
+            return tokenHash != null && MessageDigest.isEqual(tokenHash, hash(token));
+        }
+
+        public Set<String> getRoles() {
+            return roles;
+        }
+
+        public boolean isIssuedBeforeCutoff(Date issuedAt) {
+            return issuedAt == null || issuedAt.getTime() / 1000 < tokensValidAfterEpochSecond;
+        }
+    }
+}
@@ -6,7 +6,7 @@ import java.util.Set;
 
 public interface AuthenticationService {
     
-    AuthResponse login(AuthRequest authRequest);
+    AuthResponse login(AuthRequest authRequest, String clientIp);
     
     AuthResponse register(RegisterRequest registerRequest);
     
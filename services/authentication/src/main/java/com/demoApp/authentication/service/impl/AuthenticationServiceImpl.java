@@ -5,7 +5,10 @@ import com.demoApp.authentication.entity.Authentication;
 import com.demoApp.authentication.entity.Authentication.Role;
 import com.demoApp.authentication.exception.AuthenticationException;
 import com.demoApp.authentication.repository.AuthenticationRepository;
+import com.demoApp.authentication.security.FailedLoginTracker;
 import com.demoApp.authentication.security.JwtTokenUtil;
+import com.demoApp.authentication.security.TokenRevocationList;
+import com.demoApp.authentication.security.TokenValidationCache;
 import com.demoApp.authentication.service.AuthenticationService;
 import com.demoApp.authentication.service.EmailService;
 
@@ -24,6 +27,8 @@ import dev.samstevens.totp.qr.QrData;
 import dev.samstevens.totp.qr.QrGenerator;
 import dev.samstevens.totp.secret.SecretGenerator;
 
+import io.jsonwebtoken.Claims;
+
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -40,6 +45,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final SecretGenerator secretGenerator;
     private final CodeVerifier codeVerifier;
     private final QrGenerator qrGenerator;
+    private final TokenValidationCache validationCache;
+    private final TokenRevocationList revocationList;
+    private final FailedLoginTracker failedLoginTracker;
     
     @Value("${app.mfa.issuer:DemoApp}")
     private String mfaIssuer;
@@ -52,12 +60,22 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     @Override
     @Transactional
-    public AuthResponse login(AuthRequest authRequest) {
+    public AuthResponse login(AuthRequest authRequest, String clientIp) {
         log.info("Attempting login for user: {}", authRequest.getUsername());
         
+        // Checked before any lookup so a credential-stuffing source never reaches the database
+        if (failedLoginTracker.isIpBlocked(clientIp)) {
+            log.warn("Login rejected: Too many failed attempts from {}", clientIp);
+            return AuthResponse.builder()
+                    .status("FAILED")
+                    .message("Too many failed login attempts. Please try again later.")
+                    .build();
+        }
+        
         Optional<Authentication> authOpt = authRepository.findByUsername(authRequest.getUsername());
         
         if (authOpt.isEmpty()) {
+            failedLoginTracker.recordUnknownUser(clientIp);
             log.warn("Login failed: User not found - {}", authRequest.getUsername());
             return AuthResponse.builder()
                     .status("FAILED")
@@ -77,18 +95,20 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
         
         if (!passwordEncoder.matches(authRequest.getPassword(), auth.getPassword())) {
-            // Increment failed attempts
-            auth.incrementFailedAttempts();
+            // Counted in memory; the row is only written when the account gets locked
+            int failedAttempts = failedLoginTracker.recordFailure(auth.getUsername(), clientIp);
             
             // Lock account if max attempts reached
-            if (auth.getFailedAttempts() >= maxFailedAttempts) {
+            if (failedAttempts >= maxFailedAttempts) {
+                auth.setFailedAttempts(failedAttempts);
                 auth.lock(lockTimeInMinutes);
+                authRepository.save(auth);
+                validationCache.invalidate(auth.getUsername());
+                failedLoginTracker.recordLockout(auth.getUsername());
                 log.warn("Account locked for user: {} due to {} failed attempts", 
-                        auth.getUsername(), auth.getFailedAttempts());
+                        auth.getUsername(), failedAttempts);
             }
             
-            authRepository.save(auth);
-            
             log.warn("Login failed: Incorrect password for user - {}", authRequest.getUsername());
             return AuthResponse.builder()
                     .status("FAILED")
@@ -116,6 +136,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         
         // Reset failed attempts on successful login
         auth.resetFailedAttempts();
+        failedLoginTracker.reset(auth.getUsername());
         
         // Get all roles for this user
         Set<String> roles = auth.getRoles();
@@ -126,9 +147,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         // Generate JWT token
         String token = jwtTokenUtil.generateToken(auth.getUsername(), auth.getUserId(), rolesString);
         
-        // Update last login and token
+        // Update last login
         auth.setLastLogin(LocalDateTime.now());
-        auth.setToken(token);
         authRepository.save(auth);
         
         log.info("User logged in successfully: {}", auth.getUsername());
@@ -182,10 +202,6 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         String rolesString = String.join(",", roles);
         String token = jwtTokenUtil.generateToken(savedAuth.getUsername(), savedAuth.getUserId(), rolesString);
         
-        // Update token in database
-        savedAuth.setToken(token);
-        authRepository.save(savedAuth);
-        
         log.info("User registered successfully: {}", savedAuth.getUsername());
         
         return AuthResponse.builder()
@@ -201,37 +217,46 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     @Override
     public boolean validateToken(String token) {
-        if (!jwtTokenUtil.validateToken(token)) {
-            log.warn("Token validation failed: Invalid token");
+        Claims claims = jwtTokenUtil.getValidClaims(token);
+        if (claims == null) {
+            log.warn("Token validation failed: Invalid or expired token");
             return false;
         }
         
-        if (jwtTokenUtil.isTokenExpired(token)) {
-            log.warn("Token validation failed: Token expired");
+        String username = claims.getSubject();
+        String jti = claims.getId();
+        
+        // Bloom filter first: for almost every token this answers without any lookup
+        if (jti != null && revocationList.isRevoked(jti)) {
+            log.warn("Token validation failed: Token revoked for user - {}", username);
             return false;
         }
         
-        String username = jwtTokenUtil.getUsernameFromToken(token);
-        Optional<Authentication> authOpt = authRepository.findByUsername(username);
-        
-        if (authOpt.isEmpty()) {
+        // On a miss, or when a legacy token was replaced since the entry was cached, re-reads the account
+        TokenValidationCache.Entry entry =
+                validationCache.load(username, jti == null ? token : null, authRepository::findByUsername);
+        if (entry == null) {
             log.warn("Token validation failed: User not found for token");
             return false;
         }
         
-        Authentication auth = authOpt.get();
-        if (!auth.isEnabled()) {
+        if (!entry.isEnabled()) {
             log.warn("Token validation failed: User account disabled - {}", username);
             return false;
         }
         
-        // Check if token matches the stored token (optional, for additional security)
-        if (auth.getToken() == null || !auth.getToken().equals(token)) {
-            log.warn("Token validation failed: Token does not match stored token for user - {}", username);
+        if (jti == null) {
+            // Issued before tokens carried a jti: still checked against the stored token
+            if (!entry.matchesToken(token)) {
+                log.warn("Token validation failed: Token does not match stored token for user - {}", username);
+                return false;
+            }
+        } else if (entry.isIssuedBeforeCutoff(claims.getIssuedAt())) {
+            log.warn("Token validation failed: Token issued before credentials changed for user - {}", username);
             return false;
         }
         
-        log.info("Token validated successfully for user: {}", username);
+        log.debug("Token validated successfully for user: {}", username);
         return true;
     }
 
@@ -245,20 +270,16 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                     .build();
         }
         
-        String username = jwtTokenUtil.getUsernameFromToken(token);
-        Long userId = jwtTokenUtil.getUserIdFromToken(token);
-        String roles = jwtTokenUtil.getRoleFromToken(token);
+        Claims claims = jwtTokenUtil.getValidClaims(token);
+        String username = claims.getSubject();
+        Long userId = claims.get("userId", Long.class);
+        String roles = claims.get("roles", String.class);
         
         // Generate new token
         String newToken = jwtTokenUtil.generateToken(username, userId, roles);
         
-        // Update token in database
-        Optional<Authentication> authOpt = authRepository.findByUsername(username);
-        if (authOpt.isPresent()) {
-            Authentication auth = authOpt.get();
-            auth.setToken(newToken);
-            authRepository.save(auth);
-        }
+        // The refreshed token replaces the old one
+        revokeToken(claims, token);
         
         log.info("Token refreshed successfully for user: {}", username);
         
@@ -277,16 +298,26 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Transactional
     public void logout(String token) {
         if (token != null && validateToken(token)) {
-            String username = jwtTokenUtil.getUsernameFromToken(token);
-            
-            Optional<Authentication> authOpt = authRepository.findByUsername(username);
-            if (authOpt.isPresent()) {
-                Authentication auth = authOpt.get();
-                auth.setToken(null);  // Clear the token
+            Claims claims = jwtTokenUtil.getValidClaims(token);
+            revokeToken(claims, token);
+            log.info("User logged out successfully: {}", claims.getSubject());
+        }
+    }
+    
+    private void revokeToken(Claims claims, String token) {
+        if (claims.getId() != null) {
+            revocationList.revoke(claims.getId(), claims.getSubject(), claims.getExpiration());
+            return;
+        }
+        
+        // Legacy token without a jti: clear it from the account instead
+        authRepository.findByUsername(claims.getSubject()).ifPresent(auth -> {
+            if (token.equals(auth.getToken())) {
+                auth.setToken(null);
                 authRepository.save(auth);
-                log.info("User logged out successfully: {}", username);
+                validationCache.invalidate(auth.getUsername());
             }
-        }
+        });
     }
 
     @Override
@@ -308,9 +339,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         
         // Set new password
         auth.setPassword(passwordEncoder.encode(newPassword));
-        // Clear token to force re-login
+        // Invalidate all existing tokens to force re-login
         auth.setToken(null);
+        auth.setTokensValidAfter(LocalDateTime.now());
         authRepository.save(auth);
+        validationCache.invalidate(auth.getUsername());
+        revocationList.revokeIssuedBefore(auth.getUsername(), auth.getTokensValidAfter());
         
         log.info("Password changed successfully for user: {}", auth.getUsername());
         return true;
@@ -386,11 +420,15 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         
         // Reset failed attempts and unlock account
         auth.resetFailedAttempts();
+        failedLoginTracker.reset(auth.getUsername());
         
-        // Clear current token to force re-login
+        // Invalidate all existing tokens to force re-login
         auth.setToken(null);
+        auth.setTokensValidAfter(LocalDateTime.now());
         
         authRepository.save(auth);
+        validationCache.invalidate(auth.getUsername());
+        revocationList.revokeIssuedBefore(auth.getUsername(), auth.getTokensValidAfter());
         
         log.info("Password reset successfully for user: {}", auth.getUsername());
         return true;
@@ -583,10 +621,6 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         
         String token = jwtTokenUtil.generateToken(auth.getUsername(), auth.getUserId(), rolesString);
         
-        // Update token in database
-        auth.setToken(token);
-        authRepository.save(auth);
-        
         log.info("OAuth login successful for provider: {} and user: {}", provider, auth.getUsername());
         
         return AuthResponse.builder()
@@ -631,6 +665,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         
         if (added) {
             authRepository.save(auth);
+            validationCache.invalidate(auth.getUsername());
             log.info("Role {} added to user: {}", role, auth.getUsername());
         } else {
             log.info("Role {} already assigned to user: {}", role, auth.getUsername());
@@ -661,6 +696,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             }
             
             authRepository.save(auth);
+            validationCache.invalidate(auth.getUsername());
             log.info("Role {} removed from user: {}", role, auth.getUsername());
             return true;
         } else {
@@ -714,6 +750,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             Authentication auth = authOpt.get();
             auth.resetFailedAttempts();
             authRepository.save(auth);
+            validationCache.invalidate(username);
+            failedLoginTracker.reset(username);
             log.info("Account unlocked for user: {}", username);
         } else {
             log.warn("Account unlock failed: User not found - {}", username);
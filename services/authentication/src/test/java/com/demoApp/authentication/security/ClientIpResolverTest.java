@@ -0,0 +1,50 @@
+package com.demoApp.authentication.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientIpResolverTest {
+
+    @Test
+    void usesTheEntryAppendedByTheGateway() {
+        MockHttpServletRequest request = request("203.0.113.9, 198.51.100.7");
+
+        assertEquals("198.51.100.7", new ClientIpResolver(1).resolve(request));
+    }
+
+    @Test
+    void ignoresAddressesTheClientPutInTheHeader() {
+        // The client sent "X-Forwarded-For: 10.9.9.9" and the gateway appended the real caller
+        MockHttpServletRequest spoofed = request("10.9.9.9,198.51.100.7");
+        MockHttpServletRequest honest = request("198.51.100.7");
+
+        ClientIpResolver resolver = new ClientIpResolver(1);
+        assertEquals(resolver.resolve(honest), resolver.resolve(spoofed));
+    }
+
+    @Test
+    void skipsFurtherTrustedProxies() {
+        MockHttpServletRequest request = request("10.9.9.9, 198.51.100.7, 172.16.0.4");
+
+        assertEquals("198.51.100.7", new ClientIpResolver(2).resolve(request));
+    }
+
+    @Test
+    void fallsBackToTheRemoteAddress() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("172.16.0.2");
+
+        assertEquals("172.16.0.2", new ClientIpResolver(1).resolve(request));
+        assertEquals("172.16.0.2", new ClientIpResolver(0).resolve(request("10.9.9.9")));
+        assertEquals("172.16.0.2", new ClientIpResolver(2).resolve(request("10.9.9.9")));
+    }
+
+    private static MockHttpServletRequest request(String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("172.16.0.2");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+}
@@ -0,0 +1,57 @@
+package com.demoApp.authentication.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FailedLoginTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FailedLoginTracker tracker = new FailedLoginTracker(15, 3, 1_000, meterRegistry);
+
+    @Test
+    void countsFailuresPerUsername() {
+        assertEquals(1, tracker.recordFailure("alice", "10.0.0.1"));
+        assertEquals(2, tracker.recordFailure("alice", "10.0.0.2"));
+        assertEquals(1, tracker.recordFailure("bob", "10.0.0.3"));
+    }
+
+    @Test
+    void blocksAnIpThatSpraysUsernames() {
+        tracker.recordFailure("alice", "10.0.0.1");
+        tracker.recordFailure("bob", "10.0.0.1");
+        assertFalse(tracker.isIpBlocked("10.0.0.1"));
+
+        tracker.recordUnknownUser("10.0.0.1");
+
+        assertTrue(tracker.isIpBlocked("10.0.0.1"));
+        assertFalse(tracker.isIpBlocked("10.0.0.2"));
+        assertEquals(1.0, meterRegistry.counter("auth.login.ip.blocked").count());
+    }
+
+    @Test
+    void resetAndLockoutClearTheUsernameButNotTheIp() {
+        tracker.recordFailure("alice", "10.0.0.1");
+        tracker.recordFailure("alice", "10.0.0.1");
+        tracker.reset("alice");
+        assertEquals(1, tracker.recordFailure("alice", "10.0.0.1"));
+
+        tracker.recordLockout("alice");
+
+        assertEquals(1, tracker.recordFailure("alice", "10.0.0.2"));
+        assertTrue(tracker.isIpBlocked("10.0.0.1"));
+        assertEquals(1.0, meterRegistry.counter("auth.login.lockouts").count());
+    }
+
+    @Test
+    void ignoresRequestsWithoutAnIp() {
+        tracker.recordUnknownUser(null);
+        tracker.recordFailure("alice", null);
+
+        assertFalse(tracker.isIpBlocked(null));
+        assertEquals(0.0, meterRegistry.counter("auth.login.failed", "key", "ip").count());
+    }
+}
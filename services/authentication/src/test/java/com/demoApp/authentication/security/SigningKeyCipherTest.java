@@ -0,0 +1,58 @@
+package com.demoApp.authentication.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SigningKeyCipherTest {
+
+    private static final byte[] PKCS8 = "not really a private key".getBytes(StandardCharsets.UTF_8);
+
+    private final SigningKeyCipher cipher = new SigningKeyCipher(kek(1));
+
+    @Test
+    void sealsAndOpensWithTheKek() throws GeneralSecurityException {
+        String stored = cipher.seal(PKCS8);
+
+        assertFalse(stored.contains(Base64.getEncoder().encodeToString(PKCS8)));
+        assertNotEquals(stored, cipher.seal(PKCS8));
+        assertArrayEquals(PKCS8, cipher.open(stored));
+    }
+
+    @Test
+    void readsKeysStoredBeforeTheKekWasConfigured() throws GeneralSecurityException {
+        String plain = new SigningKeyCipher("").seal(PKCS8);
+
+        assertEquals(Base64.getEncoder().encodeToString(PKCS8), plain);
+        assertArrayEquals(PKCS8, cipher.open(plain));
+    }
+
+    @Test
+    void refusesToOpenWithAnotherKekOrWithout() throws GeneralSecurityException {
+        String stored = cipher.seal(PKCS8);
+
+        assertThrows(GeneralSecurityException.class, () -> new SigningKeyCipher(kek(2)).open(stored));
+        assertThrows(GeneralSecurityException.class, () -> new SigningKeyCipher("").open(stored));
+    }
+
+    @Test
+    void rejectsAKekOfTheWrongSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SigningKeyCipher(Base64.getEncoder().encodeToString(new byte[16])));
+    }
+
+    private static String kek(int fill) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) fill);
+        return Base64.getEncoder().encodeToString(key);
+    }
+}
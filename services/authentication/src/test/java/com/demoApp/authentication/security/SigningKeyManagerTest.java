@@ -0,0 +1,165 @@
+package com.demoApp.authentication.security;
+
+import com.demoApp.authentication.entity.SigningKey;
+import com.demoApp.authentication.repository.SigningKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SigningKeyManagerTest {
+
+    private static final Duration ROTATION = Duration.ofHours(24);
+    private static final Duration PUBLISH_AHEAD = Duration.ofMinutes(15);
+    private static final Duration TOKEN_LIFETIME = Duration.ofHours(1);
+    private static final KeyPair KEY_PAIR = keyPair();
+
+    private final List<SigningKey> stored = new ArrayList<>();
+    private final SigningKeyRepository repository = mock(SigningKeyRepository.class);
+    private final SigningKeyManager manager = new SigningKeyManager(repository, new SigningKeyCipher(""),
+            mock(PlatformTransactionManager.class), ROTATION.toHours(), PUBLISH_AHEAD.toMinutes(), 1024,
+            TOKEN_LIFETIME.toMillis());
+
+    SigningKeyManagerTest() {
+        when(repository.findByExpiresAtAfterOrderByActivatesAtDesc(any())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(0);
+            return stored.stream()
+                    .filter(key -> key.getExpiresAt().isAfter(now))
+                    .sorted(Comparator.comparing(SigningKey::getActivatesAt).reversed())
+                    .toList();
+        });
+        when(repository.save(any())).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+    }
+
+    @Test
+    void createsAKeyThatSignsImmediatelyOnFirstStart() {
+        Instant before = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        manager.init();
+
+        assertEquals(1, stored.size());
+        SigningKey key = stored.get(0);
+        assertEquals(key.getKid(), manager.getSigningKey().getKid());
+        Instant activatesAt = instant(key.getActivatesAt());
+        assertTrue(!activatesAt.isBefore(before) && !activatesAt.isAfter(Instant.now()));
+        assertEquals(activatesAt.plus(ROTATION).plus(PUBLISH_AHEAD).plus(TOKEN_LIFETIME), instant(key.getExpiresAt()));
+        verify(repository).lockRotation(anyLong());
+    }
+
+    @Test
+    void leavesAKeyAloneUntilItsSuccessorIsDue() {
+        store(Instant.now().minus(ROTATION).plus(PUBLISH_AHEAD).plusSeconds(60));
+
+        manager.init();
+
+        assertEquals(1, stored.size());
+        verify(repository, never()).lockRotation(anyLong());
+    }
+
+    @Test
+    void publishesTheSuccessorAheadOfItsActivation() {
+        SigningKey current = store(Instant.now().minus(ROTATION).plus(PUBLISH_AHEAD).minusSeconds(60));
+
+        manager.init();
+
+        assertEquals(2, stored.size());
+        SigningKey successor = stored.get(1);
+        Duration lead = Duration.between(Instant.now(), instant(successor.getActivatesAt()));
+        assertTrue(lead.compareTo(PUBLISH_AHEAD) <= 0 && lead.compareTo(PUBLISH_AHEAD.minusSeconds(5)) > 0);
+        // The current key keeps signing until then, and both are published
+        assertEquals(current.getKid(), manager.getSigningKey().getKid());
+        assertEquals(2, ((List<?>) manager.getJwks().get("keys")).size());
+    }
+
+    @Test
+    void rotatesALateKeyFromNowRatherThanFromItsSchedule() {
+        store(Instant.now().minus(ROTATION).minus(Duration.ofMinutes(30)));
+
+        manager.init();
+
+        Duration lead = Duration.between(Instant.now(), instant(stored.get(1).getActivatesAt()));
+        assertTrue(lead.compareTo(PUBLISH_AHEAD) <= 0 && lead.compareTo(PUBLISH_AHEAD.minusSeconds(5)) > 0);
+    }
+
+    @Test
+    void doesNotCreateASecondSuccessorWhenAnotherInstanceRotatedFirst() {
+        store(Instant.now().minus(ROTATION));
+        // The other instance commits its successor while this one waits for the lock
+        when(repository.lockRotation(anyLong())).thenAnswer(invocation -> {
+            store(Instant.now().plus(PUBLISH_AHEAD));
+            return 1;
+        });
+
+        manager.init();
+
+        assertEquals(2, stored.size());
+        verify(repository, times(1)).lockRotation(anyLong());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void needsNoSuccessorWhileOneIsPublished() {
+        Instant now = Instant.now();
+        SigningKey current = store(now.minus(ROTATION));
+        store(now.plus(PUBLISH_AHEAD));
+
+        manager.init();
+
+        assertEquals(2, stored.size());
+        assertEquals(current.getKid(), manager.getSigningKey().getKid());
+        verify(repository, never()).lockRotation(anyLong());
+    }
+
+    private SigningKey store(Instant activatesAt) {
+        SigningKey key = SigningKey.builder()
+                .kid(UUID.randomUUID().toString())
+                .publicKey(Base64.getEncoder().encodeToString(KEY_PAIR.getPublic().getEncoded()))
+                .privateKey(Base64.getEncoder().encodeToString(KEY_PAIR.getPrivate().getEncoded()))
+                .createdAt(LocalDateTime.now())
+                .activatesAt(LocalDateTime.ofInstant(activatesAt, ZoneId.systemDefault()))
+                .expiresAt(LocalDateTime.ofInstant(activatesAt.plus(ROTATION).plus(PUBLISH_AHEAD).plus(TOKEN_LIFETIME),
+                        ZoneId.systemDefault()))
+                .build();
+        stored.add(key);
+        return key;
+    }
+
+    private static Instant instant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static KeyPair keyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(1024);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
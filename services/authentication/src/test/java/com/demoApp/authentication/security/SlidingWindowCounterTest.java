@@ -0,0 +1,79 @@
+package com.demoApp.authentication.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowCounterTest {
+
+    // 12 buckets of 10 seconds
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(120_000, 12);
+
+    @Test
+    void countsEventsWithinTheWindow() {
+        assertEquals(1, counter.increment(0));
+        assertEquals(2, counter.increment(5_000));
+        assertEquals(3, counter.increment(60_000));
+        assertEquals(3, counter.count(119_999));
+    }
+
+    @Test
+    void forgetsEventsOnceTheirBucketLeavesTheWindow() {
+        counter.increment(0);
+        counter.increment(60_000);
+
+        assertEquals(1, counter.count(120_000));
+        assertEquals(0, counter.count(180_000));
+    }
+
+    @Test
+    void recyclesBucketsForNewerEpochs() {
+        counter.increment(0);
+        counter.increment(1_000);
+
+        // Same slot, one full window later
+        assertEquals(1, counter.increment(120_000));
+    }
+
+    @Test
+    void resetClearsEveryBucket() {
+        counter.increment(0);
+        counter.increment(50_000);
+
+        counter.reset();
+
+        assertEquals(0, counter.count(50_000));
+    }
+
+    @Test
+    void countsConcurrentIncrementsExactly() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    counter.increment(1_000);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, counter.count(1_000));
+    }
+}
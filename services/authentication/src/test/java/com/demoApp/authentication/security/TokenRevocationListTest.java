@@ -0,0 +1,101 @@
+package com.demoApp.authentication.security;
+
+import com.demoApp.authentication.dto.TokenRevokedEvent;
+import com.demoApp.authentication.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TokenRevocationListTest {
+
+    private static final long TOKEN_LIFETIME_MILLIS = 3_600_000;
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final TokenRevocationList revocationList =
+            new TokenRevocationList(repository, kafkaTemplate, "token-revoked", 1_000, TOKEN_LIFETIME_MILLIS);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publishesARevocationOnlyAfterTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocationList.revoke("jti-1", "alice", new Date(System.currentTimeMillis() + 60_000));
+
+        verify(repository).save(any());
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+        assertFalse(revocationList.isRevoked("jti-1"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(kafkaTemplate).send(eq("token-revoked"), eq("jti-1"), any(TokenRevokedEvent.class));
+        assertTrue(revocationList.isRevoked("jti-1"));
+    }
+
+    @Test
+    void dropsARevocationWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocationList.revoke("jti-1", "alice", new Date(System.currentTimeMillis() + 60_000));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+        assertFalse(revocationList.isRevoked("jti-1"));
+    }
+
+    @Test
+    void publishesAPasswordChangeCutoffForTheUser() {
+        LocalDateTime validAfter = LocalDateTime.now();
+        long validAfterMillis = validAfter.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        revocationList.revokeIssuedBefore("alice", validAfter);
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("token-revoked"), eq("alice"), event.capture());
+        TokenRevokedEvent published = (TokenRevokedEvent) event.getValue();
+        assertNull(published.getJti());
+        assertEquals("alice", published.getUsername());
+        assertEquals(validAfterMillis, published.getIssuedBeforeEpochMillis());
+        assertEquals(validAfterMillis + TOKEN_LIFETIME_MILLIS, published.getExpiresAtEpochMillis());
+    }
+
+    @Test
+    void ignoresCutoffEventsFromOtherInstances() {
+        revocationList.onTokenRevoked(TokenRevokedEvent.builder()
+                .username("alice")
+                .issuedBeforeEpochMillis(System.currentTimeMillis())
+                .expiresAtEpochMillis(System.currentTimeMillis() + 60_000)
+                .build());
+        revocationList.onTokenRevoked(TokenRevokedEvent.builder()
+                .jti("jti-2")
+                .expiresAtEpochMillis(System.currentTimeMillis() + 60_000)
+                .build());
+
+        assertTrue(revocationList.isRevoked("jti-2"));
+    }
+}
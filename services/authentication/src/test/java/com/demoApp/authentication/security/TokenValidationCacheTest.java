@@ -0,0 +1,133 @@
+package com.demoApp.authentication.security;
+
+import com.demoApp.authentication.entity.Authentication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenValidationCacheTest {
+
+    private final TokenValidationCache cache = new TokenValidationCache(30, 100);
+    private final Map<String, Authentication> accounts = new HashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void readsTheAccountOnAMissOnly() {
+        accounts.put("alice", account("alice", null, null));
+
+        TokenValidationCache.Entry first = cache.load("alice", null, this::read);
+        TokenValidationCache.Entry second = cache.load("alice", null, this::read);
+
+        assertNotNull(first);
+        assertEquals(first, second);
+        assertEquals(1, reads.get());
+        assertEquals(Set.of("USER"), first.getRoles());
+    }
+
+    @Test
+    void returnsNullForUnknownAccounts() {
+        assertNull(cache.load("nobody", null, this::read));
+        assertNull(cache.get("nobody"));
+    }
+
+    @Test
+    void rereadsTheAccountWhenALegacyTokenWasReplaced() {
+        accounts.put("alice", account("alice", "old-token", null));
+        assertTrue(cache.load("alice", "old-token", this::read).matchesToken("old-token"));
+
+        // Another instance logged the user in again and stored a new token
+        accounts.put("alice", account("alice", "new-token", null));
+        TokenValidationCache.Entry entry = cache.load("alice", "new-token", this::read);
+
+        assertTrue(entry.matchesToken("new-token"));
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void rejectsALegacyTokenThatNoLongerMatchesTheAccount() {
+        accounts.put("alice", account("alice", "new-token", null));
+
+        TokenValidationCache.Entry entry = cache.load("alice", "old-token", this::read);
+
+        assertFalse(entry.matchesToken("old-token"));
+    }
+
+    @Test
+    void invalidatesAgainAfterCommit() {
+        accounts.put("alice", account("alice", null, null));
+        cache.load("alice", null, this::read);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate("alice");
+        assertNull(cache.get("alice"));
+        // A concurrent validation re-caches the row before the transaction commits
+        cache.load("alice", null, this::read);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNull(cache.get("alice"));
+    }
+
+    @Test
+    void rejectsTokensIssuedBeforeTheCutoff() {
+        LocalDateTime cutoff = LocalDateTime.now().withNano(0);
+        accounts.put("alice", account("alice", null, cutoff));
+
+        TokenValidationCache.Entry entry = cache.load("alice", null, this::read);
+
+        assertTrue(entry.isIssuedBeforeCutoff(date(cutoff.minusMinutes(5))));
+        assertFalse(entry.isIssuedBeforeCutoff(date(cutoff)));
+        assertFalse(entry.isIssuedBeforeCutoff(date(cutoff.plusMinutes(5))));
+        assertTrue(entry.isIssuedBeforeCutoff(null));
+    }
+
+    @Test
+    void acceptsAnyIssueTimeWithoutACutoff() {
+        accounts.put("alice", account("alice", null, null));
+
+        TokenValidationCache.Entry entry = cache.load("alice", null, this::read);
+
+        assertFalse(entry.isIssuedBeforeCutoff(date(LocalDateTime.now().minusDays(30))));
+    }
+
+    private Optional<Authentication> read(String username) {
+        reads.incrementAndGet();
+        return Optional.ofNullable(accounts.get(username));
+    }
+
+    private static Authentication account(String username, String token, LocalDateTime tokensValidAfter) {
+        return Authentication.builder()
+                .username(username)
+                .password("hash")
+                .token(token)
+                .tokensValidAfter(tokensValidAfter)
+                .roles(Set.of("USER"))
+                .build();
+    }
+
+    private static Date date(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
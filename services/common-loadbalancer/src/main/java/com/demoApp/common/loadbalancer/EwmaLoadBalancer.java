@@ -0,0 +1,82 @@
+package com.demoApp.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Power-of-two-choices load balancer: picks two random instances and sends the request to
+ * the one with the lower EWMA latency times (in-flight + 1).
+ *
+ * An instance without latency data wins against one with data so new instances get probed,
+ * but only while it has fewer probes in flight than {@link InstanceLatencyStats} allows.
+ * When neither candidate has data or can take a probe the balancer falls back to round-robin.
+ */
+public class EwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger logger = Logger.getLogger(EwmaLoadBalancer.class.getName());
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final InstanceLatencyStats stats;
+    private final AtomicInteger position = new AtomicInteger(ThreadLocalRandom.current().nextInt(1000));
+
+    public EwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                            String serviceId, InstanceLatencyStats stats) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.stats = stats;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            logger.warning("No servers available for service: " + serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        double scoreA = stats.score(a);
+        double scoreB = stats.score(b);
+
+        if ((scoreA < 0 && scoreB < 0) || (scoreA == Double.MAX_VALUE && scoreB == Double.MAX_VALUE)) {
+            int pos = position.incrementAndGet() & Integer.MAX_VALUE;
+            return new DefaultResponse(instances.get(pos % instances.size()));
+        }
+        if (scoreA < 0) {
+            return new DefaultResponse(a);
+        }
+        if (scoreB < 0) {
+            return new DefaultResponse(b);
+        }
+        return new DefaultResponse(scoreA <= scoreB ? a : b);
+    }
+}
@@ -0,0 +1,29 @@
+package com.demoApp.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration, registered for every client through
+ * {@code @LoadBalancerClients(defaultConfiguration = ...)}. Deliberately not annotated with
+ * {@code @Configuration} so it only lives in the per-service child contexts.
+ */
+public class EwmaLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment, LoadBalancerClientFactory loadBalancerClientFactory, InstanceLatencyStats stats) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new EwmaLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId, stats);
+    }
+
+    @Bean
+    public EwmaLoadBalancerLifecycle ewmaLoadBalancerLifecycle(InstanceLatencyStats stats) {
+        return new EwmaLoadBalancerLifecycle(stats);
+    }
+}
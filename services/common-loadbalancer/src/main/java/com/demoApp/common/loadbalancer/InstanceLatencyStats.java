@@ -0,0 +1,93 @@
+package com.demoApp.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Observed latency and in-flight count per service instance, shared by every
+ * {@link EwmaLoadBalancer} and fed by {@link EwmaLoadBalancerLifecycle}.
+ *
+ * Latency is an exponentially weighted moving average that decays with time rather than
+ * with request count, so an instance that recovers from a GC pause is trusted again after a
+ * few decay periods even if it has received little traffic since.
+ *
+ * An instance without latency data is probed with at most {@code maxProbes} concurrent
+ * requests; until one of them completes it ranks behind every instance with data, so a
+ * newly started or stalled instance cannot take the whole herd.
+ */
+public class InstanceLatencyStats {
+
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final int maxProbes;
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public InstanceLatencyStats(long decayMillis, long failurePenaltyMillis) {
+        this(decayMillis, failurePenaltyMillis, 1);
+    }
+
+    public InstanceLatencyStats(long decayMillis, long failurePenaltyMillis, int maxProbes) {
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMillis);
+        this.failurePenaltyNanos = TimeUnit.MILLISECONDS.toNanos(failurePenaltyMillis);
+        this.maxProbes = Math.max(maxProbes, 1);
+    }
+
+    public void onStart(ServiceInstance instance) {
+        stats(instance).inFlight.incrementAndGet();
+    }
+
+    public void onComplete(ServiceInstance instance, long rttNanos, boolean failed) {
+        Stats s = stats(instance);
+        s.inFlight.decrementAndGet();
+        s.update(failed ? Math.max(rttNanos, failurePenaltyNanos) : rttNanos, decayNanos);
+    }
+
+    /**
+     * Lower is better. Returns -1 when the instance has no latency data yet and may take
+     * another probe, and {@link Double#MAX_VALUE} while its probes are still in flight.
+     */
+    public double score(ServiceInstance instance) {
+        Stats s = stats.get(key(instance));
+        if (s == null) {
+            return -1;
+        }
+        int inFlight = Math.max(s.inFlight.get(), 0);
+        if (!s.hasData()) {
+            return inFlight < maxProbes ? -1 : Double.MAX_VALUE;
+        }
+        return s.ewmaNanos * (inFlight + 1);
+    }
+
+    private Stats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new Stats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + '@' + instance.getHost() + ':' + instance.getPort();
+    }
+
+    private static final class Stats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile double ewmaNanos;
+        private volatile long lastUpdateNanos;
+
+        boolean hasData() {
+            return lastUpdateNanos != 0;
+        }
+
+        synchronized void update(long rttNanos, long decayNanos) {
+            long now = System.nanoTime();
+            if (lastUpdateNanos == 0) {
+                ewmaNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-(double) Math.max(now - lastUpdateNanos, 0) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            lastUpdateNanos = now == 0 ? 1 : now;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.demoApp.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EwmaLoadBalancerLifecycleTest {
+
+	private final ServiceInstance instance = new DefaultServiceInstance("menu-1", "menu-service", "10.0.0.1", 8083, false);
+	private final Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+	private final InstanceLatencyStats stats = new InstanceLatencyStats(10_000, 1_000);
+	private final EwmaLoadBalancerLifecycle lifecycle = new EwmaLoadBalancerLifecycle(stats);
+
+	@Test
+	void recordsTheCompletedCall() {
+		Request<Object> request = request(new HashMap<>());
+
+		lifecycle.onStartRequest(request, lbResponse);
+		lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, lbResponse));
+
+		assertHasData();
+	}
+
+	@Test
+	void leavesTheCompletionToCallersThatRecordItThemselves() {
+		Map<String, Object> attributes = new HashMap<>();
+		Request<Object> request = request(attributes);
+
+		lifecycle.onStartRequest(request, lbResponse);
+		attributes.put(EwmaLoadBalancerLifecycle.RECORDED_BY_CALLER_ATTR, Boolean.TRUE);
+		lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, lbResponse));
+
+		// Still one call in flight and no sample, as the probe has not been recorded
+		assertEquals(Double.MAX_VALUE, stats.score(instance));
+
+		stats.onComplete(instance, TimeUnit.MILLISECONDS.toNanos(5), false);
+		assertHasData();
+	}
+
+	private void assertHasData() {
+		double score = stats.score(instance);
+		assertTrue(score >= 0 && score < Double.MAX_VALUE);
+	}
+
+	private static Request<Object> request(Map<String, Object> attributes) {
+		RequestData data = new RequestData(HttpMethod.GET, URI.create("http://menu-service/menus"), new HttpHeaders(),
+				new LinkedMultiValueMap<>(), attributes);
+		return new DefaultRequest<>(new RequestDataContext(data, "default"));
+	}
+
+}
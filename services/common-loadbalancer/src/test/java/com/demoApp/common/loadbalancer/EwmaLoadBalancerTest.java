@@ -0,0 +1,120 @@
+package com.demoApp.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EwmaLoadBalancerTest {
+
+	private final ServiceInstance fast = new DefaultServiceInstance("menu-1", "menu-service", "10.0.0.1", 8083, false);
+	private final ServiceInstance slow = new DefaultServiceInstance("menu-2", "menu-service", "10.0.0.2", 8083, false);
+	private final ServiceInstance other = new DefaultServiceInstance("menu-3", "menu-service", "10.0.0.3", 8083, false);
+	private final List<ServiceInstance> instances = List.of(fast, slow, other);
+
+	@Test
+	void fallsBackToRoundRobinWithoutData() {
+		EwmaLoadBalancer loadBalancer = loadBalancer(new InstanceLatencyStats(10_000, 1_000));
+
+		Map<ServiceInstance, Integer> picks = pick(loadBalancer, 300);
+
+		assertEquals(100, picks.get(fast));
+		assertEquals(100, picks.get(slow));
+		assertEquals(100, picks.get(other));
+	}
+
+	@Test
+	void avoidsTheSlowInstance() {
+		InstanceLatencyStats stats = new InstanceLatencyStats(10_000, 1_000);
+		record(stats, fast, 5);
+		record(stats, other, 5);
+		record(stats, slow, 500);
+		EwmaLoadBalancer loadBalancer = loadBalancer(stats);
+
+		Map<ServiceInstance, Integer> picks = pick(loadBalancer, 1000);
+
+		assertEquals(0, picks.getOrDefault(slow, 0));
+		assertTrue(picks.get(fast) > 0 && picks.get(other) > 0);
+	}
+
+	@Test
+	void probesANewInstanceOnlyOnceAtATime() {
+		InstanceLatencyStats stats = new InstanceLatencyStats(10_000, 1_000);
+		record(stats, fast, 5);
+		record(stats, other, 5);
+		EwmaLoadBalancer loadBalancer = loadBalancer(stats);
+
+		int probes = 0;
+		for (int i = 0; i < 1000; i++) {
+			ServiceInstance picked = loadBalancer.choose(new DefaultRequest<>()).block().getServer();
+			// Requests stay in flight, as they would on an instance that is still starting up
+			stats.onStart(picked);
+			if (picked == slow) {
+				probes++;
+			}
+		}
+
+		assertEquals(1, probes);
+	}
+
+	@Test
+	void takesTheNextProbeOnceTheFirstCompletes() {
+		InstanceLatencyStats stats = new InstanceLatencyStats(10_000, 1_000);
+		stats.onStart(slow);
+		assertEquals(Double.MAX_VALUE, stats.score(slow));
+
+		stats.onComplete(slow, TimeUnit.MILLISECONDS.toNanos(5), false);
+
+		assertTrue(stats.score(slow) >= 0 && stats.score(slow) < Double.MAX_VALUE);
+	}
+
+	@Test
+	void allowsConfiguredNumberOfConcurrentProbes() {
+		InstanceLatencyStats stats = new InstanceLatencyStats(10_000, 1_000, 2);
+
+		stats.onStart(slow);
+		assertEquals(-1, stats.score(slow));
+		stats.onStart(slow);
+		assertEquals(Double.MAX_VALUE, stats.score(slow));
+	}
+
+	private EwmaLoadBalancer loadBalancer(InstanceLatencyStats stats) {
+		ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+			@Override
+			public String getServiceId() {
+				return "menu-service";
+			}
+
+			@Override
+			public Flux<List<ServiceInstance>> get() {
+				return Flux.just(instances);
+			}
+		};
+		return new EwmaLoadBalancer(new SimpleObjectProvider<>(supplier), "menu-service", stats);
+	}
+
+	private Map<ServiceInstance, Integer> pick(EwmaLoadBalancer loadBalancer, int times) {
+		Map<ServiceInstance, Integer> picks = new HashMap<>();
+		for (int i = 0; i < times; i++) {
+			picks.merge(loadBalancer.choose(new DefaultRequest<>()).block().getServer(), 1, Integer::sum);
+		}
+		return picks;
+	}
+
+	private static void record(InstanceLatencyStats stats, ServiceInstance instance, long millis) {
+		stats.onStart(instance);
+		stats.onComplete(instance, TimeUnit.MILLISECONDS.toNanos(millis), false);
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.demoApp.common.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Registers the {@link JwksKeyResolver}, configured through {@code app.jwt.jwks-uri},
+ * {@code app.jwt.jwks-refresh-seconds} and {@code jwt.legacy-hmac.enabled}. Services that
+ * verify auth service tokens import it and keep one parser from {@link JwksKeyResolver#parser},
+ * which also rejects tokens revoked since they were issued.
+ */
+@Configuration(proxyBeanMethods = false)
+@Import(TokenRevocationConfiguration.class)
+public class JwksConfiguration {
+
+    @Bean
+    public JwksKeyResolver jwksKeyResolver(
+            @Value("${app.jwt.jwks-uri:http://auth-service:8081/.well-known/jwks.json}") String jwksUri,
+            @Value("${app.jwt.jwks-refresh-seconds:300}") long refreshSeconds,
+            @Value("${jwt.legacy-hmac.enabled:false}") boolean legacyHmacEnabled,
+            RevokedTokens revokedTokens) {
+        return new JwksKeyResolver(jwksUri, refreshSeconds, legacyHmacEnabled, revokedTokens);
+    }
+}
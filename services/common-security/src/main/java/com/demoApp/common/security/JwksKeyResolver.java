@@ -0,0 +1,168 @@
+package com.demoApp.common.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves token verification keys from the authentication service's JWKS endpoint.
+ *
+ * The key set is cached in memory and refreshed on a background thread, so signature checks
+ * never leave the process and a key rotation is picked up without a redeploy. New keys are
+ * published before they start signing, so an unknown {@code kid} should not occur in normal
+ * operation. When one does, the token is rejected and a refresh is scheduled (at most every few
+ * seconds) rather than fetching on the request thread.
+ *
+ * Tokens without a {@code kid} were signed with a shared HMAC secret before the switch. They are
+ * only accepted while {@code jwt.legacy-hmac.enabled} is set, as in the authentication service;
+ * otherwise anyone holding the old secret could still mint tokens.
+ *
+ * Parsers also reject tokens listed in {@link RevokedTokens} with a {@link RevokedTokenException}.
+ */
+public class JwksKeyResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeyResolver.class);
+
+    private static final long MIN_FORCED_REFRESH_INTERVAL_MILLIS = 10_000;
+
+    private final URI jwksUri;
+    private final long refreshSeconds;
+    private final boolean legacyHmacEnabled;
+    private final RevokedTokens revokedTokens;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong lastForcedRefreshMillis = new AtomicLong();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+
+    public JwksKeyResolver(String jwksUri, long refreshSeconds, boolean legacyHmacEnabled, RevokedTokens revokedTokens) {
+        this.jwksUri = URI.create(jwksUri);
+        this.refreshSeconds = refreshSeconds;
+        this.legacyHmacEnabled = legacyHmacEnabled;
+        this.revokedTokens = revokedTokens;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        // First fetch runs in the background so startup does not depend on the auth service
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * A parser that verifies tokens with a {@code kid} against the published keys and, while
+     * legacy tokens are enabled, tokens without one against {@code legacyKey}, and that rejects
+     * revoked tokens. Parsers are thread-safe: build one and keep it.
+     */
+    public JwtParser parser(Key legacyKey) {
+        return Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // Checked before the signature; a forged token with a revoked jti is
+                        // rejected either way
+                        if (revokedTokens.isRevoked(claims)) {
+                            throw new RevokedTokenException("Token has been revoked");
+                        }
+                        return resolveKey(header, legacyKey);
+                    }
+                })
+                .build();
+    }
+
+    private Key resolveKey(JwsHeader<?> header, Key legacyKey) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (!legacyHmacEnabled || legacyKey == null) {
+                throw new SignatureException("Token has no key id");
+            }
+            return legacyKey;
+        }
+        PublicKey key = keys.get(kid);
+        if (key == null) {
+            long now = System.currentTimeMillis();
+            long last = lastForcedRefreshMillis.get();
+            if (now - last >= MIN_FORCED_REFRESH_INTERVAL_MILLIS && lastForcedRefreshMillis.compareAndSet(last, now)) {
+                scheduler.execute(this::refresh);
+            }
+            throw new SignatureException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    void refresh() {
+        try {
+            keys = fetch();
+            log.debug("Loaded {} signing keys from {}", keys.size(), jwksUri);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // Keep verifying with the keys we already have
+            log.warn("Failed to refresh signing keys from {}: {}", jwksUri, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, PublicKey> fetch() throws IOException, InterruptedException, GeneralSecurityException {
+        HttpRequest request = HttpRequest.newBuilder(jwksUri)
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("JWKS endpoint returned " + response.statusCode());
+        }
+        Map<String, PublicKey> fetched = new HashMap<>();
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        for (JsonNode jwk : objectMapper.readTree(response.body()).path("keys")) {
+            if (!"RSA".equals(jwk.path("kty").asText()) || !jwk.hasNonNull("kid")) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("e").asText()));
+            fetched.put(jwk.get("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        return Map.copyOf(fetched);
+    }
+}
@@ -0,0 +1,24 @@
+package com.demoApp.common.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link PasswordHashingExecutor}, configured through
+ * {@code app.password-hashing.*}. Services that hash passwords import it and wrap their
+ * encoder in a {@link BoundedPasswordEncoder}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class PasswordHashingConfiguration {
+
+    @Bean
+    public PasswordHashingExecutor passwordHashingExecutor(
+            @Value("${app.password-hashing.threads:0}") int threads,
+            @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.password-hashing.max-wait-millis:2000}") long maxWaitMillis,
+            MeterRegistry meterRegistry) {
+        return new PasswordHashingExecutor(threads, queueCapacity, maxWaitMillis, meterRegistry);
+    }
+}
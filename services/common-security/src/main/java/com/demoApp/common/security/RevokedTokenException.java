@@ -0,0 +1,13 @@
+package com.demoApp.common.security;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * A validly signed token that the authentication service has revoked.
+ */
+public class RevokedTokenException extends JwtException {
+
+    public RevokedTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.demoApp.common.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tokens the authentication service revoked before their expiry, as seen by a verifying service.
+ *
+ * A single token is revoked by its {@code jti} (logout, refresh). All tokens of a user issued
+ * before a point in time are revoked by username (password change or reset), the same rule as
+ * the authentication service's {@code tokens_valid_after}. Entries are dropped once every token
+ * they cover would have expired anyway.
+ */
+public class RevokedTokens {
+
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revokedIds = new ConcurrentHashMap<>();
+    // username -> tokens issued before this epoch second are revoked
+    private final Map<String, Cutoff> cutoffs = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurgeMillis = new AtomicLong();
+
+    public boolean isRevoked(Claims claims) {
+        if (revokedIds.isEmpty() && cutoffs.isEmpty()) {
+            return false;
+        }
+        String jti = claims.getId();
+        if (jti != null && revokedIds.containsKey(jti)) {
+            return true;
+        }
+        String username = claims.getSubject();
+        Cutoff cutoff = username != null ? cutoffs.get(username) : null;
+        if (cutoff == null) {
+            return false;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() / 1000 < cutoff.issuedBeforeEpochSecond;
+    }
+
+    public void revoke(String jti, long expiresAtMillis) {
+        if (expiresAtMillis > System.currentTimeMillis()) {
+            revokedIds.put(jti, expiresAtMillis);
+        }
+        purgeIfDue();
+    }
+
+    public void revokeIssuedBefore(String username, long issuedBeforeMillis, long expiresAtMillis) {
+        if (expiresAtMillis > System.currentTimeMillis()) {
+            Cutoff cutoff = new Cutoff(issuedBeforeMillis / 1000, expiresAtMillis);
+            // Out-of-order delivery must not move the cutoff back
+            cutoffs.merge(username, cutoff,
+                    (current, update) -> update.issuedBeforeEpochSecond > current.issuedBeforeEpochSecond ? update : current);
+        }
+        purgeIfDue();
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPurgeMillis.get();
+        if (now - last >= PURGE_INTERVAL_MILLIS && lastPurgeMillis.compareAndSet(last, now)) {
+            revokedIds.values().removeIf(expiresAt -> expiresAt <= now);
+            cutoffs.values().removeIf(cutoff -> cutoff.expiresAtMillis <= now);
+        }
+    }
+
+    private record Cutoff(long issuedBeforeEpochSecond, long expiresAtMillis) {
+    }
+}
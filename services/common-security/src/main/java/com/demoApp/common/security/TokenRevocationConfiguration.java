@@ -0,0 +1,49 @@
+package com.demoApp.common.security;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registers {@link RevokedTokens} and keeps it current from the {@code token-revoked} topic.
+ *
+ * Every instance needs every revocation, so each one consumes with its own group and reads
+ * the topic from the start: a fresh instance catches up on revocations made before it started.
+ * The consumer factory is private to this listener so it does not replace the service's own.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TokenRevocationConfiguration {
+
+    static final String CONTAINER_FACTORY = "tokenRevocationListenerContainerFactory";
+
+    @Bean
+    public RevokedTokens revokedTokens() {
+        return new RevokedTokens();
+    }
+
+    @Bean
+    public TokenRevocationListener tokenRevocationListener(RevokedTokens revokedTokens) {
+        return new TokenRevocationListener(revokedTokens);
+    }
+
+    @Bean(name = CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> tokenRevocationListenerContainerFactory(
+            @Value("${spring.kafka.bootstrap-servers:kafka:9092}") String bootstrapServers) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        return factory;
+    }
+}
@@ -0,0 +1,50 @@
+package com.demoApp.common.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+
+import java.io.IOException;
+
+/**
+ * Feeds {@link RevokedTokens} from the authentication service's {@code token-revoked} topic.
+ *
+ * Payloads are read as plain JSON so the services do not depend on the authentication
+ * service's event class.
+ */
+public class TokenRevocationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationListener.class);
+
+    private final RevokedTokens revokedTokens;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public TokenRevocationListener(RevokedTokens revokedTokens) {
+        this.revokedTokens = revokedTokens;
+    }
+
+    @KafkaListener(topics = "${app.jwt.revocation.topic:token-revoked}",
+            groupId = "${app.jwt.revocation.group-id:${spring.application.name:service}-revocations-${random.uuid}}",
+            containerFactory = TokenRevocationConfiguration.CONTAINER_FACTORY)
+    public void onTokenRevoked(String payload) {
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(payload);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable token revocation: {}", e.getMessage());
+            return;
+        }
+        long expiresAtMillis = event.path("expiresAtEpochMillis").asLong();
+        String jti = event.path("jti").asText(null);
+        String username = event.path("username").asText(null);
+        long issuedBeforeMillis = event.path("issuedBeforeEpochMillis").asLong();
+
+        if (jti != null) {
+            revokedTokens.revoke(jti, expiresAtMillis);
+        } else if (username != null && issuedBeforeMillis > 0) {
+            revokedTokens.revokeIssuedBefore(username, issuedBeforeMillis, expiresAtMillis);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.demoApp.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache in front of a service's own {@link UserDetailsService}, for the filters
+ * that authenticate bearer tokens.
+ *
+ * The token only proves who the caller is. Authorities and account status still come from the
+ * service's own user records, because roles in the authentication service's tokens are chosen
+ * at registration and do not match the service's roles. Each user is looked up once per TTL
+ * instead of on every request. Unknown users are not cached, so a user created after their first
+ * request is found on the next one.
+ */
+public class UserDetailsCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(UserDetailsService userDetailsService, long ttlSeconds, long maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Returns the user for a verified token subject, or null when there is no such user or the
+     * account is disabled, locked or expired.
+     */
+    public UserDetails get(String username) {
+        UserDetails user = cache.get(username, this::load);
+        if (user == null || !user.isEnabled() || !user.isAccountNonLocked() || !user.isAccountNonExpired()) {
+            return null;
+        }
+        return user;
+    }
+
+    /**
+     * Drops a user whose roles or status changed, so the next request sees the change.
+     * Changes that are not reported here show up when the entry expires, at most one TTL later.
+     */
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    private UserDetails load(String username) {
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        // Only used to authorize requests; keep no password hashes in memory
+        if (user instanceof CredentialsContainer credentials) {
+            credentials.eraseCredentials();
+        }
+        return user;
+    }
+}
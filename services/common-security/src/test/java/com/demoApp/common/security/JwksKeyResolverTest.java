@@ -0,0 +1,185 @@
+package com.demoApp.common.security;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwksKeyResolverTest {
+
+	private final SecretKey legacyKey = Keys.hmacShaKeyFor(
+			"legacy-secret-that-is-at-least-32-bytes".getBytes(StandardCharsets.UTF_8));
+	private final AtomicReference<String> jwks = new AtomicReference<>("{\"keys\":[]}");
+	private final RevokedTokens revokedTokens = new RevokedTokens();
+
+	private HttpServer server;
+	private String jwksUri;
+	private JwksKeyResolver resolver;
+	private JwtParser parser;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/.well-known/jwks.json", exchange -> {
+			byte[] body = jwks.get().getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+		jwksUri = "http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json";
+		useResolver(false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		resolver.stop();
+		server.stop(0);
+	}
+
+	@Test
+	void verifiesTokensSignedWithPublishedKey() {
+		KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.RS256);
+		jwks.set(jwks("key-1", (RSAPublicKey) pair.getPublic()));
+		resolver.refresh();
+
+		String token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "key-1")
+				.setSubject("alice")
+				.signWith(pair.getPrivate(), SignatureAlgorithm.RS256)
+				.compact();
+
+		assertEquals("alice", parser.parseClaimsJws(token).getBody().getSubject());
+	}
+
+	@Test
+	void picksUpRotatedKeyOnRefresh() {
+		KeyPair first = Keys.keyPairFor(SignatureAlgorithm.RS256);
+		KeyPair second = Keys.keyPairFor(SignatureAlgorithm.RS256);
+		jwks.set(jwks("key-1", (RSAPublicKey) first.getPublic()));
+		resolver.refresh();
+		String token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "key-2")
+				.setSubject("alice")
+				.signWith(second.getPrivate(), SignatureAlgorithm.RS256)
+				.compact();
+
+		assertThrows(SignatureException.class, () -> parser.parseClaimsJws(token));
+
+		jwks.set(jwks("key-2", (RSAPublicKey) second.getPublic()));
+		resolver.refresh();
+
+		assertEquals("alice", parser.parseClaimsJws(token).getBody().getSubject());
+	}
+
+	@Test
+	void rejectsTokenSignedWithDifferentKeyUnderPublishedKid() {
+		KeyPair published = Keys.keyPairFor(SignatureAlgorithm.RS256);
+		KeyPair other = Keys.keyPairFor(SignatureAlgorithm.RS256);
+		jwks.set(jwks("key-1", (RSAPublicKey) published.getPublic()));
+		resolver.refresh();
+
+		String token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "key-1")
+				.setSubject("alice")
+				.signWith(other.getPrivate(), SignatureAlgorithm.RS256)
+				.compact();
+
+		assertThrows(SignatureException.class, () -> parser.parseClaimsJws(token));
+	}
+
+	@Test
+	void rejectsTokensWithoutKidByDefault() {
+		String token = Jwts.builder()
+				.setSubject("bob")
+				.signWith(legacyKey, SignatureAlgorithm.HS256)
+				.compact();
+
+		SignatureException failure = assertThrows(SignatureException.class, () -> parser.parseClaimsJws(token));
+		assertEquals("Token has no key id", failure.getMessage());
+	}
+
+	@Test
+	void verifiesLegacyTokensWithoutKidAgainstSecretWhileEnabled() {
+		useResolver(true);
+		String token = Jwts.builder()
+				.setSubject("bob")
+				.signWith(legacyKey, SignatureAlgorithm.HS256)
+				.compact();
+
+		assertEquals("bob", parser.parseClaimsJws(token).getBody().getSubject());
+	}
+
+	@Test
+	void doesNotAcceptTheLegacySecretUnderAKid() {
+		useResolver(true);
+		jwks.set(jwks("key-1", (RSAPublicKey) Keys.keyPairFor(SignatureAlgorithm.RS256).getPublic()));
+		resolver.refresh();
+		String token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "key-1")
+				.setSubject("bob")
+				.signWith(legacyKey, SignatureAlgorithm.HS256)
+				.compact();
+
+		assertThrows(JwtException.class, () -> parser.parseClaimsJws(token));
+	}
+
+	@Test
+	void rejectsRevokedTokens() {
+		KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.RS256);
+		jwks.set(jwks("key-1", (RSAPublicKey) pair.getPublic()));
+		resolver.refresh();
+		String token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "key-1")
+				.setId("jti-1")
+				.setSubject("alice")
+				.signWith(pair.getPrivate(), SignatureAlgorithm.RS256)
+				.compact();
+
+		revokedTokens.revoke("jti-1", System.currentTimeMillis() + 60_000);
+
+		assertThrows(RevokedTokenException.class, () -> parser.parseClaimsJws(token));
+	}
+
+	private void useResolver(boolean legacyHmacEnabled) {
+		if (resolver != null) {
+			resolver.stop();
+		}
+		resolver = new JwksKeyResolver(jwksUri, 300, legacyHmacEnabled, revokedTokens);
+		parser = resolver.parser(legacyKey);
+	}
+
+	private static String jwks(String kid, RSAPublicKey key) {
+		return "{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + kid
+				+ "\",\"n\":\"" + base64Url(key.getModulus())
+				+ "\",\"e\":\"" + base64Url(key.getPublicExponent()) + "\"}]}";
+	}
+
+	private static String base64Url(BigInteger value) {
+		byte[] bytes = value.toByteArray();
+		if (bytes.length > 1 && bytes[0] == 0) {
+			bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}
@@ -0,0 +1,126 @@
+package com.demoApp.common.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private PasswordHashingExecutor executor;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		executor.close();
+	}
+
+	@Test
+	void encodesAndMatchesThroughTheDelegate() {
+		executor = new PasswordHashingExecutor(1, 4, 5_000, meterRegistry);
+		PasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor);
+
+		String hash = encoder.encode("secret");
+
+		assertTrue(encoder.matches("secret", hash));
+		assertFalse(encoder.matches("other", hash));
+	}
+
+	@Test
+	void rejectsRightAwayWhenTheQueueIsFull() throws Exception {
+		executor = new PasswordHashingExecutor(1, 1, 5_000, meterRegistry);
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture.runAsync(() -> executor.matches(() -> {
+			started.countDown();
+			awaitRelease();
+			return true;
+		}));
+		started.await();
+		CompletableFuture.runAsync(() -> executor.matches(() -> true));
+		waitForQueueDepth(1);
+
+		assertThrows(PasswordHashingRejectedException.class, () -> executor.matches(() -> true));
+		assertEquals(1.0, meterRegistry.counter("password.hash.rejected").count());
+	}
+
+	@Test
+	void dropsATaskThatWaitedTooLongInTheQueue() throws Exception {
+		executor = new PasswordHashingExecutor(1, 4, 50, meterRegistry);
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture<Boolean> blocker = CompletableFuture.supplyAsync(() -> executor.matches(() -> {
+			started.countDown();
+			awaitRelease();
+			return true;
+		}));
+		started.await();
+		AtomicBoolean ran = new AtomicBoolean();
+
+		assertThrows(PasswordHashingRejectedException.class, () -> executor.matches(() -> ran.getAndSet(true)));
+		assertEquals(0.0, meterRegistry.get("password.hash.queue.depth").gauge().value());
+
+		release.countDown();
+		assertTrue(blocker.get(5, TimeUnit.SECONDS));
+		assertTrue(executor.matches(() -> true));
+		assertFalse(ran.get());
+	}
+
+	@Test
+	void waitsForATaskThatIsAlreadyHashing() {
+		executor = new PasswordHashingExecutor(1, 4, 50, meterRegistry);
+
+		String hash = executor.encode(() -> {
+			sleep(200);
+			return "hash";
+		});
+
+		assertEquals("hash", hash);
+		assertEquals(0.0, meterRegistry.counter("password.hash.rejected").count());
+	}
+
+	@Test
+	void rethrowsFailuresOfTheDelegate() {
+		executor = new PasswordHashingExecutor(1, 4, 5_000, meterRegistry);
+
+		IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+				() -> executor.encode(() -> {
+					throw new IllegalArgumentException("rawPassword cannot be null");
+				}));
+		assertEquals("rawPassword cannot be null", failure.getMessage());
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void waitForQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("password.hash.queue.depth").gauge().value() < depth && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
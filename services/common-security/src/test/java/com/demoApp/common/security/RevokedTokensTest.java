@@ -0,0 +1,56 @@
+package com.demoApp.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevokedTokensTest {
+
+	private final RevokedTokens revokedTokens = new RevokedTokens();
+	private final long now = System.currentTimeMillis();
+
+	@Test
+	void revokesASingleTokenByJti() {
+		revokedTokens.revoke("jti-1", now + 60_000);
+
+		assertTrue(revokedTokens.isRevoked(claims("jti-1", "alice", now - 1_000)));
+		assertFalse(revokedTokens.isRevoked(claims("jti-2", "alice", now - 1_000)));
+	}
+
+	@Test
+	void revokesTokensIssuedBeforeTheCutoff() {
+		revokedTokens.revokeIssuedBefore("alice", now, now + 60_000);
+
+		assertTrue(revokedTokens.isRevoked(claims("jti-1", "alice", now - 5_000)));
+		assertFalse(revokedTokens.isRevoked(claims("jti-2", "alice", now + 5_000)));
+		assertFalse(revokedTokens.isRevoked(claims("jti-3", "bob", now - 5_000)));
+	}
+
+	@Test
+	void doesNotMoveTheCutoffBack() {
+		revokedTokens.revokeIssuedBefore("alice", now, now + 60_000);
+		revokedTokens.revokeIssuedBefore("alice", now - 30_000, now + 60_000);
+
+		assertTrue(revokedTokens.isRevoked(claims("jti-1", "alice", now - 10_000)));
+	}
+
+	@Test
+	void ignoresRevocationsOfTokensThatHaveAlreadyExpired() {
+		revokedTokens.revoke("jti-1", now - 1);
+		revokedTokens.revokeIssuedBefore("alice", now, now - 1);
+
+		assertFalse(revokedTokens.isRevoked(claims("jti-1", "alice", now - 5_000)));
+	}
+
+	private static Claims claims(String jti, String subject, long issuedAtMillis) {
+		return Jwts.claims()
+				.setId(jti)
+				.setSubject(subject)
+				.setIssuedAt(new Date(issuedAtMillis));
+	}
+}
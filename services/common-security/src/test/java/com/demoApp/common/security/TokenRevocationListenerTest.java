@@ -0,0 +1,48 @@
+package com.demoApp.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationListenerTest {
+
+	private final RevokedTokens revokedTokens = new RevokedTokens();
+	private final TokenRevocationListener listener = new TokenRevocationListener(revokedTokens);
+	private final long now = System.currentTimeMillis();
+
+	@Test
+	void revokesTheTokenNamedInTheEvent() {
+		listener.onTokenRevoked("{\"jti\":\"jti-1\",\"username\":\"alice\",\"expiresAtEpochMillis\":" + (now + 60_000) + "}");
+
+		assertTrue(revokedTokens.isRevoked(claims("jti-1", "alice", now - 1_000)));
+		assertFalse(revokedTokens.isRevoked(claims("jti-2", "alice", now - 1_000)));
+	}
+
+	@Test
+	void revokesEarlierTokensOfTheUserWhenTheEventHasNoJti() {
+		listener.onTokenRevoked("{\"jti\":null,\"username\":\"alice\",\"expiresAtEpochMillis\":" + (now + 60_000)
+				+ ",\"issuedBeforeEpochMillis\":" + now + "}");
+
+		assertTrue(revokedTokens.isRevoked(claims("jti-1", "alice", now - 5_000)));
+		assertFalse(revokedTokens.isRevoked(claims("jti-2", "alice", now + 5_000)));
+	}
+
+	@Test
+	void ignoresUnreadablePayloads() {
+		listener.onTokenRevoked("not json");
+
+		assertFalse(revokedTokens.isRevoked(claims("jti-1", "alice", now)));
+	}
+
+	private static Claims claims(String jti, String subject, long issuedAtMillis) {
+		return Jwts.claims()
+				.setId(jti)
+				.setSubject(subject)
+				.setIssuedAt(new Date(issuedAtMillis));
+	}
+}
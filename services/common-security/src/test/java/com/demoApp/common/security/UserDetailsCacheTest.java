@@ -0,0 +1,83 @@
+package com.demoApp.common.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserDetailsCacheTest {
+
+	private final Map<String, UserDetails> users = new ConcurrentHashMap<>();
+	private final AtomicInteger lookups = new AtomicInteger();
+	private final UserDetailsCache cache = new UserDetailsCache(username -> {
+		lookups.incrementAndGet();
+		UserDetails user = users.get(username);
+		if (user == null) {
+			throw new UsernameNotFoundException(username);
+		}
+		return User.withUserDetails(user).build();
+	}, 60, 100);
+
+	@Test
+	void looksTheUserUpOncePerTtl() {
+		users.put("alice", user("alice", "MESS_OWNER", true, true));
+
+		UserDetails first = cache.get("alice");
+		UserDetails second = cache.get("alice");
+
+		assertEquals(1, lookups.get());
+		assertEquals(List.of(new SimpleGrantedAuthority("ROLE_MESS_OWNER")), List.copyOf(second.getAuthorities()));
+		assertNull(first.getPassword());
+	}
+
+	@Test
+	void doesNotCacheUnknownUsers() {
+		assertNull(cache.get("bob"));
+
+		users.put("bob", user("bob", "CUSTOMER", true, true));
+
+		assertNotNull(cache.get("bob"));
+		assertEquals(2, lookups.get());
+	}
+
+	@Test
+	void rejectsDisabledAndLockedAccounts() {
+		users.put("carol", user("carol", "CUSTOMER", false, true));
+		users.put("dave", user("dave", "CUSTOMER", true, false));
+
+		assertNull(cache.get("carol"));
+		assertNull(cache.get("dave"));
+	}
+
+	@Test
+	void picksUpChangesAfterInvalidation() {
+		users.put("erin", user("erin", "CUSTOMER", true, true));
+		cache.get("erin");
+		users.put("erin", user("erin", "CUSTOMER", true, false));
+
+		assertNotNull(cache.get("erin"));
+
+		cache.invalidate("erin");
+
+		assertNull(cache.get("erin"));
+	}
+
+	private static UserDetails user(String username, String role, boolean enabled, boolean nonLocked) {
+		return User.withUsername(username)
+				.password("{bcrypt}hash")
+				.roles(role)
+				.disabled(!enabled)
+				.accountLocked(!nonLocked)
+				.build();
+	}
+}
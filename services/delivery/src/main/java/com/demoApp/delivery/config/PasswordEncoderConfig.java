@@ -0,0 +1,20 @@
+package com.demoApp.delivery.config;
+
+import com.demoApp.common.security.BoundedPasswordEncoder;
+import com.demoApp.common.security.PasswordHashingConfiguration;
+import com.demoApp.common.security.PasswordHashingExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+@Import(PasswordHashingConfiguration.class)
+public class PasswordEncoderConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
+    }
+}
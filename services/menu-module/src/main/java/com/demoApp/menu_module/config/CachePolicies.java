@@ -0,0 +1,22 @@
+package com.demoApp.menu_module.config;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control values for responses that are the same for every caller.
+ */
+public final class CachePolicies {
+
+    /**
+     * Public menus: the gateway may share them between users for up to five minutes and drops
+     * them early on MenuUpdatedEvent; browsers revalidate every time and get a 304 from the gateway.
+     */
+    public static final CacheControl PUBLIC_LISTING = CacheControl.maxAge(Duration.ZERO)
+            .sMaxAge(Duration.ofMinutes(5))
+            .cachePublic();
+
+    private CachePolicies() {
+    }
+}
@@ -1,9 +1,11 @@
 package com.demoApp.menu_module.config;
 
+import com.demoApp.common.security.JwksConfiguration;
 import com.demoApp.menu_module.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -22,6 +24,7 @@ import java.util.List;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@Import(JwksConfiguration.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -1,5 +1,6 @@
 package com.demoApp.menu_module.controller;
 
+import com.demoApp.menu_module.config.CachePolicies;
 import com.demoApp.menu_module.dto.ApiResponse;
 import com.demoApp.menu_module.dto.MenuCategoryDTO;
 import com.demoApp.menu_module.service.MenuCategoryService;
@@ -53,12 +54,12 @@ public class MenuCategoryController {
     // Public endpoints that don't require authentication
     @GetMapping("/public/owner/{ownerId}")
     public ResponseEntity<ApiResponse<List<MenuCategoryDTO>>> getPublicCategoriesByOwner(@PathVariable Long ownerId) {
-        return ResponseEntity.ok(ApiResponse.success(menuCategoryService.getCategoriesByOwnerAndActive(ownerId, true)));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(ApiResponse.success(menuCategoryService.getCategoriesByOwnerAndActive(ownerId, true)));
     }
 
     @GetMapping("/public/owner/{ownerId}/ordered")
     public ResponseEntity<ApiResponse<List<MenuCategoryDTO>>> getPublicCategoriesByOwnerOrdered(@PathVariable Long ownerId) {
-        return ResponseEntity.ok(ApiResponse.success(menuCategoryService.getActiveCategoriesByOwnerOrdered(ownerId)));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(ApiResponse.success(menuCategoryService.getActiveCategoriesByOwnerOrdered(ownerId)));
     }
 
     @PostMapping
@@ -1,5 +1,6 @@
 package com.demoApp.menu_module.controller;
 
+import com.demoApp.menu_module.config.CachePolicies;
 import com.demoApp.menu_module.dto.ApiResponse;
 import com.demoApp.menu_module.dto.MenuDTO;
 import com.demoApp.menu_module.entity.Menu;
@@ -65,12 +66,12 @@ public class MenuController {
     // Public endpoints that don't require authentication
     @GetMapping("/public/mess/{messId}")
     public ResponseEntity<ApiResponse<List<MenuDTO>>> getPublicMenusByMess(@PathVariable Long messId) {
-        return ResponseEntity.ok(ApiResponse.success(menuService.getMenusByMessAndActive(messId, true)));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(ApiResponse.success(menuService.getMenusByMessAndActive(messId, true)));
     }
 
     @GetMapping("/public/mess/{messId}/active")
     public ResponseEntity<ApiResponse<List<MenuDTO>>> getPublicActiveMenusByMess(@PathVariable Long messId) {
-        return ResponseEntity.ok(ApiResponse.success(menuService.getMenusByMessAndActive(messId, true)));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(ApiResponse.success(menuService.getMenusByMessAndActive(messId, true)));
     }
 
     @PostMapping
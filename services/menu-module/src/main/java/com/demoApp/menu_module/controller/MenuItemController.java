@@ -1,5 +1,6 @@
 package com.demoApp.menu_module.controller;
 
+import com.demoApp.menu_module.config.CachePolicies;
 import com.demoApp.menu_module.dto.ApiResponse;
 import com.demoApp.menu_module.dto.MenuItemDTO;
 import com.demoApp.menu_module.service.MenuItemService;
@@ -80,7 +81,9 @@ public class MenuItemController {
     // Public endpoints that don't require authentication
     @GetMapping("/public/menu/{menuId}")
     public ResponseEntity<ApiResponse<Object>> getPublicMenuItemsByMenu(@PathVariable Long menuId) {
-        return ResponseEntity.ok(ApiResponse.success(menuItemService.getMenuItemsByMenuAndCategory(menuId, true)));
+        return ResponseEntity.ok()
+                .cacheControl(CachePolicies.PUBLIC_LISTING)
+                .body(ApiResponse.success(menuItemService.getMenuItemsByMenuAndCategory(menuId, true)));
     }
 
     @GetMapping("/public/menu/{menuId}/category/{category}")
@@ -89,7 +92,7 @@ public class MenuItemController {
         List<MenuItemDTO> items = menuItemService.getMenuItemsByMenuAndCategory(menuId, category).stream()
                 .filter(MenuItemDTO::getAvailable)
                 .toList();
-        return ResponseEntity.ok(ApiResponse.success(items));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(ApiResponse.success(items));
     }
 
     @PostMapping
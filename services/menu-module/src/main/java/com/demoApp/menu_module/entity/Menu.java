@@ -11,6 +11,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(MenuChangeListener.class)
 @Table(name = "menus")
 @Data
 @Builder
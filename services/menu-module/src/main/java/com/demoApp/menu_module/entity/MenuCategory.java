@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners(MenuChangeListener.class)
 @Table(name = "menu_categories")
 @Data
 @Builder
@@ -0,0 +1,66 @@
+package com.demoApp.menu_module.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Publishes a menu-updated event when a menu, item or category is written, so the gateway
+ * drops the menu responses it has cached. Sent once the transaction commits, and at most
+ * once per transaction.
+ */
+@Component
+@Slf4j
+public class MenuChangeListener {
+
+    private static final String PENDING = MenuChangeListener.class.getName() + ".pending";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String topic;
+
+    public MenuChangeListener(KafkaTemplate<String, Object> kafkaTemplate,
+                              @Value("${app.kafka.topics.menu-updated:menu-updated}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(PENDING)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PENDING, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+                if (status == STATUS_COMMITTED) {
+                    publish();
+                }
+            }
+        });
+    }
+
+    private void publish() {
+        try {
+            kafkaTemplate.send(topic, Map.of("eventType", "MENU_UPDATED", "source", "menu-service"));
+        } catch (RuntimeException e) {
+            // Cached copies still expire with their TTL
+            log.warn("Failed to publish menu change: {}", e.getMessage());
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(MenuChangeListener.class)
 @Table(name = "menu_items")
 @Data
 @Builder
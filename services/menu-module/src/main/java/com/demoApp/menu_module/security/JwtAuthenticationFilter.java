@@ -1,10 +1,12 @@
 package com.demoApp.menu_module.security;
 
+import com.demoApp.common.security.UserDetailsCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,11 +18,18 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsServiceImpl userDetailsService,
+                                   @Value("${app.security.user-cache.ttl-seconds:60}") long ttlSeconds,
+                                   @Value("${app.security.user-cache.max-size:10000}") long maxSize) {
+        this.jwtService = jwtService;
+        this.userDetailsCache = new UserDetailsCache(userDetailsService, ttlSeconds, maxSize);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -36,12 +45,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         final String jwt = authHeader.substring(7);
-        final String username = jwtService.extractUsername(jwt);
+        final Claims claims = jwtService.getValidClaims(jwt);
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Roles and account status come from owner-service (cached briefly), never from
+            // the token
+            UserDetails userDetails = userDetailsCache.get(claims.getSubject());
             
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
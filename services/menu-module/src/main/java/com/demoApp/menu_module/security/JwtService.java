@@ -1,9 +1,13 @@
 package com.demoApp.menu_module.security;
 
+import com.demoApp.common.security.JwksKeyResolver;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -23,10 +27,29 @@ public class JwtService {
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
 
+    private final JwksKeyResolver jwksKeyResolver;
+    private JwtParser parser;
+
+    public JwtService(JwksKeyResolver jwksKeyResolver) {
+        this.jwksKeyResolver = jwksKeyResolver;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Verifies the signature and expiry in a single parse.
+     * Returns null when the token is invalid or expired.
+     */
+    public Claims getValidClaims(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -71,11 +94,14 @@ public class JwtService {
                 .compact();
     }
 
+    // Key selection by kid: see JwksKeyResolver; tokens issued here are still HMAC-signed
+    @PostConstruct
+    void initParser() {
+        parser = jwksKeyResolver.parser(getSignInKey());
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
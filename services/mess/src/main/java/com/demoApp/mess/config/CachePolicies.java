@@ -0,0 +1,23 @@
+package com.demoApp.mess.config;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control values for responses that are the same for every caller.
+ */
+public final class CachePolicies {
+
+    /**
+     * Mess and menu listings: the gateway may share them between users for up to five minutes
+     * and drops them early on MenuUpdatedEvent or MessCreatedEvent; browsers revalidate every
+     * time and get a 304 from the gateway.
+     */
+    public static final CacheControl PUBLIC_LISTING = CacheControl.maxAge(Duration.ZERO)
+            .sMaxAge(Duration.ofMinutes(5))
+            .cachePublic();
+
+    private CachePolicies() {
+    }
+}
@@ -3,6 +3,7 @@ package com.demoApp.mess.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -21,6 +22,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import com.demoApp.mess.security.JwtAuthenticationEntryPoint;
 import com.demoApp.mess.security.JwtAuthenticationFilter;
 import com.demoApp.mess.security.CustomUserDetailsService;
+import com.demoApp.common.security.BoundedPasswordEncoder;
+import com.demoApp.common.security.JwksConfiguration;
+import com.demoApp.common.security.PasswordHashingConfiguration;
+import com.demoApp.common.security.PasswordHashingExecutor;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,6 +33,7 @@ import java.util.Collections;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@Import({PasswordHashingConfiguration.class, JwksConfiguration.class})
 public class SecurityConfig {
 
     @Autowired
@@ -39,6 +45,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
@@ -54,7 +63,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
     }
 
     @Bean
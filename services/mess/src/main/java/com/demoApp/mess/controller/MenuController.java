@@ -1,5 +1,6 @@
 package com.demoApp.mess.controller;
 
+import com.demoApp.mess.config.CachePolicies;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -30,7 +31,7 @@ public class MenuController {
 
     @GetMapping("/mess/{messId}")
     public ResponseEntity<List<Menu>> getMenuItemsByMessId(@PathVariable Long messId) {
-        return ResponseEntity.ok(menuService.getMenuItemsByMessId(messId));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(menuService.getMenuItemsByMessId(messId));
     }
 
     @GetMapping("/{id}")
@@ -61,11 +62,11 @@ public class MenuController {
     public ResponseEntity<List<Menu>> getMenuItemsByMealType(
             @PathVariable Long messId,
             @PathVariable Menu.MealType mealType) {
-        return ResponseEntity.ok(menuService.getMenuItemsByMealType(messId, mealType));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(menuService.getMenuItemsByMealType(messId, mealType));
     }
 
     @GetMapping("/mess/{messId}/available")
     public ResponseEntity<List<Menu>> getAvailableMenuItems(@PathVariable Long messId) {
-        return ResponseEntity.ok(menuService.getAvailableMenuItems(messId));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(menuService.getAvailableMenuItems(messId));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.demoApp.mess.controller;
 
+import com.demoApp.mess.config.CachePolicies;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,12 +24,12 @@ public class MessController {
 
     @GetMapping
     public ResponseEntity<List<Mess>> getAllMesses() {
-        return ResponseEntity.ok(messService.getAllMesses());
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(messService.getAllMesses());
     }
 
     @GetMapping("/approved")
     public ResponseEntity<List<Mess>> getApprovedMesses() {
-        return ResponseEntity.ok(messService.getApprovedMesses());
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(messService.getApprovedMesses());
     }
 
     @GetMapping("/pending")
@@ -39,7 +40,7 @@ public class MessController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Mess> getMessById(@PathVariable Long id) {
-        return ResponseEntity.ok(messService.getMessById(id));
+        return ResponseEntity.ok().cacheControl(CachePolicies.PUBLIC_LISTING).body(messService.getMessById(id));
     }
 
     @PutMapping("/{id}")
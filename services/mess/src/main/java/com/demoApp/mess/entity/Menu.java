@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners(MessChangeListener.class)
 @Table(name = "menu_items")
 @Data
 @NoArgsConstructor
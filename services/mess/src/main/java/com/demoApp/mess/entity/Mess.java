@@ -1,5 +1,6 @@
 package com.demoApp.mess.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(MessChangeListener.class)
 @Table(name = "messes")
 @Data
 @Builder
@@ -27,6 +29,8 @@ public class Mess {
     @Column(nullable = false, unique = true)
     private String email;
 
+    // Accepted on input but never serialized; the listings that return Mess are public
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
@@ -0,0 +1,69 @@
+package com.demoApp.mess.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Publishes mess-updated when a mess is written and menu-updated when one of its menu items
+ * is, so the gateway drops the responses it has cached. Sent once the transaction commits,
+ * and at most once per topic and transaction.
+ */
+@Component
+@Slf4j
+public class MessChangeListener {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String messTopic;
+    private final String menuTopic;
+
+    public MessChangeListener(KafkaTemplate<String, Object> kafkaTemplate,
+                              @Value("${app.kafka.topics.mess-updated:mess-updated}") String messTopic,
+                              @Value("${app.kafka.topics.menu-updated:menu-updated}") String menuTopic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.messTopic = messTopic;
+        this.menuTopic = menuTopic;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        String topic = entity instanceof Menu ? menuTopic : messTopic;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(topic);
+            return;
+        }
+        String pending = MessChangeListener.class.getName() + "." + topic;
+        if (TransactionSynchronizationManager.hasResource(pending)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(pending, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pending);
+                if (status == STATUS_COMMITTED) {
+                    publish(topic);
+                }
+            }
+        });
+    }
+
+    private void publish(String topic) {
+        try {
+            kafkaTemplate.send(topic, Map.of("eventType", topic.toUpperCase().replace('-', '_'), "source", "mess-service"));
+        } catch (RuntimeException e) {
+            // Cached copies still expire with their TTL
+            log.warn("Failed to publish {} event: {}", topic, e.getMessage());
+        }
+    }
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserChangeListener.class)
 @Table(name = "users")
 @Data
 @Builder
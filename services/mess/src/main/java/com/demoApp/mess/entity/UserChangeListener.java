@@ -0,0 +1,48 @@
+package com.demoApp.mess.entity;
+
+import com.demoApp.mess.security.JwtAuthenticationFilter;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops a user from the token filter's cache when their record changes, so a demoted,
+ * deactivated or locked user loses their old authorities on the next request rather than
+ * after the cache TTL. Dropped again once the transaction commits, so a concurrent request
+ * cannot re-cache the pre-commit row.
+ */
+@Component
+public class UserChangeListener {
+
+    // Looked up on use: the filter depends on the user repository, which owns this listener
+    private final ObjectProvider<JwtAuthenticationFilter> jwtAuthenticationFilter;
+
+    public UserChangeListener(ObjectProvider<JwtAuthenticationFilter> jwtAuthenticationFilter) {
+        this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void changed(User user) {
+        String username = user.getUsername();
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        JwtAuthenticationFilter filter = jwtAuthenticationFilter.getIfAvailable();
+        if (filter != null) {
+            filter.evictUser(username);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.demoApp.mess.security;
 
+import com.demoApp.common.security.UserDetailsCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,8 +24,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtProvider jwtProvider;
 
-    @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+    private final UserDetailsCache userDetailsCache;
+
+    public JwtAuthenticationFilter(CustomUserDetailsService customUserDetailsService,
+                                   @Value("${app.security.user-cache.ttl-seconds:60}") long ttlSeconds,
+                                   @Value("${app.security.user-cache.max-size:10000}") long maxSize) {
+        this.userDetailsCache = new UserDetailsCache(customUserDetailsService, ttlSeconds, maxSize);
+    }
+
+    /**
+     * Forgets a user whose role or status changed; see {@link com.demoApp.mess.entity.UserChangeListener}.
+     */
+    public void evictUser(String username) {
+        userDetailsCache.invalidate(username);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,15 +46,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtProvider.validateToken(jwt)) {
-                String username = jwtProvider.getUsernameFromToken(jwt);
+            Claims claims = StringUtils.hasText(jwt) ? jwtProvider.getValidClaims(jwt) : null;
+
+            if (claims != null && claims.getSubject() != null) {
+                // Roles and account status come from the mess user record (cached briefly),
+                // never from the token
+                UserDetails userDetails = userDetailsCache.get(claims.getSubject());
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -1,7 +1,9 @@
 package com.demoApp.mess.security;
 
+import com.demoApp.common.security.JwksKeyResolver;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,6 +28,13 @@ public class JwtProvider {
     @Value("${app.jwt.refresh-expiration}")
     private long refreshExpirationInMs;
 
+    private final JwksKeyResolver jwksKeyResolver;
+    private JwtParser parser;
+
+    public JwtProvider(JwksKeyResolver jwksKeyResolver) {
+        this.jwksKeyResolver = jwksKeyResolver;
+    }
+
     // ✅ Fix: Directly extract username
     public String generateToken(UserDetails userDetails) {
         return generateToken(userDetails.getUsername());
@@ -81,9 +90,7 @@ public class JwtProvider {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -93,14 +100,32 @@ public class JwtProvider {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    // Key selection by kid: see JwksKeyResolver; tokens issued here are still HMAC-signed
+    @PostConstruct
+    void initParser() {
+        parser = jwksKeyResolver.parser(getSigningKey());
+    }
+
     private Boolean isTokenExpired(String token) {
         final Date expiration = getExpirationDateFromToken(token);
         return expiration.before(new Date());
     }
 
+    /**
+     * Verifies the signature and expiry in a single parse.
+     * Returns null when the token is invalid or expired.
+     */
+    public Claims getValidClaims(String token) {
+        try {
+            return getAllClaimsFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return !isTokenExpired(token);
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -4,13 +4,24 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.demoApp.mess.entity.User;
 import com.demoApp.mess.enums.RoleType;
 import com.demoApp.mess.repository.UserRepository;
 
+/**
+ * Role and ownership checks against the current user's record.
+ *
+ * The record is looked up once per request and kept as a request attribute, since a single
+ * service call typically asks for the user, its id and several roles. Outside a web request
+ * (listeners, scheduled jobs) every call looks the user up again.
+ */
 @Component
 public class UserSecurity {
+    private static final String CURRENT_USER_ATTRIBUTE = UserSecurity.class.getName() + ".CURRENT_USER";
+
     private final UserRepository userRepository;
 
     public UserSecurity(UserRepository userRepository) {
@@ -63,21 +74,12 @@ public class UserSecurity {
     }
 
     public boolean hasRole(RoleType roleType) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return false;
-        }
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof UserDetails)) {
+        User user = getCurrentUser();
+        if (user == null) {
             return false;
         }
-        String username = ((UserDetails) principal).getUsername();
-        return userRepository.findByUsername(username)
-                .map(user -> {
-                    RoleType userRoleType = mapUserRoleToRoleType(user.getRole());
-                    return userRoleType != null && userRoleType == roleType;
-                })
-                .orElse(false);
+        RoleType userRoleType = mapUserRoleToRoleType(user.getRole());
+        return userRoleType != null && userRoleType == roleType;
     }
 
     public User getCurrentUser() {
@@ -90,11 +92,34 @@ public class UserSecurity {
             return null;
         }
         String username = ((UserDetails) principal).getUsername();
-        return userRepository.findByUsername(username).orElse(null);
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return userRepository.findByUsername(username).orElse(null);
+        }
+        // Tied to the authentication it was resolved for, in case the request switches user
+        Object cached = attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof ResolvedUser && ((ResolvedUser) cached).authentication == authentication) {
+            return ((ResolvedUser) cached).user;
+        }
+        User user = userRepository.findByUsername(username).orElse(null);
+        attributes.setAttribute(CURRENT_USER_ATTRIBUTE, new ResolvedUser(authentication, user),
+                RequestAttributes.SCOPE_REQUEST);
+        return user;
     }
 
     public Long getCurrentUserId() {
         User currentUser = getCurrentUser();
         return currentUser != null ? currentUser.getId() : null;
     }
-}
\ No newline at end of file
+
+    private static final class ResolvedUser {
+        private final Authentication authentication;
+        private final User user;
+
+        ResolvedUser(Authentication authentication, User user) {
+            this.authentication = authentication;
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.demoApp.mess.entity;
+
+import com.demoApp.mess.security.JwtAuthenticationFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserChangeListenerTest {
+
+	private final JwtAuthenticationFilter filter = mock(JwtAuthenticationFilter.class);
+	private final UserChangeListener listener = new UserChangeListener(provider(filter));
+
+	private final User user = User.builder()
+			.id(7L)
+			.username("mess-owner")
+			.role(User.Role.CUSTOMER)
+			.build();
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void evictsTheUserRightAwayOutsideATransaction() {
+		listener.changed(user);
+
+		verify(filter).evictUser("mess-owner");
+	}
+
+	@Test
+	void evictsAgainOnceTheChangeCommits() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		listener.changed(user);
+		verify(filter, times(1)).evictUser("mess-owner");
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		verify(filter, times(2)).evictUser("mess-owner");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ObjectProvider<JwtAuthenticationFilter> provider(JwtAuthenticationFilter filter) {
+		ObjectProvider<JwtAuthenticationFilter> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(filter);
+		return provider;
+	}
+
+}
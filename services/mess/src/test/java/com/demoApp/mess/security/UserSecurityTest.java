@@ -0,0 +1,99 @@
+package com.demoApp.mess.security;
+
+import com.demoApp.mess.entity.User;
+import com.demoApp.mess.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserSecurityTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final UserSecurity userSecurity = new UserSecurity(userRepository);
+
+	private final User mess = User.builder()
+			.id(7L)
+			.username("mess-owner")
+			.role(User.Role.MESS_OWNER)
+			.build();
+
+	@BeforeEach
+	void setUp() {
+		when(userRepository.findByUsername("mess-owner")).thenReturn(Optional.of(mess));
+		authenticateAs("mess-owner");
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void looksUpCurrentUserOncePerRequest() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		// The checks a single delivery listing makes
+		assertSame(mess, userSecurity.getCurrentUser());
+		assertFalse(userSecurity.isAdmin());
+		assertFalse(userSecurity.isMess());
+		assertTrue(userSecurity.isMessOwnerOrAdmin(1L));
+		assertEquals(7L, userSecurity.getCurrentUserId());
+
+		verify(userRepository, times(1)).findByUsername("mess-owner");
+	}
+
+	@Test
+	void looksUpAgainInNextRequest() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		userSecurity.getCurrentUser();
+
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		userSecurity.getCurrentUser();
+
+		verify(userRepository, times(2)).findByUsername("mess-owner");
+	}
+
+	@Test
+	void looksUpAgainWhenAuthenticationChanges() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		userSecurity.getCurrentUser();
+
+		authenticateAs("mess-owner");
+		userSecurity.getCurrentUser();
+
+		verify(userRepository, times(2)).findByUsername("mess-owner");
+	}
+
+	@Test
+	void looksUpEveryTimeOutsideRequest() {
+		userSecurity.getCurrentUser();
+		userSecurity.isAdmin();
+
+		verify(userRepository, times(2)).findByUsername("mess-owner");
+	}
+
+	private static void authenticateAs(String username) {
+		org.springframework.security.core.userdetails.User principal =
+				new org.springframework.security.core.userdetails.User(username, "", AuthorityUtils.NO_AUTHORITIES);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+}
@@ -0,0 +1,35 @@
+package com.demoApp.otp.config;
+
+import com.demoApp.otp.dispatch.OtpChannelSender;
+import com.demoApp.otp.dispatch.StubOtpSender;
+import com.demoApp.otp.entity.OtpEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stub OTP providers, used instead of SMTP and Twilio when
+ * {@code app.otp.dispatch.provider=stub}
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.otp.dispatch.provider", havingValue = "stub")
+public class OtpDispatchConfig {
+
+    @Bean
+    public OtpChannelSender stubEmailSender(
+            @Value("${app.otp.dispatch.email.concurrency:4}") int concurrency,
+            @Value("${app.otp.dispatch.email.batch-size:20}") int batchSize,
+            @Value("${app.otp.dispatch.stub.latency-ms:50}") long latencyMillis,
+            @Value("${app.otp.dispatch.stub.failure-rate:0}") double failureRate) {
+        return new StubOtpSender(OtpEntity.RecipientType.EMAIL, concurrency, batchSize, latencyMillis, failureRate);
+    }
+
+    @Bean
+    public OtpChannelSender stubSmsSender(
+            @Value("${app.otp.dispatch.sms.concurrency:8}") int concurrency,
+            @Value("${app.otp.dispatch.stub.latency-ms:50}") long latencyMillis,
+            @Value("${app.otp.dispatch.stub.failure-rate:0}") double failureRate) {
+        return new StubOtpSender(OtpEntity.RecipientType.PHONE, concurrency, 1, latencyMillis, failureRate);
+    }
+}
@@ -0,0 +1,19 @@
+package com.demoApp.otp.config;
+
+import com.demoApp.otp.service.OtpPartitionManager;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Makes JPA start after the OTP partitions are in place, so Hibernate's schema update
+ * finds a partitioned table instead of creating a plain one
+ */
+@Configuration
+public class OtpPartitionConfig {
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor otpPartitionsBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(OtpPartitionManager.class);
+    }
+}
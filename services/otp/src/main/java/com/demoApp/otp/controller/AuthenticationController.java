@@ -5,6 +5,7 @@ import com.demoApp.otp.service.OtpService;
 import com.demoApp.otp.service.UserDetailsService;
 import com.demoApp.otp.util.JwtUtil;
 import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.exception.OtpRateLimitedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -47,6 +48,9 @@ public class AuthenticationController {
             returnMap.put("otp", otp);
             returnMap.put("status", "success");
             returnMap.put("message", "Otp sent successfully");
+        } catch (OtpRateLimitedException e) {
+            // Answered with 429 and Retry-After by the exception handler
+            throw e;
         } catch (Exception e) {
             returnMap.put("status", "failed");
             returnMap.put("message", e.getMessage());
@@ -58,18 +62,19 @@ public class AuthenticationController {
     public Map<String, Object> verifyOtp(@RequestBody AuthRequest authenticationRequest) {
         Map<String, Object> returnMap = new HashMap<>();
         try {
-            // Verify OTP by comparing with cached value
-            String cachedOtp = otpService.getCacheOtp(authenticationRequest.getPhoneNo());
-            if (authenticationRequest.getOtp().equals(cachedOtp)) {
+            // Counts the attempt and uses up the OTP on a match
+            if (otpService.verifyOtp(authenticationRequest.getPhoneNo(), authenticationRequest.getOtp())) {
                 String jwtToken = createAuthenticationToken(authenticationRequest);
                 returnMap.put("status", "success");
                 returnMap.put("message", "Otp verified successfully");
                 returnMap.put("jwt", jwtToken);
-                otpService.clearOtp(authenticationRequest.getPhoneNo());
             } else {
                 returnMap.put("status", "failed");
                 returnMap.put("message", "Otp is either expired or incorrect");
             }
+        } catch (OtpRateLimitedException e) {
+            // Answered with 429 and Retry-After by the exception handler
+            throw e;
         } catch (Exception e) {
             returnMap.put("status", "failed");
             returnMap.put("message", e.getMessage());
@@ -0,0 +1,31 @@
+package com.demoApp.otp.dispatch;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.entity.OtpOutboxMessage;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers OTPs over one channel through one provider
+ */
+public interface OtpChannelSender {
+
+    OtpEntity.RecipientType getChannel();
+
+    /**
+     * How many batches the provider may be sent in parallel
+     */
+    int getMaxConcurrency();
+
+    /**
+     * How many messages go to the provider in one call
+     */
+    int getBatchSize();
+
+    /**
+     * Send a batch.
+     * @return error by outbox message id for the messages that were not sent; empty if all were
+     */
+    Map<Long, String> send(List<OtpOutboxMessage> batch);
+}
@@ -0,0 +1,195 @@
+package com.demoApp.otp.dispatch;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.entity.OtpOutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the OTP outbox with one worker pool per channel.
+ *
+ * Each poll claims only as many messages as the channel has free workers for, so a slow
+ * provider backs up in the outbox rather than in memory, and one channel slowing down
+ * never holds up the other. Failed messages are retried with backoff by the outbox.
+ */
+@Component
+@Slf4j
+public class OtpDispatcher {
+
+    private final OtpOutbox outbox;
+    private final Map<OtpEntity.RecipientType, Lane> lanes = new EnumMap<>(OtpEntity.RecipientType.class);
+
+    public OtpDispatcher(OtpOutbox outbox, List<OtpChannelSender> senders, MeterRegistry meterRegistry) {
+        this.outbox = outbox;
+        for (OtpChannelSender sender : senders) {
+            lanes.put(sender.getChannel(), new Lane(sender, meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.dispatch.poll-interval-ms:200}")
+    public void poll() {
+        for (Lane lane : lanes.values()) {
+            try {
+                lane.dispatchDue();
+            } catch (RuntimeException e) {
+                log.warn("Failed to claim {} OTPs for delivery: {}", lane.sender.getChannel(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Anything still in flight after this is picked up again when its lease runs out
+        lanes.values().forEach(lane -> lane.workers.shutdown());
+        for (Lane lane : lanes.values()) {
+            lane.workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private final class Lane {
+        private final OtpChannelSender sender;
+        private final ExecutorService workers;
+        private final Semaphore permits;
+        private final Timer sendTimer;
+        private final Timer failedSendTimer;
+        private final Timer deliveryTimer;
+        private final Counter retried;
+        private final Counter abandoned;
+
+        Lane(OtpChannelSender sender, MeterRegistry meterRegistry) {
+            String channel = sender.getChannel().name().toLowerCase();
+            this.sender = sender;
+            this.workers = Executors.newFixedThreadPool(sender.getMaxConcurrency(), r -> {
+                Thread thread = new Thread(r, "otp-dispatch-" + channel);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.permits = new Semaphore(sender.getMaxConcurrency());
+            this.sendTimer = Timer.builder("otp.dispatch.send")
+                    .description("Time spent in a provider call for one batch")
+                    .tags("channel", channel, "outcome", "success")
+                    .register(meterRegistry);
+            this.failedSendTimer = Timer.builder("otp.dispatch.send")
+                    .description("Time spent in a provider call for one batch")
+                    .tags("channel", channel, "outcome", "failure")
+                    .register(meterRegistry);
+            this.deliveryTimer = Timer.builder("otp.dispatch.delivery")
+                    .description("Time from issuing an OTP to handing it to the provider")
+                    .tags("channel", channel)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.retried = Counter.builder("otp.dispatch.failures")
+                    .tags("channel", channel, "result", "retry")
+                    .register(meterRegistry);
+            this.abandoned = Counter.builder("otp.dispatch.failures")
+                    .tags("channel", channel, "result", "abandoned")
+                    .register(meterRegistry);
+            meterRegistry.gauge("otp.dispatch.in-flight", List.of(Tag.of("channel", channel)),
+                    permits, p -> sender.getMaxConcurrency() - p.availablePermits());
+        }
+
+        // Only the scheduler thread claims, so the free permits cannot shrink underneath us
+        void dispatchDue() {
+            int free = permits.availablePermits();
+            if (free == 0) {
+                return;
+            }
+            int batchSize = sender.getBatchSize();
+            List<OtpOutboxMessage> claimed = outbox.claim(sender.getChannel(), free * batchSize);
+            for (int from = 0; from < claimed.size(); from += batchSize) {
+                List<OtpOutboxMessage> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+                permits.acquireUninterruptibly();
+                try {
+                    workers.execute(() -> {
+                        try {
+                            deliver(batch);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // Shutting down; the lease returns these to the queue
+                    permits.release();
+                    return;
+                }
+            }
+        }
+
+        private void deliver(List<OtpOutboxMessage> batch) {
+            LocalDateTime now = LocalDateTime.now();
+            List<OtpOutboxMessage> live = new ArrayList<>(batch.size());
+            for (OtpOutboxMessage message : batch) {
+                if (message.getExpiresAt().isAfter(now)) {
+                    live.add(message);
+                } else {
+                    fail(message, "OTP expired before delivery");
+                }
+            }
+            if (live.isEmpty()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            Map<Long, String> failures;
+            try {
+                failures = sender.send(live);
+            } catch (RuntimeException e) {
+                failures = new HashMap<>();
+                for (OtpOutboxMessage message : live) {
+                    failures.put(message.getId(), e.getMessage());
+                }
+            }
+            (failures.isEmpty() ? sendTimer : failedSendTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            List<Long> sent = new ArrayList<>(live.size());
+            LocalDateTime sentAt = LocalDateTime.now();
+            for (OtpOutboxMessage message : live) {
+                String error = failures.get(message.getId());
+                if (error == null) {
+                    sent.add(message.getId());
+                    deliveryTimer.record(Duration.between(message.getCreatedAt(), sentAt));
+                } else {
+                    fail(message, error);
+                }
+            }
+            try {
+                outbox.markSent(sent);
+            } catch (RuntimeException e) {
+                // The lease will return them to the queue, so the user may get the code twice
+                log.warn("Failed to mark {} {} OTPs as sent: {}", sent.size(), sender.getChannel(), e.getMessage());
+            }
+        }
+
+        private void fail(OtpOutboxMessage message, String error) {
+            try {
+                if (outbox.markFailed(message, error)) {
+                    retried.increment();
+                } else {
+                    abandoned.increment();
+                    log.warn("Giving up on {} OTP {} after {} attempts: {}",
+                            sender.getChannel(), message.getId(), message.getAttempts(), error);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to record delivery failure for OTP {}: {}", message.getId(), e.getMessage());
+            }
+        }
+    }
+}
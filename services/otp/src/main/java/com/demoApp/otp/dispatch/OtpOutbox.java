@@ -0,0 +1,123 @@
+package com.demoApp.otp.dispatch;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.entity.OtpOutboxMessage;
+import com.demoApp.otp.repository.OtpOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable queue of OTPs to deliver, kept in {@code otp_outbox}.
+ *
+ * Messages are claimed with a lease, so several instances can drain the queue and a
+ * message claimed by an instance that died is picked up again once the lease runs out.
+ * Sent and abandoned messages hold the code in plain text, so they are deleted once their
+ * OTP has been expired for {@code retention-minutes}.
+ */
+@Component
+@Slf4j
+public class OtpOutbox {
+
+    private final OtpOutboxRepository outboxRepository;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration retention;
+    private final int purgeBatchSize;
+
+    public OtpOutbox(OtpOutboxRepository outboxRepository,
+                     @Value("${app.otp.dispatch.lease-seconds:30}") long leaseSeconds,
+                     @Value("${app.otp.dispatch.max-attempts:5}") int maxAttempts,
+                     @Value("${app.otp.dispatch.retry-backoff-ms:2000}") long retryBackoffMillis,
+                     @Value("${app.otp.dispatch.retention-minutes:60}") long retentionMinutes,
+                     @Value("${app.otp.dispatch.purge-batch-size:1000}") int purgeBatchSize) {
+        this.outboxRepository = outboxRepository;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Queue delivery of a saved OTP; joins the caller's transaction.
+     */
+    @Transactional
+    public OtpOutboxMessage enqueue(OtpEntity otpEntity) {
+        return outboxRepository.save(OtpOutboxMessage.builder()
+                .otpId(otpEntity.getId())
+                .channel(otpEntity.getRecipientType())
+                .recipient(otpEntity.getRecipient())
+                .otp(otpEntity.getOtp())
+                .nextAttemptAt(LocalDateTime.now())
+                .expiresAt(otpEntity.getExpiresAt())
+                .build());
+    }
+
+    /**
+     * Claim up to {@code limit} due messages on a channel for this instance.
+     */
+    @Transactional
+    public List<OtpOutboxMessage> claim(OtpEntity.RecipientType channel, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OtpOutboxMessage> messages = outboxRepository.lockDue(channel.name(), now, limit);
+        for (OtpOutboxMessage message : messages) {
+            message.setStatus(OtpOutboxMessage.Status.SENDING);
+            message.setLockedUntil(now.plus(lease));
+            message.setAttempts(message.getAttempts() + 1);
+        }
+        return outboxRepository.saveAll(messages);
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.markSent(ids, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Schedule a retry with exponential backoff, or give up once the attempts are spent
+     * or the OTP has expired. Returns true if the message will be retried.
+     */
+    @Transactional
+    public boolean markFailed(OtpOutboxMessage message, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime retryAt = now.plus(retryBackoff.multipliedBy(1L << Math.min(message.getAttempts() - 1, 16)));
+        boolean retry = message.getAttempts() < maxAttempts && retryAt.isBefore(message.getExpiresAt());
+
+        message.setStatus(retry ? OtpOutboxMessage.Status.PENDING : OtpOutboxMessage.Status.FAILED);
+        message.setNextAttemptAt(retryAt);
+        message.setLockedUntil(null);
+        message.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        outboxRepository.save(message);
+        return retry;
+    }
+
+    /**
+     * Delete finished messages past retention, a batch per transaction so a large backlog
+     * does not hold locks the dispatcher is waiting on. Returns the number deleted.
+     */
+    @Scheduled(fixedDelayString = "${app.otp.dispatch.purge-interval-ms:300000}")
+    public int purgeFinished() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = outboxRepository.deleteFinished(expiredBefore, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.debug("Purged {} finished OTP outbox messages", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,87 @@
+package com.demoApp.otp.dispatch;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.entity.OtpOutboxMessage;
+import com.demoApp.otp.service.EmailService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends OTP emails over SMTP.
+ *
+ * A batch goes out in a single {@code send} call, which JavaMailSender delivers over one
+ * SMTP connection, so the connect and auth handshake is paid once per batch instead of
+ * once per email.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.dispatch.provider", havingValue = "live", matchIfMissing = true)
+public class SmtpOtpSender implements OtpChannelSender {
+
+    private final JavaMailSender mailSender;
+    private final EmailService emailService;
+    private final int maxConcurrency;
+    private final int batchSize;
+
+    public SmtpOtpSender(JavaMailSender mailSender,
+                         EmailService emailService,
+                         @Value("${app.otp.dispatch.email.concurrency:4}") int maxConcurrency,
+                         @Value("${app.otp.dispatch.email.batch-size:20}") int batchSize) {
+        this.mailSender = mailSender;
+        this.emailService = emailService;
+        this.maxConcurrency = maxConcurrency;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public OtpEntity.RecipientType getChannel() {
+        return OtpEntity.RecipientType.EMAIL;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public Map<Long, String> send(List<OtpOutboxMessage> batch) {
+        Map<SimpleMailMessage, Long> ids = new IdentityHashMap<>();
+        for (OtpOutboxMessage message : batch) {
+            ids.put(emailService.createOtpEmail(message.getRecipient(), message.getOtp()), message.getId());
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+        try {
+            mailSender.send(ids.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Only the listed messages failed; an empty list means the connection itself did
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, e.getMessage()));
+            }
+            failed.forEach((mail, cause) -> {
+                Long id = ids.get(mail);
+                if (id != null) {
+                    failures.put(id, cause.getMessage());
+                }
+            });
+        } catch (MailException e) {
+            ids.values().forEach(id -> failures.put(id, e.getMessage()));
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,68 @@
+package com.demoApp.otp.dispatch;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.entity.OtpOutboxMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in provider for local runs and load tests: logs the OTP instead of sending it,
+ * after a configurable delay and with a configurable share of failures.
+ */
+@Slf4j
+public class StubOtpSender implements OtpChannelSender {
+
+    private final OtpEntity.RecipientType channel;
+    private final int maxConcurrency;
+    private final int batchSize;
+    private final long latencyMillis;
+    private final double failureRate;
+
+    public StubOtpSender(OtpEntity.RecipientType channel, int maxConcurrency, int batchSize,
+                         long latencyMillis, double failureRate) {
+        this.channel = channel;
+        this.maxConcurrency = maxConcurrency;
+        this.batchSize = batchSize;
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public OtpEntity.RecipientType getChannel() {
+        return channel;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public Map<Long, String> send(List<OtpOutboxMessage> batch) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Map<Long, String> failures = new HashMap<>();
+        for (OtpOutboxMessage message : batch) {
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.put(message.getId(), "Injected stub failure");
+            } else {
+                log.info("[stub {}] OTP {} for {}", channel, message.getOtp(), message.getRecipient());
+            }
+        }
+        return failures;
+    }
+}
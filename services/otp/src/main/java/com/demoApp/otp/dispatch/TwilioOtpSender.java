@@ -0,0 +1,63 @@
+package com.demoApp.otp.dispatch;
+
+import com.demoApp.otp.config.TwilioConfig;
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.entity.OtpOutboxMessage;
+import com.demoApp.otp.service.OtpService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends OTP text messages through Twilio.
+ *
+ * Twilio takes one recipient per request, so a batch is sent message by message and the
+ * provider limit is enforced through the concurrency setting alone.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.dispatch.provider", havingValue = "live", matchIfMissing = true)
+public class TwilioOtpSender implements OtpChannelSender {
+
+    private final TwilioConfig twilioConfig;
+    private final int maxConcurrency;
+
+    public TwilioOtpSender(TwilioConfig twilioConfig,
+                           @Value("${app.otp.dispatch.sms.concurrency:8}") int maxConcurrency) {
+        this.twilioConfig = twilioConfig;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public OtpEntity.RecipientType getChannel() {
+        return OtpEntity.RecipientType.PHONE;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return 1;
+    }
+
+    @Override
+    public Map<Long, String> send(List<OtpOutboxMessage> batch) {
+        Map<Long, String> failures = new HashMap<>();
+        for (OtpOutboxMessage message : batch) {
+            String text = "Your verification code is " + message.getOtp()
+                    + ". Valid for " + OtpService.EXPIRE_MINUTES + " minutes.";
+            try {
+                twilioConfig.sendSms(message.getRecipient(), text);
+            } catch (RuntimeException e) {
+                failures.put(message.getId(), e.getMessage());
+            }
+        }
+        return failures;
+    }
+}
@@ -13,7 +13,9 @@ import java.time.temporal.ChronoUnit;
  * Entity for storing OTP (One-Time Password) information
  */
 @Entity
-@Table(name = "otps")
+@Table(name = "otps", indexes = {
+        @Index(name = "idx_otps_recipient_used_created", columnList = "recipient, used, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
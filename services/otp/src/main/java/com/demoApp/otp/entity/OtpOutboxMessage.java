@@ -0,0 +1,82 @@
+package com.demoApp.otp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An OTP waiting to be delivered, written in the same transaction as the OTP itself
+ * and drained by the dispatcher
+ */
+@Entity
+@Table(name = "otp_outbox", indexes = {
+        @Index(name = "idx_otp_outbox_due", columnList = "channel, status, next_attempt_at"),
+        @Index(name = "idx_otp_outbox_finished", columnList = "status, expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OtpOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "otp_id", nullable = false)
+    private Long otpId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OtpEntity.RecipientType channel;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String otp;
+
+    @Builder.Default
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // A claimed message whose lease has run out is picked up again
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    // No point delivering a code the user can no longer enter
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Delivery state of an outbox message
+     */
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        FAILED
+    }
+}
@@ -0,0 +1,27 @@
+package com.demoApp.otp.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(OtpRateLimitedException.class)
+    public ResponseEntity<Map<String, String>> handleOtpRateLimited(OtpRateLimitedException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "failed");
+        response.put("message", ex.getMessage());
+
+        // Whole seconds, rounded up so the client does not come back before the lockout ends
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfterMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
+}
@@ -0,0 +1,92 @@
+package com.demoApp.otp.limit;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.exception.OtpRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Send and verify quotas per recipient, recipient type and purpose, kept in memory.
+ *
+ * Replaces counting recent rows in {@code otps} on every request; the table is still
+ * there for audit. Quotas are per instance, so with N instances behind a round-robin
+ * balancer a recipient can get up to N times the configured quota.
+ */
+@Component
+public class OtpRateLimiter {
+
+    private final SlidingWindowLimiter sendLimiter;
+    private final SlidingWindowLimiter verifyLimiter;
+    private final Counter sendAllowed;
+    private final Counter sendRejected;
+    private final Counter verifyAllowed;
+    private final Counter verifyRejected;
+
+    public OtpRateLimiter(@Value("${app.otp.limit.send.max:5}") int sendMax,
+                          @Value("${app.otp.limit.send.window-seconds:900}") long sendWindowSeconds,
+                          @Value("${app.otp.limit.send.lockout-seconds:900}") long sendLockoutSeconds,
+                          @Value("${app.otp.limit.verify.max:10}") int verifyMax,
+                          @Value("${app.otp.limit.verify.window-seconds:900}") long verifyWindowSeconds,
+                          @Value("${app.otp.limit.verify.lockout-seconds:1800}") long verifyLockoutSeconds,
+                          @Value("${app.otp.limit.stripes:64}") int stripes,
+                          MeterRegistry meterRegistry) {
+        this.sendLimiter = new SlidingWindowLimiter(sendMax, sendWindowSeconds * 1000, sendLockoutSeconds * 1000, stripes);
+        this.verifyLimiter = new SlidingWindowLimiter(verifyMax, verifyWindowSeconds * 1000, verifyLockoutSeconds * 1000, stripes);
+        this.sendAllowed = meterRegistry.counter("otp.limit.requests", "action", "send", "outcome", "allowed");
+        this.sendRejected = meterRegistry.counter("otp.limit.requests", "action", "send", "outcome", "rejected");
+        this.verifyAllowed = meterRegistry.counter("otp.limit.requests", "action", "verify", "outcome", "allowed");
+        this.verifyRejected = meterRegistry.counter("otp.limit.requests", "action", "verify", "outcome", "rejected");
+        FunctionCounter.builder("otp.limit.lockouts", sendLimiter, SlidingWindowLimiter::getLockoutCount)
+                .tag("action", "send")
+                .register(meterRegistry);
+        FunctionCounter.builder("otp.limit.lockouts", verifyLimiter, SlidingWindowLimiter::getLockoutCount)
+                .tag("action", "verify")
+                .register(meterRegistry);
+        meterRegistry.gauge("otp.limit.tracked-keys", List.of(Tag.of("action", "send")),
+                sendLimiter, SlidingWindowLimiter::size);
+        meterRegistry.gauge("otp.limit.tracked-keys", List.of(Tag.of("action", "verify")),
+                verifyLimiter, SlidingWindowLimiter::size);
+    }
+
+    /**
+     * Count an OTP about to be issued, or throw if the recipient has had too many.
+     */
+    public void checkSend(String recipient, OtpEntity.RecipientType recipientType, OtpEntity.OtpPurpose purpose) {
+        long retryAfterMillis = sendLimiter.tryAcquire(key(recipient, recipientType, purpose), System.currentTimeMillis());
+        if (retryAfterMillis > 0) {
+            sendRejected.increment();
+            throw new OtpRateLimitedException("Too many OTP requests, try again later", retryAfterMillis);
+        }
+        sendAllowed.increment();
+    }
+
+    /**
+     * Count a verification attempt, or throw if the recipient has made too many.
+     */
+    public void checkVerify(String recipient, OtpEntity.RecipientType recipientType, OtpEntity.OtpPurpose purpose) {
+        long retryAfterMillis = verifyLimiter.tryAcquire(key(recipient, recipientType, purpose), System.currentTimeMillis());
+        if (retryAfterMillis > 0) {
+            verifyRejected.increment();
+            throw new OtpRateLimitedException("Too many verification attempts, try again later", retryAfterMillis);
+        }
+        verifyAllowed.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        sendLimiter.evictIdle(now);
+        verifyLimiter.evictIdle(now);
+    }
+
+    private static String key(String recipient, OtpEntity.RecipientType recipientType, OtpEntity.OtpPurpose purpose) {
+        return recipientType + "|" + purpose + "|" + recipient;
+    }
+}
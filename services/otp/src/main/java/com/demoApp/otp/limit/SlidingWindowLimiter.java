@@ -0,0 +1,109 @@
+package com.demoApp.otp.limit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key sliding-window counter with a lockout once the limit is hit.
+ *
+ * Each key keeps only the counts of the current and previous fixed windows; the sliding
+ * count is the current count plus the previous one weighted by how much of it still
+ * overlaps the window, so a check is O(1) whatever the traffic. Keys are guarded by a
+ * fixed set of striped locks rather than one lock each.
+ */
+public class SlidingWindowLimiter {
+
+    private final int limit;
+    private final long windowMillis;
+    private final long lockoutMillis;
+    private final Object[] stripes;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong lockouts = new AtomicLong();
+
+    public SlidingWindowLimiter(int limit, long windowMillis, long lockoutMillis, int stripeCount) {
+        if (limit <= 0 || windowMillis <= 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("limit, window and stripe count must be positive");
+        }
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.lockoutMillis = lockoutMillis;
+        this.stripes = new Object[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Counts one event for the key.
+     *
+     * @return 0 when it is allowed, otherwise the number of milliseconds until the key may
+     *         try again
+     */
+    public long tryAcquire(String key, long nowMillis) {
+        Object stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        synchronized (stripe) {
+            Window window = windows.computeIfAbsent(key, k -> new Window());
+            if (window.lockedUntilMillis > nowMillis) {
+                return window.lockedUntilMillis - nowMillis;
+            }
+            long index = nowMillis / windowMillis;
+            if (index != window.index) {
+                window.previous = index == window.index + 1 ? window.current : 0;
+                window.current = 0;
+                window.index = index;
+            }
+            window.lastSeenMillis = nowMillis;
+
+            double overlap = 1.0 - (double) (nowMillis - index * windowMillis) / windowMillis;
+            if (window.current + window.previous * overlap >= limit) {
+                if (lockoutMillis > 0) {
+                    window.lockedUntilMillis = nowMillis + lockoutMillis;
+                    lockouts.incrementAndGet();
+                    return lockoutMillis;
+                }
+                return (index + 1) * windowMillis - nowMillis;
+            }
+            window.current++;
+            return 0;
+        }
+    }
+
+    /**
+     * Number of lockouts started since creation
+     */
+    public long getLockoutCount() {
+        return lockouts.get();
+    }
+
+    /**
+     * Forgets keys that have been idle for two windows and are not locked out, so the
+     * table only holds recently active keys.
+     */
+    public void evictIdle(long nowMillis) {
+        for (Iterator<Map.Entry<String, Window>> it = windows.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Window> entry = it.next();
+            Object stripe = stripes[Math.floorMod(entry.getKey().hashCode(), stripes.length)];
+            synchronized (stripe) {
+                Window window = entry.getValue();
+                if (nowMillis - window.lastSeenMillis > 2 * windowMillis && window.lockedUntilMillis <= nowMillis) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    // Only read or written under the key's stripe lock
+    private static final class Window {
+        private long index;
+        private int current;
+        private int previous;
+        private long lockedUntilMillis;
+        private long lastSeenMillis;
+    }
+}
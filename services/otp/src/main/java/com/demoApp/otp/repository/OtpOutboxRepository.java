@@ -0,0 +1,43 @@
+package com.demoApp.otp.repository;
+
+import com.demoApp.otp.entity.OtpOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for OTP outbox messages
+ */
+@Repository
+public interface OtpOutboxRepository extends JpaRepository<OtpOutboxMessage, Long> {
+
+    /**
+     * Lock the next messages due on a channel, skipping rows another instance has locked
+     */
+    @Query(value = "SELECT * FROM otp_outbox WHERE channel = ?1 AND "
+            + "((status = 'PENDING' AND next_attempt_at <= ?2) OR (status = 'SENDING' AND locked_until < ?2)) "
+            + "ORDER BY id LIMIT ?3 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OtpOutboxMessage> lockDue(String channel, LocalDateTime now, int limit);
+
+    /**
+     * Mark messages as delivered
+     */
+    @Modifying
+    @Query("UPDATE OtpOutboxMessage m SET m.status = 'SENT', m.sentAt = ?2, m.lockedUntil = null WHERE m.id IN ?1")
+    int markSent(Collection<Long> ids, LocalDateTime sentAt);
+
+    /**
+     * Delete up to {@code limit} sent or abandoned messages whose OTP expired before the cutoff
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM otp_outbox WHERE id IN (SELECT id FROM otp_outbox "
+            + "WHERE status IN ('SENT', 'FAILED') AND expires_at < ?1 ORDER BY id LIMIT ?2)", nativeQuery = true)
+    int deleteFinished(LocalDateTime expiredBefore, int limit);
+}
@@ -49,6 +49,12 @@ public interface OtpRepository extends JpaRepository<OtpEntity, Long> {
      * Find the most recent unused OTP for a recipient
      */
     Optional<OtpEntity> findTopByRecipientAndUsedFalseOrderByCreatedAtDesc(String recipient);
+
+    /**
+     * Find the most recent unused OTP for a recipient created after a given time;
+     * the bound lets the query skip older partitions
+     */
+    Optional<OtpEntity> findTopByRecipientAndUsedFalseAndCreatedAtAfterOrderByCreatedAtDesc(String recipient, LocalDateTime since);
     
     /**
      * Find OTP by userId and purpose
@@ -61,7 +67,8 @@ public interface OtpRepository extends JpaRepository<OtpEntity, Long> {
     Optional<OtpEntity> findByToken(String token);
 
     /**
-     * Count OTPs generated for a recipient within a time period
+     * Count OTPs generated for a recipient within a time period.
+     * For audit and reporting; request-time quotas are enforced by OtpRateLimiter.
      */
     @Query("SELECT COUNT(o) FROM OtpEntity o WHERE o.recipient = ?1 AND o.recipientType = ?2 AND o.createdAt > ?3 AND o.purpose = ?4")
     int countRecentOtps(String recipient, OtpEntity.RecipientType recipientType, LocalDateTime since, OtpEntity.OtpPurpose purpose);
@@ -77,15 +84,32 @@ public interface OtpRepository extends JpaRepository<OtpEntity, Long> {
     List<OtpEntity> findByPurpose(OtpEntity.OtpPurpose purpose);
     
     /**
-     * Delete expired OTPs older than a certain date
+     * Record attempts made against a cached OTP, never lowering the stored count
      */
     @Modifying
     @Transactional
-    @Query("DELETE FROM OtpEntity o WHERE o.expiresAt < ?1")
-    void deleteExpiredOtps(LocalDateTime cutoffDate);
-    
+    @Query("UPDATE OtpEntity o SET o.attempts = ?2, o.expiresAt = ?3 WHERE o.id = ?1 AND o.attempts < ?2")
+    int recordAttempts(Long id, int attempts, LocalDateTime expiresAt);
+
+    /**
+     * Mark an OTP as used unless another request already has; returns the rows updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OtpEntity o SET o.used = true, o.verified = true, o.verifiedAt = ?3, o.attempts = ?2 WHERE o.id = ?1 AND o.used = false")
+    int markUsed(Long id, int attempts, LocalDateTime verifiedAt);
+
+    /**
+     * Mark unused OTPs for a recipient created after a given time as used
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OtpEntity o SET o.used = true WHERE o.recipient = ?1 AND o.used = false AND o.createdAt > ?2")
+    int invalidateUnused(String recipient, LocalDateTime since);
+
     /**
-     * Count failed attempts for a recipient
+     * Count failed attempts for a recipient.
+     * For audit and reporting; request-time quotas are enforced by OtpRateLimiter.
      */
     @Query("SELECT SUM(o.attempts) FROM OtpEntity o WHERE o.recipient = ?1 AND o.createdAt > ?2")
     Integer countFailedAttempts(String recipient, LocalDateTime since);
@@ -35,13 +35,22 @@ public class EmailService {
      * @param otp OTP code
      */
     public void sendOtpEmail(String to, String otp) {
+        mailSender.send(createOtpEmail(to, otp));
+    }
+    
+    /**
+     * Build the plain OTP email without sending it
+     * @param to recipient email
+     * @param otp OTP code
+     * @return message ready to send
+     */
+    public SimpleMailMessage createOtpEmail(String to, String otp) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(fromEmail);
         message.setTo(to);
         message.setSubject(appName + " - Your Verification Code");
         message.setText("Your verification code is: " + otp + "\n\nThis code will expire in 5 minutes.");
-        
-        mailSender.send(message);
+        return message;
     }
     
     /**
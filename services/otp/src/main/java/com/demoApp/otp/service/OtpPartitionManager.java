@@ -0,0 +1,217 @@
+package com.demoApp.otp.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps {@code otps} range-partitioned by day on {@code created_at}.
+ *
+ * Partitions are created {@code ahead-days} in advance and dropped whole once they are
+ * older than {@code retention-days}, so expired OTPs never need a row-by-row delete.
+ * An existing unpartitioned table is kept as a single partition covering everything up
+ * to tomorrow and dropped by the same retention rule. Runs before Hibernate updates
+ * the schema, and under an advisory lock so instances starting together do not race.
+ */
+@Component
+@Slf4j
+public class OtpPartitionManager {
+
+    private static final String TABLE = "otps";
+    private static final String LEGACY_PARTITION = "otps_legacy";
+    private static final String INDEX = "idx_otps_recipient_used_created";
+    private static final long LOCK_KEY = 0x6f7470735fL;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    // pg_get_expr output, e.g. FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-01-02 00:00:00')
+    private static final Pattern BOUND = Pattern.compile("FROM \\((?:MINVALUE|'([0-9-]{10})[^']*')\\) TO \\('([0-9-]{10})[^']*'\\)");
+
+    private final DataSource dataSource;
+    private final int aheadDays;
+    private final int retentionDays;
+
+    public OtpPartitionManager(DataSource dataSource,
+                               @Value("${app.otp.partitions.ahead-days:7}") int aheadDays,
+                               @Value("${app.otp.partitions.retention-days:30}") int retentionDays) {
+        this.dataSource = dataSource;
+        this.aheadDays = aheadDays;
+        this.retentionDays = retentionDays;
+    }
+
+    @PostConstruct
+    public void init() {
+        runLocked(jdbc -> {
+            ensurePartitionedTable(jdbc);
+            ensurePartitions(jdbc, LocalDate.now());
+        });
+    }
+
+    /**
+     * Creates the coming days' partitions and drops the ones past retention.
+     */
+    @Scheduled(cron = "${app.otp.partitions.maintenance-cron:0 5 0 * * *}")
+    public void maintain() {
+        runLocked(jdbc -> {
+            LocalDate today = LocalDate.now();
+            ensurePartitions(jdbc, today);
+            dropExpired(jdbc, today.minusDays(retentionDays));
+        });
+    }
+
+    private void ensurePartitionedTable(JdbcTemplate jdbc) {
+        String kind = jdbc.query("SELECT c.relkind FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+                + "WHERE c.relname = ? AND n.nspname = current_schema()", rs -> rs.next() ? rs.getString(1) : null, TABLE);
+        if ("p".equals(kind)) {
+            return;
+        }
+        if (kind == null) {
+            jdbc.execute("CREATE TABLE " + TABLE + " ("
+                    + "id BIGSERIAL NOT NULL, "
+                    + "recipient VARCHAR(255) NOT NULL, "
+                    + "recipient_type VARCHAR(255) NOT NULL, "
+                    + "otp VARCHAR(255) NOT NULL, "
+                    + "created_at TIMESTAMP(6) NOT NULL, "
+                    + "expires_at TIMESTAMP(6) NOT NULL, "
+                    + "verified_at TIMESTAMP(6), "
+                    + "used BOOLEAN NOT NULL, "
+                    + "purpose VARCHAR(255) NOT NULL, "
+                    + "retry_count INTEGER NOT NULL, "
+                    + "user_id BIGINT, "
+                    + "token VARCHAR(255), "
+                    + "max_retries INTEGER NOT NULL, "
+                    + "verified BOOLEAN NOT NULL, "
+                    + "attempts INTEGER NOT NULL, "
+                    + "PRIMARY KEY (id, created_at)"
+                    + ") PARTITION BY RANGE (created_at)");
+            log.info("Created partitioned table {}", TABLE);
+        } else {
+            convertLegacyTable(jdbc);
+        }
+        jdbc.execute("CREATE INDEX IF NOT EXISTS " + INDEX + " ON " + TABLE + " (recipient, used, created_at)");
+    }
+
+    // The partitioned table copies the old one's columns exactly, so it can be attached as is
+    private void convertLegacyTable(JdbcTemplate jdbc) {
+        jdbc.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_PARTITION);
+        String primaryKey = jdbc.query("SELECT conname FROM pg_constraint WHERE conrelid = '" + LEGACY_PARTITION
+                + "'::regclass AND contype = 'p'", rs -> rs.next() ? rs.getString(1) : null);
+        if ((TABLE + "_pkey").equals(primaryKey)) {
+            // Frees the name for the new table's key
+            jdbc.execute("ALTER TABLE " + LEGACY_PARTITION + " RENAME CONSTRAINT " + primaryKey + " TO " + LEGACY_PARTITION + "_pkey");
+        }
+        // Otherwise CREATE INDEX IF NOT EXISTS on the new table would find this one and skip
+        jdbc.execute("ALTER INDEX IF EXISTS " + INDEX + " RENAME TO " + LEGACY_PARTITION + "_recipient_used_created_idx");
+        jdbc.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbc.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN id DROP DEFAULT");
+        jdbc.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_PARTITION + " INCLUDING DEFAULTS) PARTITION BY RANGE (created_at)");
+        jdbc.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, created_at)");
+        jdbc.execute("CREATE SEQUENCE " + TABLE + "_partitioned_id_seq OWNED BY " + TABLE + ".id");
+        jdbc.execute("SELECT setval('" + TABLE + "_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM "
+                + LEGACY_PARTITION + "), 0) + 1, false)");
+        jdbc.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + TABLE + "_partitioned_id_seq')");
+        jdbc.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + LEGACY_PARTITION
+                + " FOR VALUES FROM (MINVALUE) TO ('" + LocalDate.now().plusDays(1) + "')");
+        log.info("Converted {} to a partitioned table; existing rows kept in {}", TABLE, LEGACY_PARTITION);
+    }
+
+    private void ensurePartitions(JdbcTemplate jdbc, LocalDate today) {
+        List<Partition> partitions = partitions(jdbc);
+        for (int i = 0; i <= aheadDays; i++) {
+            LocalDate day = today.plusDays(i);
+            if (partitions.stream().anyMatch(p -> p.covers(day))) {
+                continue;
+            }
+            String name = TABLE + "_p" + day.format(SUFFIX);
+            jdbc.execute("CREATE TABLE " + name + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+            log.info("Created partition {}", name);
+        }
+    }
+
+    private void dropExpired(JdbcTemplate jdbc, LocalDate cutoff) {
+        for (Partition partition : partitions(jdbc)) {
+            if (partition.isBefore(cutoff)) {
+                jdbc.execute("DROP TABLE " + partition.name);
+                log.info("Dropped partition {} (rows before {})", partition.name, partition.to);
+            }
+        }
+    }
+
+    private List<Partition> partitions(JdbcTemplate jdbc) {
+        return jdbc.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + TABLE + "'::regclass",
+                (rs, row) -> Partition.parse(rs.getString(1), rs.getString(2)))
+                .stream()
+                .filter(p -> p != null)
+                .toList();
+    }
+
+    private void runLocked(Consumer<JdbcTemplate> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                log.warn("OTP partitioning needs PostgreSQL; leaving {} as is", TABLE);
+                return;
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                jdbc.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+                work.accept(jdbc);
+                connection.commit();
+            } catch (RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("OTP partition maintenance failed", e);
+        }
+    }
+
+    static final class Partition {
+        private final String name;
+        // Null for MINVALUE
+        private final LocalDate from;
+        private final LocalDate to;
+
+        private Partition(String name, LocalDate from, LocalDate to) {
+            this.name = name;
+            this.from = from;
+            this.to = to;
+        }
+
+        // Null for bounds this class does not create, such as DEFAULT or MAXVALUE
+        static Partition parse(String name, String bound) {
+            Matcher matcher = BOUND.matcher(bound);
+            if (!matcher.find()) {
+                return null;
+            }
+            LocalDate from = matcher.group(1) != null ? LocalDate.parse(matcher.group(1)) : null;
+            return new Partition(name, from, LocalDate.parse(matcher.group(2)));
+        }
+
+        boolean covers(LocalDate day) {
+            return (from == null || !from.isAfter(day)) && to.isAfter(day);
+        }
+
+        // True when every row it can hold was created before the cutoff
+        boolean isBefore(LocalDate cutoff) {
+            return !to.isAfter(cutoff);
+        }
+    }
+}
@@ -1,38 +1,50 @@
 package com.demoApp.otp.service;
 
-import com.demoApp.otp.config.TwilioConfig;
+import com.demoApp.otp.dispatch.OtpOutbox;
 import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.limit.OtpRateLimiter;
 import com.demoApp.otp.repository.OtpRepository;
+import com.demoApp.otp.store.CachedOtp;
+import com.demoApp.otp.store.OtpStore;
+import com.demoApp.otp.store.OtpWriteBehind;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
 
 @Service
 public class OtpService {
-    private static final int EXPIRE_MINUTES = 5;
+    public static final int EXPIRE_MINUTES = 5;
     private static final int OTP_LENGTH = 6;
     
-    @Autowired
-    private TwilioConfig twilioConfig;
-    
     @Autowired
     private OtpRepository otpRepository;
     
     @Autowired
-    private EmailService emailService;
+    private OtpOutbox otpOutbox;
+
+    @Autowired
+    private OtpRateLimiter otpRateLimiter;
+
+    @Autowired
+    private OtpStore otpStore;
 
-    // Simple in-memory cache for OTPs
-    private final Map<String, String> otpCache = new ConcurrentHashMap<>();
+    @Autowired
+    private OtpWriteBehind otpWriteBehind;
 
     /**
      * Generate and save a new OTP for email verification.
+     * The email is queued and sent by the dispatcher once this returns.
      */
+    @Transactional
     public OtpEntity generateEmailOtp(String email, Long userId) {
+        otpRateLimiter.checkSend(email, OtpEntity.RecipientType.EMAIL, OtpEntity.OtpPurpose.EMAIL_VERIFICATION);
         String otp = generateRandomOtp();
         
         OtpEntity otpEntity = OtpEntity.builder()
@@ -45,18 +57,19 @@ public class OtpService {
                 .build();
         
         otpRepository.save(otpEntity);
-        otpCache.put(email, otp); // cache OTP
-        
-        // Send email with OTP
-        emailService.sendOtpEmail(email, otp);
+        otpOutbox.enqueue(otpEntity);
+        cache(otpEntity);
         
         return otpEntity;
     }
     
     /**
      * Generate and save a new OTP for phone verification.
+     * The SMS is queued and sent by the dispatcher once this returns.
      */
+    @Transactional
     public OtpEntity generatePhoneOtp(String phoneNumber, Long userId) {
+        otpRateLimiter.checkSend(phoneNumber, OtpEntity.RecipientType.PHONE, OtpEntity.OtpPurpose.PHONE_VERIFICATION);
         String otp = generateRandomOtp();
         
         OtpEntity otpEntity = OtpEntity.builder()
@@ -69,10 +82,8 @@ public class OtpService {
                 .build();
         
         otpRepository.save(otpEntity);
-        otpCache.put(phoneNumber, otp); // cache OTP
-        
-        // Send SMS with OTP
-        sendSmsOtp(phoneNumber, otp);
+        otpOutbox.enqueue(otpEntity);
+        cache(otpEntity);
         
         return otpEntity;
     }
@@ -80,8 +91,10 @@ public class OtpService {
     /**
      * Generate OTP for any purpose.
      */
+    @Transactional
     public OtpEntity generateOtp(String recipient, OtpEntity.RecipientType recipientType, 
                                    OtpEntity.OtpPurpose purpose, Long userId) {
+        otpRateLimiter.checkSend(recipient, recipientType, purpose);
         String otp = generateRandomOtp();
         
         OtpEntity otpEntity = OtpEntity.builder()
@@ -94,14 +107,8 @@ public class OtpService {
                 .build();
         
         otpRepository.save(otpEntity);
-        otpCache.put(recipient, otp); // cache OTP
-        
-        // Send OTP based on recipient type
-        if (recipientType == OtpEntity.RecipientType.EMAIL) {
-            emailService.sendOtpEmail(recipient, otp);
-        } else if (recipientType == OtpEntity.RecipientType.PHONE) {
-            sendSmsOtp(recipient, otp);
-        }
+        otpOutbox.enqueue(otpEntity);
+        cache(otpEntity);
         
         return otpEntity;
     }
@@ -111,6 +118,7 @@ public class OtpService {
      * Defaults: if recipient contains '@', then EMAIL verification; otherwise PHONE.
      * User ID is set to null.
      */
+    @Transactional
     public OtpEntity generateOtp(String recipient) {
         OtpEntity.RecipientType type = recipient.contains("@") 
                 ? OtpEntity.RecipientType.EMAIL 
@@ -125,37 +133,95 @@ public class OtpService {
      * Retrieve OTP from the cache for a recipient.
      */
     public String getCacheOtp(String recipient) {
-        return otpCache.get(recipient);
+        CachedOtp cached = otpStore.get(recipient);
+        return cached != null && cached.isLive(System.currentTimeMillis()) ? cached.getOtp() : null;
     }
     
     /**
      * Clear the cached OTP for a recipient.
      */
     public void clearOtp(String recipient) {
-        otpCache.remove(recipient);
+        otpStore.remove(recipient);
     }
     
     /**
      * Verify an OTP.
+     * Checked against the in-memory store when the OTP was issued by this instance, with
+     * failed attempts written to the database behind the request; otherwise against the database.
+     * A cached mismatch is only final while the cached OTP is still the latest unused row, since
+     * another instance may have issued a newer one on resend.
      */
     public boolean verifyOtp(String recipient, String otp) {
-        Optional<OtpEntity> otpEntityOpt = otpRepository.findTopByRecipientAndUsedFalseOrderByCreatedAtDesc(recipient);
+        CachedOtp cached = otpStore.get(recipient);
+        if (cached == null) {
+            return verifyFromDatabase(recipient, otp);
+        }
+
+        otpRateLimiter.checkVerify(recipient, cached.getRecipientType(), cached.getPurpose());
+        CachedOtp.Result result = cached.verify(otp, System.currentTimeMillis());
+        if (result == CachedOtp.Result.VERIFIED) {
+            // The row is the source of truth for use, so another instance cannot accept it twice
+            return otpRepository.markUsed(cached.getId(), cached.getAttempts(), LocalDateTime.now()) == 1;
+        }
+
+        Optional<OtpEntity> latest = findLatestUnused(recipient);
+        if (latest.isPresent() && latest.get().getId().equals(cached.getId())) {
+            otpWriteBehind.schedule(cached);
+            return false;
+        }
+        // Superseded or used elsewhere; the attempt was already counted against the verify limit
+        otpStore.remove(recipient, cached);
+        return latest.isPresent() && verifyRow(latest.get(), otp);
+    }
+
+    private boolean verifyFromDatabase(String recipient, String otp) {
+        Optional<OtpEntity> otpEntityOpt = findLatestUnused(recipient);
         
         if (otpEntityOpt.isEmpty()) {
             return false;
         }
         
         OtpEntity otpEntity = otpEntityOpt.get();
+        otpRateLimiter.checkVerify(recipient, otpEntity.getRecipientType(), otpEntity.getPurpose());
+        return verifyRow(otpEntity, otp);
+    }
+
+    private Optional<OtpEntity> findLatestUnused(String recipient) {
+        // Anything older has expired, and the bound keeps the lookup to the latest partitions
+        return otpRepository.findTopByRecipientAndUsedFalseAndCreatedAtAfterOrderByCreatedAtDesc(
+                recipient, LocalDateTime.now().minusMinutes(EXPIRE_MINUTES));
+    }
+
+    private boolean verifyRow(OtpEntity otpEntity, String otp) {
         boolean verified = otpEntity.verifyOtp(otp);
-        
-        if (verified) {
-            otpRepository.save(otpEntity);
-            clearOtp(recipient); // clear cached OTP if verified
-        }
-        
+        otpRepository.save(otpEntity);
         return verified;
     }
     
+    /**
+     * Keep a newly issued OTP in the store so it can be verified without a database read.
+     * Cached once the issuing transaction commits, so a rolled-back OTP is never accepted.
+     */
+    private void cache(OtpEntity otpEntity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putInStore(otpEntity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putInStore(otpEntity);
+            }
+        });
+    }
+
+    private void putInStore(OtpEntity otpEntity) {
+        otpStore.put(otpEntity.getId(), otpEntity.getRecipient(), otpEntity.getRecipientType(),
+                otpEntity.getPurpose(), otpEntity.getOtp(),
+                otpEntity.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                otpEntity.getMaxRetries());
+    }
+    
     /**
      * Generate a random OTP string.
      */
@@ -170,27 +236,11 @@ public class OtpService {
         return otp.toString();
     }
     
-    /**
-     * Send SMS with OTP using Twilio.
-     */
-    private void sendSmsOtp(String phoneNumber, String otp) {
-        String otpMessage = "Your verification code is " + otp + ". Valid for " + EXPIRE_MINUTES + " minutes.";
-        
-        try {
-            twilioConfig.sendSms(phoneNumber, otpMessage);
-        } catch (Exception e) {
-            System.err.println("Error sending SMS: " + e.getMessage());
-        }
-    }
-    
     /**
      * Invalidate all previous OTPs for a recipient.
      */
     public void invalidatePreviousOtps(String recipient) {
-        otpRepository.findByRecipientAndUsedFalse(recipient)
-                .forEach(otpEntity -> {
-                    otpEntity.setUsed(true);
-                    otpRepository.save(otpEntity);
-                });
+        otpRepository.invalidateUnused(recipient, LocalDateTime.now().minusMinutes(EXPIRE_MINUTES));
+        otpStore.remove(recipient);
     }
 }
@@ -0,0 +1,98 @@
+package com.demoApp.otp.store;
+
+import com.demoApp.otp.entity.OtpEntity;
+
+/**
+ * In-memory copy of an issued OTP, the state verification needs.
+ * Mutated only under its own lock; the database row is brought up to date afterwards.
+ */
+public class CachedOtp {
+
+    /**
+     * Outcome of checking a code against this OTP
+     */
+    public enum Result {
+        VERIFIED,
+        MISMATCH,
+        EXHAUSTED,
+        EXPIRED
+    }
+
+    private final Long id;
+    private final String recipient;
+    private final OtpEntity.RecipientType recipientType;
+    private final OtpEntity.OtpPurpose purpose;
+    private final String otp;
+    private final int maxAttempts;
+    private long expiresAtMillis;
+    private int attempts;
+    private boolean used;
+
+    // Wheel tick this entry expires on, fixed at insertion
+    final long deadlineTick;
+
+    CachedOtp(Long id, String recipient, OtpEntity.RecipientType recipientType, OtpEntity.OtpPurpose purpose,
+              String otp, long expiresAtMillis, int maxAttempts, long deadlineTick) {
+        this.id = id;
+        this.recipient = recipient;
+        this.recipientType = recipientType;
+        this.purpose = purpose;
+        this.otp = otp;
+        this.expiresAtMillis = expiresAtMillis;
+        this.maxAttempts = maxAttempts;
+        this.deadlineTick = deadlineTick;
+    }
+
+    /**
+     * Counts the attempt and checks the code, mirroring {@code OtpEntity.verifyOtp}:
+     * the OTP is used up on a match and expired once the attempts run out.
+     */
+    public synchronized Result verify(String candidate, long nowMillis) {
+        attempts++;
+        if (used || nowMillis > expiresAtMillis) {
+            return Result.EXPIRED;
+        }
+        if (otp.equals(candidate)) {
+            used = true;
+            return Result.VERIFIED;
+        }
+        if (attempts >= maxAttempts) {
+            // Already past, so a guess in the same millisecond cannot still match
+            expiresAtMillis = nowMillis - 1;
+            return Result.EXHAUSTED;
+        }
+        return Result.MISMATCH;
+    }
+
+    public synchronized boolean isLive(long nowMillis) {
+        return !used && nowMillis <= expiresAtMillis;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public OtpEntity.RecipientType getRecipientType() {
+        return recipientType;
+    }
+
+    public OtpEntity.OtpPurpose getPurpose() {
+        return purpose;
+    }
+
+    public String getOtp() {
+        return otp;
+    }
+
+    public synchronized int getAttempts() {
+        return attempts;
+    }
+
+    public synchronized long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
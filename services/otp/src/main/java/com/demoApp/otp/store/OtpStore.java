@@ -0,0 +1,121 @@
+package com.demoApp.otp.store;
+
+import com.demoApp.otp.entity.OtpEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Live OTPs by recipient, expired with a hashed timing wheel.
+ *
+ * Each entry is dropped into the wheel slot for the tick it expires on, and every tick
+ * only the entries in the current slot are looked at, so expiry costs O(1) per entry and
+ * never scans the map. Entries whose deadline is more than one revolution away stay in
+ * their slot until the tick comes round again.
+ *
+ * The store is capped at {@code max-entries}. Past that, new OTPs are not cached and
+ * verification falls back to the database.
+ */
+@Component
+@Slf4j
+public class OtpStore {
+
+    private final Map<String, CachedOtp> entries = new ConcurrentHashMap<>();
+    private final Queue<CachedOtp>[] wheel;
+    private final long tickMillis;
+    private final int maxEntries;
+    private final Counter rejected;
+
+    // Last tick whose slot has been expired; only the scheduler thread advances it
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public OtpStore(@Value("${app.otp.store.max-entries:100000}") int maxEntries,
+                    @Value("${app.otp.store.tick-millis:1000}") long tickMillis,
+                    @Value("${app.otp.store.wheel-size:512}") int wheelSize,
+                    MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.tickMillis = tickMillis;
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = System.currentTimeMillis() / tickMillis;
+        this.rejected = Counter.builder("otp.store.rejected")
+                .description("OTPs not cached because the store was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("otp.store.size", entries, Map::size);
+    }
+
+    /**
+     * Caches an issued OTP, replacing any earlier one for the recipient.
+     * Returns false if the store is full; the earlier entry is dropped either way, so a
+     * lookup falls back to the database instead of finding a stale code.
+     */
+    public boolean put(Long id, String recipient, OtpEntity.RecipientType recipientType, OtpEntity.OtpPurpose purpose,
+                       String otp, long expiresAtMillis, int maxAttempts) {
+        if (entries.size() >= maxEntries && !entries.containsKey(recipient)) {
+            rejected.increment();
+            return false;
+        }
+        long deadlineTick = Math.max(Math.floorDiv(expiresAtMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        CachedOtp entry = new CachedOtp(id, recipient, recipientType, purpose, otp, expiresAtMillis, maxAttempts, deadlineTick);
+        entries.put(recipient, entry);
+        wheel[slot(deadlineTick)].add(entry);
+        return true;
+    }
+
+    /**
+     * The latest OTP issued to the recipient, including used or exhausted ones until they
+     * expire, so they keep failing without a trip to the database. Null when not cached.
+     */
+    public CachedOtp get(String recipient) {
+        return entries.get(recipient);
+    }
+
+    public void remove(String recipient) {
+        entries.remove(recipient);
+    }
+
+    /**
+     * Removes the entry only if it is still the one cached for the recipient, so a newer OTP
+     * cached in the meantime is kept.
+     */
+    public void remove(String recipient, CachedOtp entry) {
+        entries.remove(recipient, entry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.store.tick-millis:1000}")
+    public void tick() {
+        long nowTick = System.currentTimeMillis() / tickMillis;
+        while (currentTick < nowTick) {
+            long tick = currentTick + 1;
+            expire(wheel[slot(tick)], tick);
+            currentTick = tick;
+        }
+    }
+
+    private void expire(Queue<CachedOtp> bucket, long tick) {
+        for (Iterator<CachedOtp> it = bucket.iterator(); it.hasNext(); ) {
+            CachedOtp entry = it.next();
+            if (entry.deadlineTick <= tick) {
+                it.remove();
+                // Only if it has not been replaced by a newer OTP in the meantime
+                entries.remove(entry.getRecipient(), entry);
+            }
+        }
+    }
+
+    private int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+}
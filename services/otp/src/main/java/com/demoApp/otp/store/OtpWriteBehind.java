@@ -0,0 +1,55 @@
+package com.demoApp.otp.store;
+
+import com.demoApp.otp.repository.OtpRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies failed verification attempts from the store to the {@code otps} table for audit.
+ *
+ * Updates are coalesced by OTP id, so a burst of wrong guesses costs one write, and the
+ * update never lowers the attempt count already in the row.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OtpWriteBehind {
+
+    private final OtpRepository otpRepository;
+    private final Map<Long, CachedOtp> pending = new ConcurrentHashMap<>();
+
+    public void schedule(CachedOtp otp) {
+        pending.put(otp.getId(), otp);
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.store.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flush() {
+        for (Iterator<CachedOtp> it = pending.values().iterator(); it.hasNext(); ) {
+            CachedOtp otp = it.next();
+            it.remove();
+            try {
+                otpRepository.recordAttempts(otp.getId(), otp.getAttempts(), toLocalDateTime(otp.getExpiresAtMillis()));
+            } catch (RuntimeException e) {
+                // Try again next round rather than hammering a database that is down
+                pending.putIfAbsent(otp.getId(), otp);
+                log.warn("Failed to record OTP attempts, {} pending: {}", pending.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
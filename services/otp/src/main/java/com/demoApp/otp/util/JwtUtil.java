@@ -1,6 +1,8 @@
 package com.demoApp.otp.util;
 
+import com.demoApp.common.security.JwksKeyResolver;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -18,6 +20,13 @@ public class JwtUtil {
     // Use a sufficiently long secret key (e.g., at least 256 bits for HS256)
     private String SECRET_KEY = "your-256-bit-secret-your-256-bit-secret"; 
 
+    // Key selection by kid: see JwksKeyResolver; tokens issued here are still HMAC-signed
+    private final JwtParser parser;
+
+    public JwtUtil(JwksKeyResolver jwksKeyResolver) {
+        this.parser = jwksKeyResolver.parser(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -32,9 +41,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                   .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
-                   .build()
+        return parser
                    .parseClaimsJws(token)
                    .getBody();
     }
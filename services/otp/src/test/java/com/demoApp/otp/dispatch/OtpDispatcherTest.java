@@ -0,0 +1,124 @@
+package com.demoApp.otp.dispatch;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.entity.OtpOutboxMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OtpDispatcherTest {
+
+	private final OtpOutbox outbox = mock(OtpOutbox.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void claimsOnlyWhatTheFreeWorkersCanTake() throws InterruptedException {
+		RecordingSender sender = new RecordingSender(Map.of());
+		OtpDispatcher dispatcher = new OtpDispatcher(outbox, List.of(sender), meterRegistry);
+		when(outbox.claim(any(), anyInt())).thenReturn(List.of());
+
+		dispatcher.poll();
+		dispatcher.shutdown();
+
+		// Two workers, two messages per batch
+		verify(outbox).claim(OtpEntity.RecipientType.EMAIL, 4);
+	}
+
+	@Test
+	void marksDeliveredMessagesSentAndFailsTheRest() throws InterruptedException {
+		OtpOutboxMessage delivered = message(1L, LocalDateTime.now().plusMinutes(5));
+		OtpOutboxMessage rejected = message(2L, LocalDateTime.now().plusMinutes(5));
+		OtpOutboxMessage expired = message(3L, LocalDateTime.now().minusSeconds(1));
+		RecordingSender sender = new RecordingSender(Map.of(2L, "invalid address"));
+		OtpDispatcher dispatcher = new OtpDispatcher(outbox, List.of(sender), meterRegistry);
+		when(outbox.claim(any(), anyInt())).thenReturn(List.of(delivered, rejected, expired));
+
+		dispatcher.poll();
+		dispatcher.shutdown();
+
+		assertEquals(List.of(1L, 2L), sender.sentIds);
+		verify(outbox).markSent(List.of(1L));
+		verify(outbox).markFailed(rejected, "invalid address");
+		verify(outbox).markFailed(expired, "OTP expired before delivery");
+		assertEquals(2.0, meterRegistry.counter("otp.dispatch.failures", "channel", "email", "result", "abandoned").count());
+	}
+
+	@Test
+	void failsTheWholeBatchWhenTheProviderThrows() throws InterruptedException {
+		OtpOutboxMessage first = message(1L, LocalDateTime.now().plusMinutes(5));
+		OtpOutboxMessage second = message(2L, LocalDateTime.now().plusMinutes(5));
+		RecordingSender sender = new RecordingSender(null);
+		OtpDispatcher dispatcher = new OtpDispatcher(outbox, List.of(sender), meterRegistry);
+		when(outbox.claim(any(), anyInt())).thenReturn(List.of(first, second));
+		when(outbox.markFailed(any(), eq("provider down"))).thenReturn(true);
+
+		dispatcher.poll();
+		dispatcher.shutdown();
+
+		verify(outbox).markFailed(first, "provider down");
+		verify(outbox).markFailed(second, "provider down");
+		verify(outbox).markSent(List.of());
+		verify(outbox, never()).markSent(List.of(1L, 2L));
+		assertEquals(2.0, meterRegistry.counter("otp.dispatch.failures", "channel", "email", "result", "retry").count());
+	}
+
+	private static OtpOutboxMessage message(Long id, LocalDateTime expiresAt) {
+		return OtpOutboxMessage.builder()
+				.id(id)
+				.otpId(id)
+				.channel(OtpEntity.RecipientType.EMAIL)
+				.recipient("user" + id + "@example.com")
+				.otp("123456")
+				.nextAttemptAt(LocalDateTime.now())
+				.expiresAt(expiresAt)
+				.build();
+	}
+
+	// Fails the given ids, or throws for the whole batch when there are none
+	private static final class RecordingSender implements OtpChannelSender {
+
+		private final Map<Long, String> failures;
+		private final List<Long> sentIds = new CopyOnWriteArrayList<>();
+
+		RecordingSender(Map<Long, String> failures) {
+			this.failures = failures;
+		}
+
+		@Override
+		public OtpEntity.RecipientType getChannel() {
+			return OtpEntity.RecipientType.EMAIL;
+		}
+
+		@Override
+		public int getMaxConcurrency() {
+			return 2;
+		}
+
+		@Override
+		public int getBatchSize() {
+			return 2;
+		}
+
+		@Override
+		public Map<Long, String> send(List<OtpOutboxMessage> batch) {
+			if (failures == null) {
+				throw new IllegalStateException("provider down");
+			}
+			batch.forEach(message -> sentIds.add(message.getId()));
+			return failures;
+		}
+	}
+}
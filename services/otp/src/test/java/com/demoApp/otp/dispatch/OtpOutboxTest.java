@@ -0,0 +1,108 @@
+package com.demoApp.otp.dispatch;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.entity.OtpOutboxMessage;
+import com.demoApp.otp.repository.OtpOutboxRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OtpOutboxTest {
+
+	private final OtpOutboxRepository repository = mock(OtpOutboxRepository.class);
+	// 30s lease, 3 attempts, 1s backoff doubling per attempt, 60 minutes retention, purge batches of 2
+	private final OtpOutbox outbox = new OtpOutbox(repository, 30, 3, 1_000, 60, 2);
+
+	@Test
+	void claimLeasesTheDueMessages() {
+		OtpOutboxMessage message = message(LocalDateTime.now().plusMinutes(5));
+		when(repository.lockDue(eq("EMAIL"), any(), eq(10))).thenReturn(List.of(message));
+		when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		List<OtpOutboxMessage> claimed = outbox.claim(OtpEntity.RecipientType.EMAIL, 10);
+
+		assertEquals(1, claimed.size());
+		assertEquals(OtpOutboxMessage.Status.SENDING, message.getStatus());
+		assertEquals(1, message.getAttempts());
+		assertTrue(message.getLockedUntil().isAfter(LocalDateTime.now().plusSeconds(25)));
+	}
+
+	@Test
+	void retriesWithExponentialBackoff() {
+		OtpOutboxMessage message = message(LocalDateTime.now().plusMinutes(5));
+		message.setAttempts(2);
+		message.setLockedUntil(LocalDateTime.now().plusSeconds(30));
+
+		assertTrue(outbox.markFailed(message, "timeout"));
+
+		assertEquals(OtpOutboxMessage.Status.PENDING, message.getStatus());
+		assertNull(message.getLockedUntil());
+		assertEquals("timeout", message.getLastError());
+		// Second attempt failed: 1s doubled once
+		assertTrue(message.getNextAttemptAt().isAfter(LocalDateTime.now().plusNanos(1_500_000_000)));
+		verify(repository).save(message);
+	}
+
+	@Test
+	void givesUpOnceTheAttemptsAreSpent() {
+		OtpOutboxMessage message = message(LocalDateTime.now().plusMinutes(5));
+		message.setAttempts(3);
+
+		assertFalse(outbox.markFailed(message, "rejected"));
+		assertEquals(OtpOutboxMessage.Status.FAILED, message.getStatus());
+	}
+
+	@Test
+	void givesUpWhenTheOtpWouldExpireBeforeTheRetry() {
+		OtpOutboxMessage message = message(LocalDateTime.now().plusNanos(500_000_000));
+		message.setAttempts(1);
+
+		assertFalse(outbox.markFailed(message, "timeout"));
+		assertEquals(OtpOutboxMessage.Status.FAILED, message.getStatus());
+	}
+
+	@Test
+	void purgesFinishedMessagesInBatchesUntilNoneAreLeft() {
+		when(repository.deleteFinished(any(), anyInt())).thenReturn(2, 2, 1);
+
+		assertEquals(5, outbox.purgeFinished());
+
+		verify(repository, times(3)).deleteFinished(any(), eq(2));
+	}
+
+	@Test
+	void purgesOnlyMessagesPastRetention() {
+		LocalDateTime before = LocalDateTime.now().minusMinutes(60);
+
+		outbox.purgeFinished();
+
+		verify(repository).deleteFinished(argThat(cutoff ->
+				!cutoff.isBefore(before) && cutoff.isBefore(before.plusSeconds(5))), eq(2));
+	}
+
+	private static OtpOutboxMessage message(LocalDateTime expiresAt) {
+		return OtpOutboxMessage.builder()
+				.id(1L)
+				.otpId(1L)
+				.channel(OtpEntity.RecipientType.EMAIL)
+				.recipient("alice@example.com")
+				.otp("123456")
+				.nextAttemptAt(LocalDateTime.now())
+				.expiresAt(expiresAt)
+				.build();
+	}
+}
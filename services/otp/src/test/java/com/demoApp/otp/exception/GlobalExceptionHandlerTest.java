@@ -0,0 +1,34 @@
+package com.demoApp.otp.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+	private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+	@Test
+	void answersARateLimitWith429AndRetryAfter() {
+		ResponseEntity<Map<String, String>> response =
+				handler.handleOtpRateLimited(new OtpRateLimitedException("Too many OTP requests, try again later", 1_500));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+		// Rounded up to whole seconds
+		assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals("failed", response.getBody().get("status"));
+	}
+
+	@Test
+	void neverAsksForLessThanASecond() {
+		ResponseEntity<Map<String, String>> response =
+				handler.handleOtpRateLimited(new OtpRateLimitedException("Too many verification attempts, try again later", 0));
+
+		assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+}
@@ -0,0 +1,75 @@
+package com.demoApp.otp.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SlidingWindowLimiterTest {
+
+	@Test
+	void locksAKeyOutOnceTheLimitIsHit() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(3, 1_000, 5_000, 4);
+
+		assertEquals(0, limiter.tryAcquire("alice", 0));
+		assertEquals(0, limiter.tryAcquire("alice", 10));
+		assertEquals(0, limiter.tryAcquire("alice", 20));
+		assertEquals(5_000, limiter.tryAcquire("alice", 30));
+
+		// Still locked out after the window has moved on
+		assertEquals(1_930, limiter.tryAcquire("alice", 3_100));
+		assertEquals(0, limiter.tryAcquire("alice", 5_030));
+		assertEquals(1, limiter.getLockoutCount());
+	}
+
+	@Test
+	void withoutALockoutWaitsForTheNextWindow() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(2, 1_000, 0, 4);
+
+		limiter.tryAcquire("alice", 100);
+		limiter.tryAcquire("alice", 200);
+
+		assertEquals(700, limiter.tryAcquire("alice", 300));
+		assertEquals(0, limiter.getLockoutCount());
+	}
+
+	@Test
+	void weighsThePreviousWindowByItsOverlap() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(4, 1_000, 0, 4);
+		for (long t = 500; t <= 800; t += 100) {
+			assertEquals(0, limiter.tryAcquire("alice", t));
+		}
+
+		// Half of the previous window still overlaps: 4 * 0.5 counts against the limit
+		assertEquals(0, limiter.tryAcquire("alice", 1_500));
+		assertEquals(0, limiter.tryAcquire("alice", 1_500));
+		assertEquals(500, limiter.tryAcquire("alice", 1_500));
+	}
+
+	@Test
+	void countsKeysSeparately() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(1, 1_000, 5_000, 1);
+
+		assertEquals(0, limiter.tryAcquire("alice", 0));
+		assertEquals(0, limiter.tryAcquire("bob", 0));
+		assertEquals(5_000, limiter.tryAcquire("alice", 0));
+	}
+
+	@Test
+	void evictsIdleKeysButKeepsLockedOutOnes() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(1, 1_000, 10_000, 4);
+		limiter.tryAcquire("alice", 0);
+		limiter.tryAcquire("bob", 0);
+		limiter.tryAcquire("bob", 0);
+
+		limiter.evictIdle(2_500);
+
+		assertEquals(1, limiter.size());
+		assertEquals(7_500, limiter.tryAcquire("bob", 2_500));
+	}
+
+	@Test
+	void rejectsANonPositiveLimit() {
+		assertThrows(IllegalArgumentException.class, () -> new SlidingWindowLimiter(0, 1_000, 0, 4));
+	}
+}
@@ -0,0 +1,122 @@
+package com.demoApp.otp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OtpPartitionManagerPostgresTest {
+
+	@Container
+	private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbc;
+
+	@BeforeEach
+	void resetSchema() {
+		dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("DROP SCHEMA public CASCADE");
+		jdbc.execute("CREATE SCHEMA public");
+	}
+
+	@Test
+	void createsAPartitionedTableWithTheComingDays() {
+		manager().init();
+
+		assertEquals("p", relkind("otps"));
+		for (int i = 0; i <= 7; i++) {
+			assertTrue(exists("otps_p" + LocalDate.now().plusDays(i).format(DateTimeFormatter.BASIC_ISO_DATE)));
+		}
+		insert("alice@example.com");
+		assertEquals(1, count("otps"));
+	}
+
+	@Test
+	void convertsTheTableHibernateCreated() {
+		// As created by ddl-auto before partitioning, with an identity id
+		jdbc.execute("CREATE TABLE otps (id BIGINT GENERATED BY DEFAULT AS IDENTITY, recipient VARCHAR(255) NOT NULL, "
+				+ "recipient_type VARCHAR(255) NOT NULL, otp VARCHAR(255) NOT NULL, created_at TIMESTAMP(6) NOT NULL, "
+				+ "expires_at TIMESTAMP(6) NOT NULL, verified_at TIMESTAMP(6), used BOOLEAN NOT NULL, "
+				+ "purpose VARCHAR(255) NOT NULL, retry_count INTEGER NOT NULL, user_id BIGINT, token VARCHAR(255), "
+				+ "max_retries INTEGER NOT NULL, verified BOOLEAN NOT NULL, attempts INTEGER NOT NULL, PRIMARY KEY (id))");
+		jdbc.execute("CREATE INDEX idx_otps_recipient_used_created ON otps (recipient, used, created_at)");
+		insert("alice@example.com");
+		insert("bob@example.com");
+
+		manager().init();
+
+		assertEquals("p", relkind("otps"));
+		assertEquals(2, count("otps_legacy"));
+		assertEquals("FOR VALUES FROM (MINVALUE) TO ('" + LocalDate.now().plusDays(1) + " 00:00:00')",
+				jdbc.queryForObject("SELECT pg_get_expr(relpartbound, oid) FROM pg_class WHERE relname = 'otps_legacy'",
+						String.class));
+		// New rows continue the old ids; today's still land in the legacy partition
+		assertEquals(3, insert("carol@example.com"));
+		assertEquals(3, count("otps"));
+		assertFalse(exists("otps_p" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)));
+		assertTrue(exists("otps_p" + LocalDate.now().plusDays(1).format(DateTimeFormatter.BASIC_ISO_DATE)));
+		// The lookup index is on the partitioned table, so new partitions get it too
+		assertEquals("I", relkind("idx_otps_recipient_used_created"));
+	}
+
+	@Test
+	void leavesAPartitionedTableAsIs() {
+		manager().init();
+		insert("alice@example.com");
+
+		manager().init();
+
+		assertEquals(1, count("otps"));
+		assertFalse(exists("otps_legacy"));
+	}
+
+	@Test
+	void dropsPartitionsPastRetention() {
+		manager().init();
+		LocalDate old = LocalDate.now().minusDays(40);
+		jdbc.execute("CREATE TABLE otps_old PARTITION OF otps FOR VALUES FROM ('" + old + "') TO ('" + old.plusDays(1) + "')");
+		LocalDate kept = LocalDate.now().minusDays(10);
+		jdbc.execute("CREATE TABLE otps_kept PARTITION OF otps FOR VALUES FROM ('" + kept + "') TO ('" + kept.plusDays(1) + "')");
+
+		manager().maintain();
+
+		assertFalse(exists("otps_old"));
+		assertTrue(exists("otps_kept"));
+	}
+
+	private OtpPartitionManager manager() {
+		return new OtpPartitionManager(dataSource, 7, 30);
+	}
+
+	private long insert(String recipient) {
+		return jdbc.queryForObject("INSERT INTO otps (recipient, recipient_type, otp, created_at, expires_at, used, "
+				+ "purpose, retry_count, max_retries, verified, attempts) VALUES (?, 'EMAIL', '123456', now(), "
+				+ "now() + interval '5 minutes', false, 'EMAIL_VERIFICATION', 0, 3, false, 0) RETURNING id",
+				Long.class, recipient);
+	}
+
+	private String relkind(String name) {
+		return jdbc.queryForObject("SELECT relkind FROM pg_class WHERE relname = ?", String.class, name);
+	}
+
+	private boolean exists(String name) {
+		return jdbc.queryForObject("SELECT count(*) FROM pg_class WHERE relname = ?", Integer.class, name) > 0;
+	}
+
+	private int count(String table) {
+		return jdbc.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+	}
+}
@@ -0,0 +1,69 @@
+package com.demoApp.otp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OtpPartitionManagerTest {
+
+	private static final LocalDate DAY = LocalDate.of(2026, 10, 1);
+
+	@Test
+	void coversItsOwnDayOnly() {
+		OtpPartitionManager.Partition partition = OtpPartitionManager.Partition.parse("otps_p20261001",
+				"FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-10-02 00:00:00')");
+
+		assertTrue(partition.covers(DAY));
+		assertFalse(partition.covers(DAY.minusDays(1)));
+		assertFalse(partition.covers(DAY.plusDays(1)));
+	}
+
+	@Test
+	void coversEverythingBeforeTheUpperBoundFromMinvalue() {
+		OtpPartitionManager.Partition legacy = OtpPartitionManager.Partition.parse("otps_legacy",
+				"FOR VALUES FROM (MINVALUE) TO ('2026-10-02 00:00:00')");
+
+		assertTrue(legacy.covers(DAY));
+		assertTrue(legacy.covers(LocalDate.of(2020, 1, 1)));
+		assertFalse(legacy.covers(DAY.plusDays(1)));
+	}
+
+	@Test
+	void readsBoundsWithATimeZone() {
+		OtpPartitionManager.Partition partition = OtpPartitionManager.Partition.parse("otps_p20261001",
+				"FOR VALUES FROM ('2026-10-01 00:00:00+00') TO ('2026-10-02 00:00:00+00')");
+
+		assertTrue(partition.covers(DAY));
+		assertFalse(partition.covers(DAY.plusDays(1)));
+	}
+
+	@Test
+	void ignoresBoundsItDoesNotCreate() {
+		assertNull(OtpPartitionManager.Partition.parse("otps_default", "DEFAULT"));
+		assertNull(OtpPartitionManager.Partition.parse("otps_rest",
+				"FOR VALUES FROM ('2026-10-01 00:00:00') TO (MAXVALUE)"));
+	}
+
+	@Test
+	void dropsAPartitionOnceItsUpperBoundReachesTheCutoff() {
+		OtpPartitionManager.Partition partition = OtpPartitionManager.Partition.parse("otps_p20261001",
+				"FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-10-02 00:00:00')");
+
+		assertFalse(partition.isBefore(DAY));
+		assertTrue(partition.isBefore(DAY.plusDays(1)));
+		assertTrue(partition.isBefore(DAY.plusDays(2)));
+	}
+
+	@Test
+	void dropsTheLegacyPartitionByTheSameRule() {
+		OtpPartitionManager.Partition legacy = OtpPartitionManager.Partition.parse("otps_legacy",
+				"FOR VALUES FROM (MINVALUE) TO ('2026-10-02 00:00:00')");
+
+		assertFalse(legacy.isBefore(DAY));
+		assertTrue(legacy.isBefore(DAY.plusDays(1)));
+	}
+}
@@ -0,0 +1,143 @@
+package com.demoApp.otp.service;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.limit.OtpRateLimiter;
+import com.demoApp.otp.repository.OtpRepository;
+import com.demoApp.otp.store.OtpStore;
+import com.demoApp.otp.store.OtpWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OtpServiceTest {
+
+	private static final String RECIPIENT = "alice@example.com";
+
+	private final OtpRepository otpRepository = mock(OtpRepository.class);
+	private final OtpRateLimiter otpRateLimiter = mock(OtpRateLimiter.class);
+	private final OtpWriteBehind otpWriteBehind = mock(OtpWriteBehind.class);
+	private final OtpStore otpStore = new OtpStore(100, 1000, 16, new SimpleMeterRegistry());
+	private final OtpService otpService = new OtpService();
+
+	OtpServiceTest() {
+		ReflectionTestUtils.setField(otpService, "otpRepository", otpRepository);
+		ReflectionTestUtils.setField(otpService, "otpRateLimiter", otpRateLimiter);
+		ReflectionTestUtils.setField(otpService, "otpStore", otpStore);
+		ReflectionTestUtils.setField(otpService, "otpWriteBehind", otpWriteBehind);
+	}
+
+	@Test
+	void verifiesACachedOtpWithoutReadingTheDatabase() {
+		cache(row(1L, "123456"));
+		when(otpRepository.markUsed(eq(1L), anyInt(), any())).thenReturn(1);
+
+		assertTrue(otpService.verifyOtp(RECIPIENT, "123456"));
+
+		verify(otpRepository, never()).findTopByRecipientAndUsedFalseAndCreatedAtAfterOrderByCreatedAtDesc(any(), any());
+	}
+
+	@Test
+	void writesAMismatchBehindWhileTheCachedOtpIsTheLatest() {
+		OtpEntity current = row(1L, "123456");
+		cache(current);
+		latest(current);
+
+		assertFalse(otpService.verifyOtp(RECIPIENT, "000000"));
+
+		verify(otpWriteBehind).schedule(otpStore.get(RECIPIENT));
+		verify(otpRepository, never()).save(any());
+	}
+
+	@Test
+	void acceptsANewerOtpIssuedByAnotherInstance() {
+		cache(row(1L, "123456"));
+		// The user asked for a resend and another instance issued the newer code
+		OtpEntity resent = row(2L, "654321");
+		latest(resent);
+
+		assertTrue(otpService.verifyOtp(RECIPIENT, "654321"));
+
+		assertTrue(resent.isUsed());
+		assertEquals(1, resent.getAttempts());
+		verify(otpRepository).save(resent);
+		verify(otpWriteBehind, never()).schedule(any());
+		assertNull(otpStore.get(RECIPIENT));
+	}
+
+	@Test
+	void rejectsTheSupersededOtp() {
+		cache(row(1L, "123456"));
+		OtpEntity resent = row(2L, "654321");
+		latest(resent);
+
+		assertFalse(otpService.verifyOtp(RECIPIENT, "123456"));
+
+		assertFalse(resent.isUsed());
+	}
+
+	@Test
+	void dropsACachedOtpThatWasUsedElsewhere() {
+		cache(row(1L, "123456"));
+		when(otpRepository.findTopByRecipientAndUsedFalseAndCreatedAtAfterOrderByCreatedAtDesc(eq(RECIPIENT), any()))
+				.thenReturn(Optional.empty());
+
+		assertFalse(otpService.verifyOtp(RECIPIENT, "000000"));
+
+		assertNull(otpStore.get(RECIPIENT));
+		verify(otpWriteBehind, never()).schedule(any());
+	}
+
+	@Test
+	void keepsAnOtpCachedWhileTheStaleOneIsChecked() {
+		cache(row(1L, "123456"));
+		OtpEntity resent = row(2L, "654321");
+		when(otpRepository.findTopByRecipientAndUsedFalseAndCreatedAtAfterOrderByCreatedAtDesc(eq(RECIPIENT), any()))
+				.thenAnswer(invocation -> {
+					// This instance caches a newer OTP before the stale one is dropped
+					cache(resent);
+					return Optional.of(resent);
+				});
+
+		assertFalse(otpService.verifyOtp(RECIPIENT, "000000"));
+
+		assertNotNull(otpStore.get(RECIPIENT));
+		assertEquals(2L, otpStore.get(RECIPIENT).getId());
+	}
+
+	private void cache(OtpEntity otpEntity) {
+		otpStore.put(otpEntity.getId(), RECIPIENT, otpEntity.getRecipientType(), otpEntity.getPurpose(),
+				otpEntity.getOtp(), System.currentTimeMillis() + 60_000, otpEntity.getMaxRetries());
+	}
+
+	private void latest(OtpEntity otpEntity) {
+		when(otpRepository.findTopByRecipientAndUsedFalseAndCreatedAtAfterOrderByCreatedAtDesc(eq(RECIPIENT), any()))
+				.thenReturn(Optional.of(otpEntity));
+	}
+
+	private static OtpEntity row(Long id, String otp) {
+		return OtpEntity.builder()
+				.id(id)
+				.recipient(RECIPIENT)
+				.recipientType(OtpEntity.RecipientType.EMAIL)
+				.purpose(OtpEntity.OtpPurpose.EMAIL_VERIFICATION)
+				.otp(otp)
+				.expiresAt(LocalDateTime.now().plusMinutes(OtpService.EXPIRE_MINUTES))
+				.build();
+	}
+}
@@ -0,0 +1,41 @@
+package com.demoApp.otp.store;
+
+import com.demoApp.otp.entity.OtpEntity;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedOtpTest {
+
+	private static final long NOW = 1_000_000;
+
+	private final CachedOtp otp = new CachedOtp(1L, "alice@example.com", OtpEntity.RecipientType.EMAIL,
+			OtpEntity.OtpPurpose.EMAIL_VERIFICATION, "123456", NOW + 60_000, 3, 0);
+
+	@Test
+	void isUsedUpByTheFirstMatch() {
+		assertEquals(CachedOtp.Result.VERIFIED, otp.verify("123456", NOW));
+		assertFalse(otp.isLive(NOW));
+		assertEquals(CachedOtp.Result.EXPIRED, otp.verify("123456", NOW));
+	}
+
+	@Test
+	void expiresOnceTheAttemptsRunOut() {
+		assertEquals(CachedOtp.Result.MISMATCH, otp.verify("000000", NOW));
+		assertEquals(CachedOtp.Result.MISMATCH, otp.verify("000000", NOW));
+		assertEquals(CachedOtp.Result.EXHAUSTED, otp.verify("000000", NOW));
+
+		assertEquals(CachedOtp.Result.EXPIRED, otp.verify("123456", NOW));
+		assertEquals(4, otp.getAttempts());
+		assertFalse(otp.isLive(NOW));
+	}
+
+	@Test
+	void rejectsTheRightCodeAfterExpiry() {
+		assertTrue(otp.isLive(NOW + 60_000));
+		assertEquals(CachedOtp.Result.EXPIRED, otp.verify("123456", NOW + 60_001));
+		assertEquals(1, otp.getAttempts());
+	}
+}
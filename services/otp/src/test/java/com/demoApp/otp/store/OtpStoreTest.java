@@ -0,0 +1,79 @@
+package com.demoApp.otp.store;
+
+import com.demoApp.otp.entity.OtpEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OtpStoreTest {
+
+	private static final long TICK_MILLIS = 10;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	// Four slots of 10ms: the wheel turns every 40ms
+	private final OtpStore store = new OtpStore(2, TICK_MILLIS, 4, meterRegistry);
+
+	@Test
+	void expiresEntriesAsTheWheelReachesTheirTick() throws InterruptedException {
+		long now = System.currentTimeMillis();
+		put(1L, "alice@example.com", "111111", now + 20);
+		put(2L, "bob@example.com", "222222", now + 60_000);
+
+		Thread.sleep(60);
+		store.tick();
+
+		assertNull(store.get("alice@example.com"));
+		assertNotNull(store.get("bob@example.com"));
+	}
+
+	@Test
+	void keepsEntriesDueMoreThanOneRevolutionAway() throws InterruptedException {
+		long now = System.currentTimeMillis();
+		put(1L, "alice@example.com", "111111", now + 150);
+
+		Thread.sleep(60);
+		store.tick();
+		assertNotNull(store.get("alice@example.com"));
+
+		Thread.sleep(150);
+		store.tick();
+		assertNull(store.get("alice@example.com"));
+	}
+
+	@Test
+	void aReplacedEntryDoesNotExpireItsReplacement() throws InterruptedException {
+		long now = System.currentTimeMillis();
+		put(1L, "alice@example.com", "111111", now + 20);
+		put(2L, "alice@example.com", "222222", now + 60_000);
+
+		Thread.sleep(60);
+		store.tick();
+
+		assertEquals("222222", store.get("alice@example.com").getOtp());
+	}
+
+	@Test
+	void stopsCachingNewRecipientsWhenFull() {
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		assertTrue(put(1L, "alice@example.com", "111111", expiresAt));
+		assertTrue(put(2L, "bob@example.com", "222222", expiresAt));
+
+		assertFalse(put(3L, "carol@example.com", "333333", expiresAt));
+		assertNull(store.get("carol@example.com"));
+		assertEquals(1.0, meterRegistry.counter("otp.store.rejected").count());
+
+		// Replacing an existing recipient's OTP still works
+		assertTrue(put(4L, "alice@example.com", "444444", expiresAt));
+		assertEquals(4L, store.get("alice@example.com").getId());
+	}
+
+	private boolean put(Long id, String recipient, String otp, long expiresAtMillis) {
+		return store.put(id, recipient, OtpEntity.RecipientType.EMAIL, OtpEntity.OtpPurpose.EMAIL_VERIFICATION,
+				otp, expiresAtMillis, 3);
+	}
+}
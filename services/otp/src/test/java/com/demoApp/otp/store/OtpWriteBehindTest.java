@@ -0,0 +1,52 @@
+package com.demoApp.otp.store;
+
+import com.demoApp.otp.entity.OtpEntity;
+import com.demoApp.otp.repository.OtpRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class OtpWriteBehindTest {
+
+	private final OtpRepository otpRepository = mock(OtpRepository.class);
+	private final OtpWriteBehind writeBehind = new OtpWriteBehind(otpRepository);
+	private final long now = System.currentTimeMillis();
+	private final CachedOtp otp = new CachedOtp(7L, "alice@example.com", OtpEntity.RecipientType.EMAIL,
+			OtpEntity.OtpPurpose.EMAIL_VERIFICATION, "123456", now + 60_000, 5, 0);
+
+	@Test
+	void coalescesABurstOfFailuresIntoOneWrite() {
+		otp.verify("000000", now);
+		writeBehind.schedule(otp);
+		otp.verify("000000", now);
+		writeBehind.schedule(otp);
+
+		writeBehind.flush();
+		writeBehind.flush();
+
+		verify(otpRepository).recordAttempts(eq(7L), eq(2), any());
+		verifyNoMoreInteractions(otpRepository);
+	}
+
+	@Test
+	void retriesAfterTheDatabaseFails() {
+		when(otpRepository.recordAttempts(any(), anyInt(), any()))
+				.thenThrow(new IllegalStateException("database down"))
+				.thenReturn(1);
+		otp.verify("000000", now);
+		writeBehind.schedule(otp);
+
+		writeBehind.flush();
+		writeBehind.flush();
+		writeBehind.flush();
+
+		verify(otpRepository, times(2)).recordAttempts(eq(7L), eq(1), any());
+	}
+}
@@ -3,6 +3,7 @@ package com.demoApp.owner.config;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,10 +15,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.demoApp.common.security.JwksConfiguration;
 import com.demoApp.owner.security.JwtAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+@Import(JwksConfiguration.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
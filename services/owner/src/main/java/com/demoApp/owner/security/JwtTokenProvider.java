@@ -1,9 +1,12 @@
 package com.demoApp.owner.security;
 
+import com.demoApp.common.security.JwksKeyResolver;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +29,13 @@ public class JwtTokenProvider {
     @Value("${app.jwt-expiration-milliseconds}")
     private long jwtExpirationDate;
 
+    private final JwksKeyResolver jwksKeyResolver;
+    private JwtParser parser;
+
+    public JwtTokenProvider(JwksKeyResolver jwksKeyResolver) {
+        this.jwksKeyResolver = jwksKeyResolver;
+    }
+
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
         Date currentDate = new Date();
@@ -43,6 +53,12 @@ public class JwtTokenProvider {
         return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
     }
 
+    // Key selection by kid: see JwksKeyResolver; tokens issued here are still HMAC-signed
+    @PostConstruct
+    void initParser() {
+        parser = jwksKeyResolver.parser(key());
+    }
+
     public String getUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -58,9 +74,7 @@ public class JwtTokenProvider {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -68,7 +82,7 @@ public class JwtTokenProvider {
     // Updated to match the signature used in JwtAuthenticationFilter
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             log.error("Invalid JWT token: {}", e.getMessage());
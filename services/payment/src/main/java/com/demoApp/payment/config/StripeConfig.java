@@ -21,6 +21,17 @@ public class StripeConfig {
 
     @Value("${stripe.webhook.secret}")
     private String stripeWebhookSecret;
+
+    // Points the client at a local stand-in for load tests, e.g. http://localhost:12111
+    @Value("${stripe.api-base:}")
+    private String stripeApiBase;
+
+    @Value("${payment.stripe.client.connect-timeout-ms:3000}")
+    private int connectTimeoutMillis;
+
+    // At most the call timeout, so timed-out calls do not hold on to bulkhead threads
+    @Value("${payment.stripe.client.read-timeout-ms:10000}")
+    private int readTimeoutMillis;
     
     /**
      * Initialize Stripe API with API key
@@ -29,6 +40,12 @@ public class StripeConfig {
     public void init() {
         log.info("Initializing Stripe configuration...");
         Stripe.apiKey = stripeApiKey;
+        Stripe.setConnectTimeout(connectTimeoutMillis);
+        Stripe.setReadTimeout(readTimeoutMillis);
+        if (!stripeApiBase.isBlank()) {
+            Stripe.overrideApiBase(stripeApiBase);
+            log.warn("Stripe API calls go to {}", stripeApiBase);
+        }
         log.info("Stripe initialized successfully");
     }
     
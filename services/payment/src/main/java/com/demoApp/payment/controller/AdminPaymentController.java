@@ -4,23 +4,38 @@ import com.demoApp.payment.dto.ApiResponse;
 import com.demoApp.payment.dto.PaymentResponseDTO;
 import com.demoApp.payment.dto.RefundRequestDTO;
 import com.demoApp.payment.exception.PaymentException;
+import com.demoApp.payment.exception.PaymentProviderUnavailableException;
 import com.demoApp.payment.exception.ResourceNotFoundException;
+import com.demoApp.payment.model.PaymentStatus;
+import com.demoApp.payment.service.PaymentRollupRebuilder;
+import com.demoApp.payment.service.PaymentExportService;
+import com.demoApp.payment.service.PaymentRollupService;
 import com.demoApp.payment.service.PaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Admin controller for payment operations
@@ -33,6 +48,8 @@ import java.util.Map;
 public class AdminPaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentRollupRebuilder rollupRebuilder;
+    private final PaymentExportService exportService;
 
     /**
      * Get all payments (admin only)
@@ -65,6 +82,9 @@ public class AdminPaymentController {
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ApiResponse(false, e.getMessage(), null));
+        } catch (PaymentProviderUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, e.getMessage(), null));
         } catch (PaymentException e) {
             log.error("Admin refund error", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -92,15 +112,18 @@ public class AdminPaymentController {
                 endDate = LocalDateTime.now();
             }
             
-            // Collect statistics (this would be more sophisticated in a real application)
+            // Read from the daily rollups, so whole days are covered
             Map<String, Object> stats = new HashMap<>();
-            
-            // Calculate statistics
-            // This is just a placeholder - in a real application, you would have more detailed stats
-            BigDecimal totalProcessed = paymentService.calculateTotalProcessedAmount(startDate, endDate);
-            // Add more statistics as needed
-            
-            stats.put("totalProcessed", totalProcessed);
+            Map<PaymentStatus, PaymentRollupService.Totals> byStatus = paymentService.summarizePayments(startDate, endDate);
+            PaymentRollupService.Totals completed = byStatus.get(PaymentStatus.COMPLETED);
+            BigDecimal refunded = byStatus.values().stream()
+                    .map(PaymentRollupService.Totals::refundAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            stats.put("totalProcessed", completed != null ? completed.amount() : BigDecimal.ZERO);
+            stats.put("completedCount", completed != null ? completed.count() : 0L);
+            stats.put("totalRefunded", refunded);
+            stats.put("byStatus", byStatus);
             stats.put("startDate", startDate);
             stats.put("endDate", endDate);
             
@@ -111,4 +134,67 @@ public class AdminPaymentController {
                     .body(new ApiResponse(false, "An unexpected error occurred", null));
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Rebuild the revenue rollups for payments created between two days (admin only)
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            rollupRebuilder.rebuild(from, to);
+            return ResponseEntity.ok(new ApiResponse(true, "Revenue rollups rebuilt successfully", null));
+        } catch (Exception e) {
+            log.error("Error rebuilding revenue rollups", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(false, "An unexpected error occurred", null));
+        }
+    }
+
+    /**
+     * Export payments as CSV or NDJSON (admin only).
+     * Rows are streamed as they are read, so exports of any size run in constant memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) Long merchantId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        PaymentExportService.Format exportFormat;
+        try {
+            exportFormat = PaymentExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        PaymentExportService.Filter filter = new PaymentExportService.Filter(startDate, endDate, status, merchantId);
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            try {
+                long rows = exportService.export(filter, exportFormat, target);
+                if (gzip) {
+                    ((GZIPOutputStream) target).finish();
+                }
+                log.info("Exported {} payments as {}", rows, exportFormat);
+            } catch (IOException e) {
+                // The response has started, so the client just sees a truncated file
+                log.warn("Payment export aborted: {}", e.getMessage());
+                throw e;
+            }
+        };
+
+        String extension = exportFormat == PaymentExportService.Format.CSV ? "csv" : "ndjson";
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == PaymentExportService.Format.CSV ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType("application/x-ndjson");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"payments." + extension + (gzip ? ".gz" : "") + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+}
@@ -4,8 +4,11 @@ import com.demoApp.payment.dto.ApiResponse;
 import com.demoApp.payment.dto.PaymentRequestDTO;
 import com.demoApp.payment.dto.PaymentResponseDTO;
 import com.demoApp.payment.dto.RefundRequestDTO;
+import com.demoApp.payment.exception.IdempotencyConflictException;
 import com.demoApp.payment.exception.PaymentException;
+import com.demoApp.payment.exception.PaymentProviderUnavailableException;
 import com.demoApp.payment.exception.ResourceNotFoundException;
+import com.demoApp.payment.service.PaymentIdempotencyService;
 import com.demoApp.payment.service.PaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -28,13 +31,17 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentIdempotencyService paymentIdempotencyService;
 
     /**
-     * Process a payment
+     * Process a payment.
+     * With an Idempotency-Key header, a retried request returns the original response
+     * instead of charging again.
      */
     @PostMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> processPayment(@Valid @RequestBody PaymentRequestDTO paymentRequestDTO, 
+    public ResponseEntity<?> processPayment(@Valid @RequestBody PaymentRequestDTO paymentRequestDTO,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                         Authentication authentication) {
         try {
             // Security check: ensure the authenticated user is the same as the user making the payment
@@ -44,8 +51,16 @@ public class PaymentController {
                         .body(new ApiResponse(false, "You are not authorized to make payments for other users", null));
             }
             
-            PaymentResponseDTO responseDTO = paymentService.processPayment(paymentRequestDTO);
+            PaymentResponseDTO responseDTO = idempotencyKey != null
+                    ? paymentIdempotencyService.processPayment(paymentRequestDTO, idempotencyKey)
+                    : paymentService.processPayment(paymentRequestDTO);
             return ResponseEntity.ok(new ApiResponse(true, "Payment processed successfully", responseDTO));
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse(false, e.getMessage(), null));
+        } catch (PaymentProviderUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, e.getMessage(), null));
         } catch (PaymentException e) {
             log.error("Payment processing error", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -196,6 +211,9 @@ public class PaymentController {
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ApiResponse(false, e.getMessage(), null));
+        } catch (PaymentProviderUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, e.getMessage(), null));
         } catch (PaymentException e) {
             log.error("Payment refund error", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
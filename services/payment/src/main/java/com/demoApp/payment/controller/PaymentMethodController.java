@@ -4,6 +4,7 @@ import com.demoApp.payment.dto.ApiResponse;
 import com.demoApp.payment.dto.PaymentMethodDTO;
 import com.demoApp.payment.entity.PaymentMethod;
 import com.demoApp.payment.exception.PaymentException;
+import com.demoApp.payment.exception.PaymentProviderUnavailableException;
 import com.demoApp.payment.exception.ResourceNotFoundException;
 import com.demoApp.payment.repository.PaymentMethodRepository;
 import com.demoApp.payment.service.PaymentMethodService;
@@ -50,6 +51,9 @@ public class PaymentMethodController {
 
             PaymentMethodDTO savedMethod = paymentMethodService.savePaymentMethod(paymentMethodDTO);
             return ResponseEntity.ok(new ApiResponse(true, "Payment method added successfully", savedMethod));
+        } catch (PaymentProviderUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, e.getMessage(), null));
         } catch (PaymentException e) {
             log.error("Error adding payment method", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
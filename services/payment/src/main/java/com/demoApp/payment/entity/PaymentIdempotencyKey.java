@@ -0,0 +1,56 @@
+package com.demoApp.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client-supplied Idempotency-Key for a payment request and, once the request has
+ * completed, the response to replay for it
+ */
+@Entity
+@Table(name = "payment_idempotency_keys", indexes = {
+        @Index(name = "idx_payment_idempotency_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentIdempotencyKey {
+
+    // The client's key scoped to the user who sent it
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    // Hash of the request body, so a key reused for a different request is rejected
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.IN_PROGRESS;
+
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "payment_id")
+    private String paymentId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // While in progress, another instance may take the key over after this
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -0,0 +1,62 @@
+package com.demoApp.payment.entity;
+
+import com.demoApp.payment.model.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running totals of the payments created on one day, per status, for the whole service
+ * or for one user, merchant or owner. Kept up to date as payments change status;
+ * pending payments are not counted.
+ */
+@Entity
+@Table(name = "payment_revenue_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payment_revenue_rollups",
+                columnNames = {"dimension", "dimension_id", "status", "day"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRevenueRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Dimension dimension;
+
+    // The user, merchant or owner id; for ALL, a shard so concurrent updates spread over rows
+    @Column(name = "dimension_id", nullable = false)
+    private Long dimensionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus status;
+
+    // The day the payments were created
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    @Column(name = "refund_amount", nullable = false)
+    private BigDecimal refundAmount = BigDecimal.ZERO;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    public enum Dimension {
+        ALL,
+        USER,
+        MERCHANT,
+        OWNER
+    }
+}
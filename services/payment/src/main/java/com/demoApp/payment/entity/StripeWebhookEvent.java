@@ -0,0 +1,73 @@
+package com.demoApp.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A verified Stripe webhook event waiting to be applied, keyed by Stripe's event id
+ * so redeliveries are dropped on insert
+ */
+@Entity
+@Table(name = "stripe_webhook_events", indexes = {
+        @Index(name = "idx_webhook_events_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_webhook_events_ordering", columnList = "ordering_key, status"),
+        @Index(name = "idx_webhook_events_processed", columnList = "status, processed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StripeWebhookEvent {
+
+    @Id
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(nullable = false)
+    private String type;
+
+    // Events with the same key are applied one at a time, oldest first: the payment intent id
+    @Column(name = "ordering_key", nullable = false)
+    private String orderingKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RECEIVED;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "stripe_created_at", nullable = false)
+    private long stripeCreatedAt;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Processing state of an inbox event
+     */
+    public enum Status {
+        RECEIVED,
+        PROCESSING,
+        PROCESSED,
+        FAILED
+    }
+}
@@ -0,0 +1,12 @@
+package com.demoApp.payment.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key cannot be honoured: it was used for a
+ * different request, or the request holding it is still in progress
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
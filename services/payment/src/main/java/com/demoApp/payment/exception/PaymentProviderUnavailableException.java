@@ -0,0 +1,17 @@
+package com.demoApp.payment.exception;
+
+/**
+ * Exception thrown when a call to Stripe is not attempted or not waited for because
+ * Stripe is slow or failing: the circuit is open, too many calls are in flight, or the
+ * call timed out
+ */
+public class PaymentProviderUnavailableException extends PaymentException {
+
+    public PaymentProviderUnavailableException(String message) {
+        super(message);
+    }
+
+    public PaymentProviderUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
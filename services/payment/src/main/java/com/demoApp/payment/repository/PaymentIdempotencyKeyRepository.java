@@ -0,0 +1,67 @@
+package com.demoApp.payment.repository;
+
+import com.demoApp.payment.entity.PaymentIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for payment idempotency keys
+ */
+@Repository
+public interface PaymentIdempotencyKeyRepository extends JpaRepository<PaymentIdempotencyKey, String> {
+
+    /**
+     * Claim a key for a new request, replacing a record that has expired; returns 0 if the key is taken
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_idempotency_keys (idempotency_key, request_hash, status, created_at, "
+            + "locked_until, expires_at) "
+            + "VALUES (:key, :requestHash, 'IN_PROGRESS', :now, :lockedUntil, :expiresAt) "
+            + "ON CONFLICT (idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, "
+            + "status = 'IN_PROGRESS', response = NULL, payment_id = NULL, created_at = EXCLUDED.created_at, "
+            + "locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at "
+            + "WHERE payment_idempotency_keys.expires_at < :now", nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("lockedUntil") LocalDateTime lockedUntil,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Take over a request whose owner stopped renewing its lease
+     */
+    @Modifying
+    @Query("UPDATE PaymentIdempotencyKey k SET k.lockedUntil = :lockedUntil "
+            + "WHERE k.idempotencyKey = :key AND k.requestHash = :requestHash "
+            + "AND k.status = com.demoApp.payment.entity.PaymentIdempotencyKey.Status.IN_PROGRESS "
+            + "AND k.lockedUntil < :now")
+    int takeOver(@Param("key") String key,
+                 @Param("requestHash") String requestHash,
+                 @Param("now") LocalDateTime now,
+                 @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE PaymentIdempotencyKey k SET k.status = com.demoApp.payment.entity.PaymentIdempotencyKey.Status.COMPLETED, "
+            + "k.response = :response, k.paymentId = :paymentId, k.lockedUntil = NULL "
+            + "WHERE k.idempotencyKey = :key")
+    int complete(@Param("key") String key,
+                 @Param("response") String response,
+                 @Param("paymentId") String paymentId);
+
+    /**
+     * Give a key back after its request failed, so the client can retry with it
+     */
+    @Modifying
+    @Query("DELETE FROM PaymentIdempotencyKey k WHERE k.idempotencyKey = :key "
+            + "AND k.status = com.demoApp.payment.entity.PaymentIdempotencyKey.Status.IN_PROGRESS")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM PaymentIdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,14 +2,15 @@ package com.demoApp.payment.repository;
 
 import com.demoApp.payment.entity.Payment;
 import com.demoApp.payment.model.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -78,16 +79,24 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
             Long merchantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
     /**
-     * Calculate total amount of completed payments for a user
+     * Find payment by payment ID, locking it until the transaction ends
      */
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.userId = :userId AND p.status = 'COMPLETED'")
-    BigDecimal calculateTotalCompletedAmountForUser(@Param("userId") Long userId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.paymentId = :paymentId")
+    Optional<Payment> findByPaymentIdForUpdate(@Param("paymentId") String paymentId);
 
     /**
-     * Calculate total amount of completed payments for a merchant
+     * Find payment by payment provider reference, locking it until the transaction ends
      */
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.merchantId = :merchantId AND p.status = 'COMPLETED'")
-    BigDecimal calculateTotalCompletedAmountForMerchant(@Param("merchantId") Long merchantId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.paymentProviderReference = :reference")
+    Optional<Payment> findByPaymentProviderReferenceForUpdate(@Param("reference") String paymentProviderReference);
+
+    /**
+     * When the oldest payment was created
+     */
+    @Query("SELECT MIN(p.createdAt) FROM Payment p")
+    LocalDateTime findEarliestCreatedAt();
 
     /**
      * Find recent payments by user
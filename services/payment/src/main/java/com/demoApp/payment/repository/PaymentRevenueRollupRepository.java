@@ -0,0 +1,98 @@
+package com.demoApp.payment.repository;
+
+import com.demoApp.payment.entity.PaymentRevenueRollup;
+import com.demoApp.payment.model.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the payment revenue rollups
+ */
+@Repository
+public interface PaymentRevenueRollupRepository extends JpaRepository<PaymentRevenueRollup, Long> {
+
+    /**
+     * Add a delta to one rollup row, creating it if needed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_revenue_rollups (dimension, dimension_id, status, day, amount, refund_amount, payment_count) "
+            + "VALUES (:dimension, :dimensionId, :status, :day, :amount, :refundAmount, :paymentCount) "
+            + "ON CONFLICT (dimension, dimension_id, status, day) DO UPDATE SET "
+            + "amount = payment_revenue_rollups.amount + EXCLUDED.amount, "
+            + "refund_amount = payment_revenue_rollups.refund_amount + EXCLUDED.refund_amount, "
+            + "payment_count = payment_revenue_rollups.payment_count + EXCLUDED.payment_count", nativeQuery = true)
+    void add(@Param("dimension") String dimension,
+             @Param("dimensionId") long dimensionId,
+             @Param("status") String status,
+             @Param("day") LocalDate day,
+             @Param("amount") BigDecimal amount,
+             @Param("refundAmount") BigDecimal refundAmount,
+             @Param("paymentCount") long paymentCount);
+
+    /**
+     * Total amount of one status for a user, merchant or owner, across all days
+     */
+    @Query("SELECT SUM(r.amount) FROM PaymentRevenueRollup r "
+            + "WHERE r.dimension = :dimension AND r.dimensionId = :dimensionId AND r.status = :status")
+    BigDecimal sumAmount(@Param("dimension") PaymentRevenueRollup.Dimension dimension,
+                         @Param("dimensionId") Long dimensionId,
+                         @Param("status") PaymentStatus status);
+
+    /**
+     * Service-wide totals per status for payments created between two days, inclusive:
+     * rows of [status, amount, refund amount, count]
+     */
+    @Query("SELECT r.status, SUM(r.amount), SUM(r.refundAmount), SUM(r.paymentCount) FROM PaymentRevenueRollup r "
+            + "WHERE r.dimension = com.demoApp.payment.entity.PaymentRevenueRollup.Dimension.ALL "
+            + "AND r.day BETWEEN :from AND :to GROUP BY r.status")
+    List<Object[]> summarizeByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    Optional<PaymentRevenueRollup> findFirstBy();
+
+    /**
+     * Block live updates while days are rebuilt; reads carry on
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE payment_revenue_rollups IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query("DELETE FROM PaymentRevenueRollup r WHERE r.day BETWEEN :from AND :to")
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Recompute every dimension for payments created in [from, to) from the payments table;
+     * pending payments are not rolled up
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_revenue_rollups (dimension, dimension_id, status, day, amount, refund_amount, payment_count) "
+            + "SELECT 'ALL', MOD(p.id, :shards), p.status, CAST(p.created_at AS DATE), "
+            + "    SUM(p.amount), SUM(COALESCE(p.refund_amount, 0)), COUNT(*) "
+            + "FROM payments p WHERE p.created_at >= :from AND p.created_at < :to AND p.status <> 'PENDING' GROUP BY 2, 3, 4 "
+            + "UNION ALL "
+            + "SELECT 'USER', p.user_id, p.status, CAST(p.created_at AS DATE), "
+            + "    SUM(p.amount), SUM(COALESCE(p.refund_amount, 0)), COUNT(*) "
+            + "FROM payments p WHERE p.created_at >= :from AND p.created_at < :to AND p.status <> 'PENDING' GROUP BY 2, 3, 4 "
+            + "UNION ALL "
+            + "SELECT 'MERCHANT', p.merchant_id, p.status, CAST(p.created_at AS DATE), "
+            + "    SUM(p.amount), SUM(COALESCE(p.refund_amount, 0)), COUNT(*) "
+            + "FROM payments p WHERE p.created_at >= :from AND p.created_at < :to AND p.status <> 'PENDING' AND p.merchant_id IS NOT NULL "
+            + "GROUP BY 2, 3, 4 "
+            + "UNION ALL "
+            + "SELECT 'OWNER', p.owner_id, p.status, CAST(p.created_at AS DATE), "
+            + "    SUM(p.amount), SUM(COALESCE(p.refund_amount, 0)), COUNT(*) "
+            + "FROM payments p WHERE p.created_at >= :from AND p.created_at < :to AND p.status <> 'PENDING' AND p.owner_id IS NOT NULL "
+            + "GROUP BY 2, 3, 4", nativeQuery = true)
+    int rebuild(@Param("from") LocalDateTime from,
+                @Param("to") LocalDateTime to,
+                @Param("shards") int shards);
+}
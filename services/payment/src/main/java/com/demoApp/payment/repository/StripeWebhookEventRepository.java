@@ -0,0 +1,72 @@
+package com.demoApp.payment.repository;
+
+import com.demoApp.payment.entity.StripeWebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the Stripe webhook inbox
+ */
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+
+    /**
+     * Append an event unless it has been received before; returns 0 for a duplicate
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stripe_webhook_events (event_id, type, ordering_key, payload, status, attempts, "
+            + "stripe_created_at, received_at, next_attempt_at) "
+            + "VALUES (:eventId, :type, :orderingKey, :payload, 'RECEIVED', 0, :stripeCreatedAt, :receivedAt, :receivedAt) "
+            + "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("type") String type,
+                       @Param("orderingKey") String orderingKey,
+                       @Param("payload") String payload,
+                       @Param("stripeCreatedAt") long stripeCreatedAt,
+                       @Param("receivedAt") LocalDateTime receivedAt);
+
+    /**
+     * Lock the next due events, taking only the oldest unapplied event of each ordering key
+     * and none for a key whose earlier event is still being applied elsewhere
+     */
+    @Query(value = "SELECT * FROM stripe_webhook_events e "
+            + "WHERE ((e.status = 'RECEIVED' AND e.next_attempt_at <= :now) "
+            + "    OR (e.status = 'PROCESSING' AND e.locked_until < :now)) "
+            + "AND NOT EXISTS (SELECT 1 FROM stripe_webhook_events p "
+            + "    WHERE p.ordering_key = e.ordering_key AND p.event_id <> e.event_id "
+            + "    AND ((p.status = 'PROCESSING' AND p.locked_until >= :now) "
+            + "      OR (p.status IN ('RECEIVED', 'PROCESSING') AND (p.stripe_created_at < e.stripe_created_at "
+            + "          OR (p.stripe_created_at = e.stripe_created_at AND p.received_at < e.received_at))))) "
+            + "ORDER BY e.received_at LIMIT :limit FOR UPDATE OF e SKIP LOCKED", nativeQuery = true)
+    List<StripeWebhookEvent> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * How many events are waiting to be applied and when the oldest of them was received,
+     * read in one pass over the due index
+     */
+    @Query("SELECT COUNT(e) AS count, MIN(e.receivedAt) AS oldestReceivedAt FROM StripeWebhookEvent e "
+            + "WHERE e.status IN ('RECEIVED', 'PROCESSING')")
+    PendingStats findPendingStats();
+
+    /**
+     * Delete up to {@code limit} events applied before the cutoff, in a transaction of its own
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM stripe_webhook_events WHERE event_id IN (SELECT event_id FROM stripe_webhook_events "
+            + "WHERE status = 'PROCESSED' AND processed_at < :processedBefore LIMIT :limit)", nativeQuery = true)
+    int deleteProcessedBefore(@Param("processedBefore") LocalDateTime processedBefore, @Param("limit") int limit);
+
+    interface PendingStats {
+        long getCount();
+
+        LocalDateTime getOldestReceivedAt();
+    }
+}
@@ -1,10 +1,15 @@
 package com.demoApp.payment.security;
 
+import com.demoApp.common.security.JwksKeyResolver;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -12,22 +17,35 @@ import java.util.List;
  */
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    private final JwksKeyResolver jwksKeyResolver;
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration.ms}")
     private long jwtExpirationMs;
 
+    private JwtParser parser;
+
+    /**
+     * Builds the parser once for auth service tokens, which carry a kid and verify against its
+     * published keys, and for older tokens signed with the shared secret while
+     * jwt.legacy-hmac.enabled is set
+     */
+    @PostConstruct
+    void initParser() {
+        parser = jwksKeyResolver.parser(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)));
+    }
+
     /**
      * Validate JWT token
      */
     public boolean validateToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(jwtSecret.getBytes())
-                    .build()
+            parser
                     .parseClaimsJws(authToken);
             return true;
         } catch (SecurityException | MalformedJwtException e) {
@@ -46,9 +64,7 @@ public class JwtTokenProvider {
      * Get user ID from JWT token
      */
     public String getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(jwtSecret.getBytes())
-                .build()
+        Claims claims = parser
                 .parseClaimsJws(token)
                 .getBody();
 
@@ -60,9 +76,7 @@ public class JwtTokenProvider {
      */
     @SuppressWarnings("unchecked")
     public List<String> getRolesFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(jwtSecret.getBytes())
-                .build()
+        Claims claims = parser
                 .parseClaimsJws(token)
                 .getBody();
 
@@ -0,0 +1,304 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.model.PaymentStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams payments as CSV or NDJSON for reconciliation.
+ *
+ * Payments are read in keyset order on (created_at, id), a batch per short read-only
+ * transaction, and each batch through a forward-only cursor, so memory use does not grow
+ * with the size of the export and no transaction stays open for the whole download.
+ * Rows are written straight to the output stream, bypassing JPA entities and DTOs.
+ */
+@Service
+public class PaymentExportService {
+
+    private static final String[] COLUMNS = {
+            "id", "payment_id", "user_id", "merchant_id", "owner_id", "amount", "tax", "currency", "status",
+            "payment_method", "payment_provider_reference", "order_reference", "refund_amount", "refund_id",
+            "failure_code", "created_at", "completed_at", "refund_date"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public PaymentExportService(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${payment.export.batch-size:10000}") int batchSize,
+                                @Value("${payment.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Payments to export; null fields do not filter. The date range is on created_at, end exclusive.
+     */
+    public record Filter(LocalDateTime startDate, LocalDateTime endDate, PaymentStatus status, Long merchantId) {
+    }
+
+    /**
+     * Write every payment matching the filter to {@code out}; returns the number of rows written
+     */
+    public long export(Filter filter, Format format, OutputStream out) throws IOException {
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        writer.writeHeader();
+
+        long rows = 0;
+        Keyset after = null;
+        while (true) {
+            Batch batch = readBatch(filter, after, writer);
+            rows += batch.rows();
+            writer.flush();
+            if (batch.rows() < batchSize) {
+                break;
+            }
+            after = batch.last();
+        }
+        writer.finish();
+        return rows;
+    }
+
+    private Batch readBatch(Filter filter, Keyset after, RowWriter writer) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", COLUMNS)).append(" FROM payments WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (after != null) {
+            sql.append(" AND (created_at, id) > (?, ?)");
+            params.add(after.createdAt());
+            params.add(after.id());
+        }
+        if (filter.startDate() != null) {
+            sql.append(" AND created_at >= ?");
+            params.add(Timestamp.valueOf(filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            sql.append(" AND created_at < ?");
+            params.add(Timestamp.valueOf(filter.endDate()));
+        }
+        if (filter.status() != null) {
+            sql.append(" AND status = ?");
+            params.add(filter.status().name());
+        }
+        if (filter.merchantId() != null) {
+            sql.append(" AND merchant_id = ?");
+            params.add(filter.merchantId());
+        }
+        sql.append(" ORDER BY created_at, id LIMIT ?");
+        params.add(batchSize);
+
+        try {
+            // PostgreSQL only streams with a fetch size inside a transaction
+            return readOnlyTransaction.execute(status -> {
+                Batch batch = new Batch();
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    for (int i = 0; i < params.size(); i++) {
+                        statement.setObject(i + 1, params.get(i));
+                    }
+                    return statement;
+                }, resultSet -> {
+                    try {
+                        writer.writeRow(resultSet);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    batch.add(new Keyset(resultSet.getTimestamp("created_at"), resultSet.getLong("id")));
+                });
+                return batch;
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the caller decides how loud to be
+            throw e.getCause();
+        }
+    }
+
+    private record Keyset(Timestamp createdAt, long id) {
+    }
+
+    private static final class Batch {
+        private long rows;
+        private Keyset last;
+
+        private void add(Keyset keyset) {
+            rows++;
+            last = keyset;
+        }
+
+        private long rows() {
+            return rows;
+        }
+
+        private Keyset last() {
+            return last;
+        }
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet row) throws SQLException, IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        private CsvRowWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            out.write(String.join(",", COLUMNS));
+            out.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(ResultSet row) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = row.getObject(i + 1);
+                // A number cannot be a formula, and a negative amount should stay a number
+                writeField(value instanceof Number ? text(value) : neutralizeFormula(text(value)));
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        // Spreadsheets run cells starting with these as formulas; a leading quote makes them text
+        private static String neutralizeFormula(String value) {
+            if (value == null || value.isEmpty()) {
+                return value;
+            }
+            char first = value.charAt(0);
+            if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+                return "'" + value;
+            }
+            return value;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+            // Leave the response stream for the container to close
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void writeRow(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = row.getObject(i + 1);
+                if (value instanceof BigDecimal decimal) {
+                    generator.writeFieldName(COLUMNS[i]);
+                    generator.writeNumber(decimal.toPlainString());
+                } else if (value instanceof Number number) {
+                    generator.writeNumberField(COLUMNS[i], number.longValue());
+                } else {
+                    generator.writeStringField(COLUMNS[i], text(value));
+                }
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+}
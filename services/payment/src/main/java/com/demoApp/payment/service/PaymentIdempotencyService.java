@@ -0,0 +1,215 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.dto.PaymentRequestDTO;
+import com.demoApp.payment.dto.PaymentResponseDTO;
+import com.demoApp.payment.entity.PaymentIdempotencyKey;
+import com.demoApp.payment.exception.IdempotencyConflictException;
+import com.demoApp.payment.exception.PaymentException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Processes payments under a client-supplied Idempotency-Key.
+ *
+ * The first request with a key creates the payment; a retry with the same key gets the
+ * original response back without creating another payment or PaymentIntent. Duplicates
+ * arriving while the first is still running wait for its result: on this instance through
+ * an in-memory entry, on other instances by polling the key's record. Failed requests give
+ * their key back, so the client can retry with it.
+ */
+@Service
+@Slf4j
+public class PaymentIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 200;
+    private static final long RECORD_POLL_MILLIS = 100;
+
+    private final PaymentService paymentService;
+    private final PaymentIdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final long waitTimeoutMillis;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    public PaymentIdempotencyService(PaymentService paymentService,
+                                     PaymentIdempotencyStore store,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${payment.idempotency.wait-timeout-ms:15000}") long waitTimeoutMillis,
+                                     @Value("${payment.idempotency.max-entries:10000}") int maxEntries) {
+        this.paymentService = paymentService;
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.maxEntries = maxEntries;
+        this.executed = meterRegistry.counter("payment.idempotency.requests", "outcome", "executed");
+        this.replayed = meterRegistry.counter("payment.idempotency.requests", "outcome", "replayed");
+        this.conflicts = meterRegistry.counter("payment.idempotency.requests", "outcome", "conflict");
+        meterRegistry.gaugeMapSize("payment.idempotency.cached-keys", Tags.empty(), entries);
+    }
+
+    public PaymentResponseDTO processPayment(PaymentRequestDTO request, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new PaymentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        // Keys are only unique per client
+        String key = request.getUserId() + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired()) {
+                checkSameRequest(entry.requestHash, requestHash);
+                replayed.increment();
+                return await(entry);
+            }
+            Entry mine = new Entry(requestHash, System.currentTimeMillis() + store.getTtl().toMillis());
+            boolean owned = entry == null ? entries.putIfAbsent(key, mine) == null : entries.replace(key, entry, mine);
+            if (!owned) {
+                continue;
+            }
+            try {
+                PaymentResponseDTO response = run(key, requestHash, request);
+                mine.future.complete(response);
+                if (entries.size() > maxEntries) {
+                    // The record still answers replays
+                    entries.remove(key, mine);
+                }
+                return response;
+            } catch (RuntimeException e) {
+                entries.remove(key, mine);
+                mine.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.idempotency.evict-interval-ms:60000}")
+    public void evictExpired() {
+        entries.values().removeIf(entry -> entry.future.isDone() && entry.isExpired());
+    }
+
+    // Coordinates with other instances through the key's record
+    private PaymentResponseDTO run(String key, String requestHash, PaymentRequestDTO request) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        while (true) {
+            if (store.claim(key, requestHash)) {
+                return execute(key, request);
+            }
+            Optional<PaymentIdempotencyKey> existing = store.find(key);
+            if (existing.isEmpty()) {
+                // Released by a failed request in the meantime
+                continue;
+            }
+            PaymentIdempotencyKey record = existing.get();
+            checkSameRequest(record.getRequestHash(), requestHash);
+            if (record.getStatus() == PaymentIdempotencyKey.Status.COMPLETED) {
+                replayed.increment();
+                return store.readResponse(record);
+            }
+            if (store.takeOver(key, requestHash)) {
+                log.warn("Taking over payment request for idempotency key {} after its lease ran out", key);
+                return execute(key, request);
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                conflicts.increment();
+                throw new IdempotencyConflictException("A payment request with this Idempotency-Key is still in progress");
+            }
+            sleep();
+        }
+    }
+
+    private PaymentResponseDTO execute(String key, PaymentRequestDTO request) {
+        try {
+            PaymentResponseDTO response = store.runAndRecord(key, () -> paymentService.processPayment(request, key));
+            executed.increment();
+            return response;
+        } catch (RuntimeException e) {
+            try {
+                store.release(key);
+            } catch (RuntimeException releaseFailure) {
+                // The lease runs out and the next retry takes the key over
+                log.warn("Failed to release idempotency key {}: {}", key, releaseFailure.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    private PaymentResponseDTO await(Entry entry) {
+        try {
+            return entry.future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            conflicts.increment();
+            throw new IdempotencyConflictException("A payment request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new PaymentException("Error processing payment: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentException("Interrupted while waiting for a duplicate payment request");
+        }
+    }
+
+    private void checkSameRequest(String expectedHash, String requestHash) {
+        if (!expectedHash.equals(requestHash)) {
+            conflicts.increment();
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different payment request");
+        }
+    }
+
+    private String hash(PaymentRequestDTO request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new PaymentException("Failed to hash payment request", e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(RECORD_POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentException("Interrupted while waiting for a duplicate payment request");
+        }
+    }
+
+    private static final class Entry {
+        private final String requestHash;
+        private final long expiresAtMillis;
+        private final CompletableFuture<PaymentResponseDTO> future = new CompletableFuture<>();
+
+        private Entry(String requestHash, long expiresAtMillis) {
+            this.requestHash = requestHash;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+}
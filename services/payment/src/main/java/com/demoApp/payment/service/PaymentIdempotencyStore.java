@@ -0,0 +1,108 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.dto.PaymentResponseDTO;
+import com.demoApp.payment.entity.PaymentIdempotencyKey;
+import com.demoApp.payment.exception.PaymentException;
+import com.demoApp.payment.repository.PaymentIdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys shared by all instances, kept in {@code payment_idempotency_keys}.
+ *
+ * A key is claimed with a lease before its request runs, and the response is recorded in
+ * the same transaction as the payment it created, so a key is never completed without
+ * its payment or the other way round.
+ */
+@Component
+@Slf4j
+public class PaymentIdempotencyStore {
+
+    private final PaymentIdempotencyKeyRepository keyRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public PaymentIdempotencyStore(PaymentIdempotencyKeyRepository keyRepository,
+                                   ObjectMapper objectMapper,
+                                   @Value("${payment.idempotency.ttl-hours:24}") long ttlHours,
+                                   @Value("${payment.idempotency.lease-seconds:60}") long leaseSeconds) {
+        this.keyRepository = keyRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Claim a key for a new request; returns false if it is held by a live record
+     */
+    @Transactional
+    public boolean claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        return keyRepository.claim(key, requestHash, now, now.plus(lease), now.plus(ttl)) == 1;
+    }
+
+    /**
+     * Take over a request whose lease ran out, e.g. because the instance running it died
+     */
+    @Transactional
+    public boolean takeOver(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        return keyRepository.takeOver(key, requestHash, now, now.plus(lease)) == 1;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PaymentIdempotencyKey> find(String key) {
+        return keyRepository.findById(key);
+    }
+
+    /**
+     * Run the request and record its response in one transaction
+     */
+    @Transactional
+    public PaymentResponseDTO runAndRecord(String key, Supplier<PaymentResponseDTO> request) {
+        PaymentResponseDTO response = request.get();
+        try {
+            keyRepository.complete(key, objectMapper.writeValueAsString(response), response.getPaymentId());
+        } catch (JsonProcessingException e) {
+            throw new PaymentException("Failed to record payment response for idempotency key", e);
+        }
+        return response;
+    }
+
+    @Transactional
+    public void release(String key) {
+        keyRepository.release(key);
+    }
+
+    public PaymentResponseDTO readResponse(PaymentIdempotencyKey record) {
+        try {
+            return objectMapper.readValue(record.getResponse(), PaymentResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new PaymentException("Failed to read recorded payment response for idempotency key", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.idempotency.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = keyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired payment idempotency keys", purged);
+        }
+    }
+}
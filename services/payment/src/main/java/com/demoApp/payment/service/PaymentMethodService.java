@@ -3,6 +3,7 @@ package com.demoApp.payment.service;
 import com.demoApp.payment.dto.PaymentMethodDTO;
 import com.demoApp.payment.entity.PaymentMethod;
 import com.demoApp.payment.exception.PaymentException;
+import com.demoApp.payment.exception.PaymentProviderUnavailableException;
 import com.demoApp.payment.exception.ResourceNotFoundException;
 import com.demoApp.payment.repository.PaymentMethodRepository;
 import lombok.RequiredArgsConstructor;
@@ -68,6 +69,8 @@ public class PaymentMethodService {
             log.info("Payment method saved with ID: {}", savedMethod.getId());
             
             return modelMapper.map(savedMethod, PaymentMethodDTO.class);
+        } catch (PaymentProviderUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error saving payment method", e);
             throw new PaymentException("Failed to save payment method: " + e.getMessage());
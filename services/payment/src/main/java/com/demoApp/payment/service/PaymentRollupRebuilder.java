@@ -0,0 +1,70 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Rebuilds the revenue rollups from the payments table.
+ *
+ * Fills them in on the first start after they were introduced, and rebuilds the most
+ * recent days every night so any drift, e.g. from payments edited by hand, is corrected.
+ * Rebuilds run a few weeks per transaction, so live updates are only held up briefly.
+ */
+@Component
+@Slf4j
+public class PaymentRollupRebuilder {
+
+    private final PaymentRollupService rollupService;
+    private final PaymentRepository paymentRepository;
+    private final int recentDays;
+    private final int daysPerTransaction;
+
+    public PaymentRollupRebuilder(PaymentRollupService rollupService,
+                                  PaymentRepository paymentRepository,
+                                  @Value("${payment.rollups.rebuild-recent-days:7}") int recentDays,
+                                  @Value("${payment.rollups.days-per-transaction:31}") int daysPerTransaction) {
+        this.rollupService = rollupService;
+        this.paymentRepository = paymentRepository;
+        this.recentDays = recentDays;
+        this.daysPerTransaction = daysPerTransaction;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!rollupService.isEmpty()) {
+            return;
+        }
+        LocalDateTime earliest = paymentRepository.findEarliestCreatedAt();
+        if (earliest != null) {
+            log.info("Revenue rollups are empty, building them from payments since {}", earliest.toLocalDate());
+            rebuild(earliest.toLocalDate(), LocalDate.now());
+        }
+    }
+
+    @Scheduled(cron = "${payment.rollups.rebuild-cron:0 30 3 * * *}")
+    public void rebuildRecent() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(recentDays), today);
+    }
+
+    /**
+     * Rebuild the rollups of payments created between two days, inclusive
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        long start = System.currentTimeMillis();
+        int rows = 0;
+        for (LocalDate chunkStart = from; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(daysPerTransaction)) {
+            LocalDate chunkEnd = chunkStart.plusDays(daysPerTransaction - 1L);
+            rows += rollupService.rebuild(chunkStart, chunkEnd.isAfter(to) ? to : chunkEnd);
+        }
+        log.info("Rebuilt revenue rollups from {} to {}: {} rows in {} ms", from, to, rows, System.currentTimeMillis() - start);
+    }
+}
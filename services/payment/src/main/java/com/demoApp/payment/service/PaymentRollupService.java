@@ -0,0 +1,148 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.entity.Payment;
+import com.demoApp.payment.entity.PaymentRevenueRollup;
+import com.demoApp.payment.entity.PaymentRevenueRollup.Dimension;
+import com.demoApp.payment.model.PaymentStatus;
+import com.demoApp.payment.repository.PaymentRevenueRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains per-day revenue totals for the service and for each user, merchant and owner,
+ * so revenue queries read a row per day instead of every payment.
+ *
+ * Payments are counted once they leave PENDING; each status change moves the payment from
+ * one status bucket to the other in the transaction that changed it. Pending payments are
+ * left out so that creating a payment, the busiest write, does not touch shared rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRollupService {
+
+    // Spreads service-wide updates over this many rows per day and status
+    static final int ALL_SHARDS = 16;
+
+    // Same order in every transaction, so concurrent status changes cannot deadlock on rollup rows
+    private static final Comparator<Delta> LOCK_ORDER = Comparator.comparing(Delta::dimension)
+            .thenComparingLong(Delta::dimensionId)
+            .thenComparing(Delta::status)
+            .thenComparing(Delta::day);
+
+    private final PaymentRevenueRollupRepository rollupRepository;
+
+    /**
+     * The parts of a payment the rollups depend on, taken before changing it
+     */
+    public Snapshot snapshot(Payment payment) {
+        return new Snapshot(payment.getStatus(), payment.getRefundAmount());
+    }
+
+    /**
+     * Apply a payment's change since {@code before}. Does nothing if it did not change,
+     * e.g. when a webhook is applied twice, so the payment must be locked while it is read
+     * and changed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Payment payment, Snapshot before) {
+        Snapshot after = snapshot(payment);
+        if (after.status() == before.status() && Objects.equals(after.refundAmount(), before.refundAmount())) {
+            return;
+        }
+        LocalDate day = payment.getCreatedAt().toLocalDate();
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<Dimension, Long> key : dimensions(payment).entrySet()) {
+            if (before.status() != PaymentStatus.PENDING) {
+                deltas.add(new Delta(key.getKey(), key.getValue(), before.status(), day,
+                        payment.getAmount().negate(), refund(before).negate(), -1));
+            }
+            if (after.status() != PaymentStatus.PENDING) {
+                deltas.add(new Delta(key.getKey(), key.getValue(), after.status(), day,
+                        payment.getAmount(), refund(after), 1));
+            }
+        }
+        deltas.sort(LOCK_ORDER);
+        for (Delta delta : deltas) {
+            rollupRepository.add(delta.dimension().name(), delta.dimensionId(), delta.status().name(), delta.day(),
+                    delta.amount(), delta.refundAmount(), delta.count());
+        }
+    }
+
+    /**
+     * Total amount of payments in a status for a user, merchant or owner
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal totalAmount(Dimension dimension, Long dimensionId, PaymentStatus status) {
+        BigDecimal total = rollupRepository.sumAmount(dimension, dimensionId, status);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    /**
+     * Service-wide totals per status for payments created between two days, inclusive
+     */
+    @Transactional(readOnly = true)
+    public Map<PaymentStatus, Totals> summarize(LocalDate from, LocalDate to) {
+        Map<PaymentStatus, Totals> totals = new EnumMap<>(PaymentStatus.class);
+        for (Object[] row : rollupRepository.summarizeByStatus(from, to)) {
+            totals.put((PaymentStatus) row[0],
+                    new Totals((BigDecimal) row[1], (BigDecimal) row[2], ((Number) row[3]).longValue()));
+        }
+        return totals;
+    }
+
+    /**
+     * Recompute the rollups of payments created between two days, inclusive, from the
+     * payments table. Live updates wait until the rebuild commits.
+     */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        rollupRepository.lockForRebuild();
+        rollupRepository.deleteDays(from, to);
+        return rollupRepository.rebuild(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), ALL_SHARDS);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return rollupRepository.findFirstBy().isEmpty();
+    }
+
+    private static Map<Dimension, Long> dimensions(Payment payment) {
+        Map<Dimension, Long> dimensions = new EnumMap<>(Dimension.class);
+        dimensions.put(Dimension.ALL, payment.getId() % ALL_SHARDS);
+        dimensions.put(Dimension.USER, payment.getUserId());
+        if (payment.getMerchantId() != null) {
+            dimensions.put(Dimension.MERCHANT, payment.getMerchantId());
+        }
+        if (payment.getOwnerId() != null) {
+            dimensions.put(Dimension.OWNER, payment.getOwnerId());
+        }
+        return dimensions;
+    }
+
+    private static BigDecimal refund(Snapshot snapshot) {
+        return snapshot.refundAmount() != null ? snapshot.refundAmount() : BigDecimal.ZERO;
+    }
+
+    public record Snapshot(PaymentStatus status, BigDecimal refundAmount) {
+    }
+
+    public record Totals(BigDecimal amount, BigDecimal refundAmount, long count) {
+    }
+
+    private record Delta(Dimension dimension, long dimensionId, PaymentStatus status, LocalDate day,
+                         BigDecimal amount, BigDecimal refundAmount, long count) {
+    }
+}
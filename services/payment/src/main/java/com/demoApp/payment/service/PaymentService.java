@@ -4,7 +4,9 @@ import com.demoApp.payment.dto.PaymentRequestDTO;
 import com.demoApp.payment.dto.PaymentResponseDTO;
 import com.demoApp.payment.dto.RefundRequestDTO;
 import com.demoApp.payment.entity.Payment;
+import com.demoApp.payment.entity.PaymentRevenueRollup;
 import com.demoApp.payment.exception.PaymentException;
+import com.demoApp.payment.exception.PaymentProviderUnavailableException;
 import com.demoApp.payment.exception.ResourceNotFoundException;
 import com.demoApp.payment.model.PaymentStatus;
 import com.demoApp.payment.repository.PaymentRepository;
@@ -35,6 +37,7 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final StripeService stripeService;
     private final ModelMapper modelMapper;
+    private final PaymentRollupService rollupService;
 
     /**
      * Process a payment.
@@ -42,6 +45,15 @@ public class PaymentService {
      */
     @Transactional
     public PaymentResponseDTO processPayment(PaymentRequestDTO dto) {
+        return processPayment(dto, null);
+    }
+
+    /**
+     * Process a payment under an idempotency key, which is passed on to Stripe so a
+     * retried request gets the same PaymentIntent back.
+     */
+    @Transactional
+    public PaymentResponseDTO processPayment(PaymentRequestDTO dto, String idempotencyKey) {
         log.info("Processing payment for user ID: {}, amount: {}", dto.getUserId(), dto.getAmount());
         try {
             Payment payment = createPaymentRecord(dto);
@@ -58,7 +70,8 @@ public class PaymentService {
                     dto.getCurrency(),
                     dto.getDescription(),
                     dto.getUserId().toString(),
-                    metadataMap
+                    metadataMap,
+                    idempotencyKey
             );
 
             // Update payment record with Stripe payment intent reference.
@@ -73,6 +86,8 @@ public class PaymentService {
 
             log.info("Payment processed successfully. Payment ID: {}", payment.getPaymentId());
             return response;
+        } catch (PaymentProviderUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error processing payment", e);
             throw new PaymentException("Error processing payment: " + e.getMessage());
@@ -100,6 +115,8 @@ public class PaymentService {
             response.setSetupIntentId(setupIntentId);
             log.info("Payment setup created successfully");
             return response;
+        } catch (PaymentProviderUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error creating payment setup", e);
             throw new PaymentException("Error creating payment setup: " + e.getMessage());
@@ -114,8 +131,9 @@ public class PaymentService {
     public PaymentResponseDTO processRefund(RefundRequestDTO dto) {
         log.info("Processing refund for payment ID: {}, amount: {}", dto.getPaymentId(), dto.getAmount());
         try {
-            Payment payment = paymentRepository.findByPaymentId(dto.getPaymentId())
+            Payment payment = paymentRepository.findByPaymentIdForUpdate(dto.getPaymentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Payment not found with ID: " + dto.getPaymentId()));
+            PaymentRollupService.Snapshot before = rollupService.snapshot(payment);
             if (payment.getStatus() != PaymentStatus.COMPLETED) {
                 throw new PaymentException("Payment cannot be refunded because it is not completed");
             }
@@ -133,12 +151,15 @@ public class PaymentService {
             );
             payment.markAsRefunded(dto.getAmount(), dto.getReason(), refund.getId());
             paymentRepository.save(payment);
+            rollupService.recordTransition(payment, before);
 
             PaymentResponseDTO response = modelMapper.map(payment, PaymentResponseDTO.class);
             log.info("Refund processed successfully. Payment ID: {}, Refund ID: {}", payment.getPaymentId(), refund.getId());
             return response;
         } catch (ResourceNotFoundException e) {
             throw e;
+        } catch (PaymentProviderUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error processing refund", e);
             throw new PaymentException("Error processing refund: " + e.getMessage());
@@ -202,8 +223,10 @@ public class PaymentService {
     @Transactional
     public void updatePaymentStatus(String paymentIntentId, PaymentStatus status, String failureMessage, String failureCode) {
         log.info("Updating payment status for payment intent ID: {}, status: {}", paymentIntentId, status);
-        Payment payment = paymentRepository.findByPaymentProviderReference(paymentIntentId)
+        // Locked so a status applied twice at once is only rolled up once
+        Payment payment = paymentRepository.findByPaymentProviderReferenceForUpdate(paymentIntentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found with payment intent ID: " + paymentIntentId));
+        PaymentRollupService.Snapshot before = rollupService.snapshot(payment);
         if (status == PaymentStatus.COMPLETED) {
             payment.markAsCompleted();
         } else if (status == PaymentStatus.FAILED) {
@@ -212,31 +235,42 @@ public class PaymentService {
             payment.setStatus(status);
         }
         paymentRepository.save(payment);
+        rollupService.recordTransition(payment, before);
         log.info("Payment status updated successfully. Payment ID: {}", payment.getPaymentId());
     }
 
     public BigDecimal calculateTotalCompletedAmountForUser(Long userId) {
-        BigDecimal total = paymentRepository.calculateTotalCompletedAmountForUser(userId);
-        return total != null ? total : BigDecimal.ZERO;
+        return rollupService.totalAmount(PaymentRevenueRollup.Dimension.USER, userId, PaymentStatus.COMPLETED);
     }
 
     public BigDecimal calculateTotalCompletedAmountForMerchant(Long merchantId) {
-        BigDecimal total = paymentRepository.calculateTotalCompletedAmountForMerchant(merchantId);
-        return total != null ? total : BigDecimal.ZERO;
+        return rollupService.totalAmount(PaymentRevenueRollup.Dimension.MERCHANT, merchantId, PaymentStatus.COMPLETED);
     }
 
+    /**
+     * Total amount of completed payments created between two dates.
+     * Read from the daily rollups, so it covers the whole days the dates fall on.
+     */
     public BigDecimal calculateTotalProcessedAmount(LocalDateTime startDate, LocalDateTime endDate) {
         log.info("Calculating total processed amount between {} and {}", startDate, endDate);
         BigDecimal total = BigDecimal.ZERO;
         try {
-            Page<Payment> payments = paymentRepository.findByCreatedAtBetween(startDate, endDate, Pageable.unpaged());
-            total = payments.stream()
-                    .filter(p -> p.getStatus() == PaymentStatus.COMPLETED)
-                    .map(Payment::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            PaymentRollupService.Totals completed = rollupService
+                    .summarize(startDate.toLocalDate(), endDate.toLocalDate())
+                    .get(PaymentStatus.COMPLETED);
+            if (completed != null) {
+                total = completed.amount();
+            }
         } catch (Exception e) {
             log.error("Error calculating total processed amount", e);
         }
         return total;
     }
+
+    /**
+     * Totals per status of payments created between two dates, by whole days
+     */
+    public Map<PaymentStatus, PaymentRollupService.Totals> summarizePayments(LocalDateTime startDate, LocalDateTime endDate) {
+        return rollupService.summarize(startDate.toLocalDate(), endDate.toLocalDate());
+    }
 }
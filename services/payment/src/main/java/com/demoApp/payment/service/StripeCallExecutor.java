@@ -0,0 +1,150 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.exception.PaymentException;
+import com.demoApp.payment.exception.PaymentProviderUnavailableException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs Stripe API calls on their own bounded thread pool, behind a timeout and a circuit
+ * breaker, so a slow or failing Stripe cannot tie up the request threads of the whole service.
+ *
+ * Only outages count against the circuit: timeouts, connection errors, Stripe server
+ * errors and rate limiting. Declined cards and invalid requests are answers, not outages.
+ * Every call is timed per operation and outcome in {@code payment.stripe.calls}.
+ */
+@Component
+@Slf4j
+public class StripeCallExecutor {
+
+    private static final String NAME = "stripe";
+
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolBulkhead bulkhead;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface StripeCall<T> {
+        T call() throws StripeException;
+    }
+
+    public StripeCallExecutor(CircuitBreakerRegistry circuitBreakerRegistry,
+                              ThreadPoolBulkheadRegistry bulkheadRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${payment.stripe.client.max-concurrent-calls:20}") int maxConcurrentCalls,
+                              @Value("${payment.stripe.client.queue-capacity:20}") int queueCapacity,
+                              @Value("${payment.stripe.client.timeout-ms:10000}") long timeoutMillis,
+                              @Value("${payment.stripe.client.failure-rate-threshold:50}") float failureRateThreshold,
+                              @Value("${payment.stripe.client.open-state-seconds:15}") long openStateSeconds) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(NAME, CircuitBreakerConfig.custom()
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(10)
+                .failureRateThreshold(failureRateThreshold)
+                .waitDurationInOpenState(Duration.ofSeconds(openStateSeconds))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .recordException(StripeCallExecutor::isOutage)
+                .build());
+        this.bulkhead = bulkheadRegistry.bulkhead(NAME, ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(maxConcurrentCalls)
+                .maxThreadPoolSize(maxConcurrentCalls)
+                .queueCapacity(queueCapacity)
+                .build());
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a Stripe call, e.g. {@code execute("refund.create", () -> Refund.create(params))}.
+     * Stripe errors are rethrown as they are; throws PaymentProviderUnavailableException if the
+     * call was rejected or timed out.
+     */
+    public <T> T execute(String operation, StripeCall<T> call) throws StripeException {
+        long start = System.nanoTime();
+        if (!circuitBreaker.tryAcquirePermission()) {
+            record(operation, "circuit_open", start);
+            throw new PaymentProviderUnavailableException("Stripe is unavailable, try again shortly");
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = bulkhead.executeCallable(call::call).toCompletableFuture();
+        } catch (BulkheadFullException e) {
+            circuitBreaker.releasePermission();
+            record(operation, "bulkhead_full", start);
+            throw new PaymentProviderUnavailableException("Too many payments in progress, try again shortly", e);
+        }
+
+        try {
+            T result = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            record(operation, "success", start);
+            return result;
+        } catch (TimeoutException e) {
+            // The worker finishes on its own once Stripe's read timeout fires
+            future.cancel(true);
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            record(operation, "timeout", start);
+            log.warn("Stripe {} timed out after {} ms", operation, timeout.toMillis());
+            throw new PaymentProviderUnavailableException("Stripe did not respond in time", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, cause);
+            record(operation, isOutage(cause) ? "unavailable" : "error", start);
+            if (cause instanceof StripeException stripeException) {
+                throw stripeException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PaymentException("Stripe " + operation + " failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.releasePermission();
+            throw new PaymentException("Interrupted while waiting for Stripe " + operation, e);
+        }
+    }
+
+    private static boolean isOutage(Throwable throwable) {
+        return throwable instanceof TimeoutException
+                || throwable instanceof ApiConnectionException
+                || throwable instanceof ApiException
+                || throwable instanceof RateLimitException;
+    }
+
+    private void record(String operation, String outcome, long start) {
+        timers.computeIfAbsent(operation + '|' + outcome, key -> Timer.builder("payment.stripe.calls")
+                        .description("Latency of Stripe API calls, including time queued for the bulkhead")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
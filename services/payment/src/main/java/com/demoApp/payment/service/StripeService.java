@@ -9,6 +9,7 @@ import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.Refund;
 import com.stripe.model.SetupIntent;
+import com.stripe.net.RequestOptions;
 import com.stripe.net.Webhook;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.stripe.param.RefundCreateParams;
@@ -38,12 +39,23 @@ public class StripeService {
     private String webhookSecret;
     
     private final PaymentCustomerRepository paymentCustomerRepository;
+    private final StripeCallExecutor stripeCalls;
 
     /**
      * Create a payment intent
      */
     public PaymentIntent createPaymentIntent(Long amount, String currency, String description, 
                                              String customerId, Map<String, String> metadata) {
+        return createPaymentIntent(amount, currency, description, customerId, metadata, null);
+    }
+
+    /**
+     * Create a payment intent under an idempotency key, so Stripe returns the same
+     * payment intent when the request is retried with that key
+     */
+    public PaymentIntent createPaymentIntent(Long amount, String currency, String description,
+                                             String customerId, Map<String, String> metadata,
+                                             String idempotencyKey) {
         try {
             log.info("Creating payment intent for amount: {}, currency: {}, customer: {}", 
                     amount, currency, customerId);
@@ -55,7 +67,12 @@ public class StripeService {
                     .setCustomer(customerId)
                     .putAllMetadata(metadata);
 
-            PaymentIntent paymentIntent = PaymentIntent.create(paramsBuilder.build());
+            RequestOptions.RequestOptionsBuilder options = RequestOptions.builder();
+            if (idempotencyKey != null) {
+                options.setIdempotencyKey("payment-intent:" + idempotencyKey);
+            }
+            PaymentIntent paymentIntent = stripeCalls.execute("payment_intent.create",
+                    () -> PaymentIntent.create(paramsBuilder.build(), options.build()));
             
             log.info("Payment intent created successfully: {}", paymentIntent.getId());
             return paymentIntent;
@@ -77,7 +94,7 @@ public class StripeService {
                     .putAllMetadata(metadata)
                     .build();
 
-            SetupIntent setupIntent = SetupIntent.create(params);
+            SetupIntent setupIntent = stripeCalls.execute("setup_intent.create", () -> SetupIntent.create(params));
             
             log.info("Setup intent created successfully: {}", setupIntent.getId());
             return setupIntent.getId();
@@ -106,7 +123,7 @@ public class StripeService {
                 paramsBuilder.putAllMetadata(metadata);
             }
             
-            Refund refund = Refund.create(paramsBuilder.build());
+            Refund refund = stripeCalls.execute("refund.create", () -> Refund.create(paramsBuilder.build()));
             
             log.info("Refund created successfully: {}", refund.getId());
             return refund;
@@ -147,7 +164,8 @@ public class StripeService {
                         customerParams.put("name", name);
                         customerParams.put("metadata", Map.of("userId", userId));
                         
-                        com.stripe.model.Customer stripeCustomer = com.stripe.model.Customer.create(customerParams);
+                        com.stripe.model.Customer stripeCustomer = stripeCalls.execute("customer.create",
+                                () -> com.stripe.model.Customer.create(customerParams));
                         String stripeCustomerId = stripeCustomer.getId();
                         
                         PaymentCustomer paymentCustomer = new PaymentCustomer();
@@ -176,12 +194,12 @@ public class StripeService {
             log.info("Saving payment method for customer: {}", customerId);
             
             if (stripePaymentMethodId != null && !stripePaymentMethodId.isEmpty()) {
-                com.stripe.model.PaymentMethod paymentMethod = 
-                        com.stripe.model.PaymentMethod.retrieve(stripePaymentMethodId);
+                com.stripe.model.PaymentMethod paymentMethod = stripeCalls.execute("payment_method.retrieve",
+                        () -> com.stripe.model.PaymentMethod.retrieve(stripePaymentMethodId));
                 
                 Map<String, Object> params = new HashMap<>();
                 params.put("customer", customerId);
-                paymentMethod.attach(params);
+                stripeCalls.execute("payment_method.attach", () -> paymentMethod.attach(params));
                 
                 log.info("Attached existing payment method: {}", stripePaymentMethodId);
                 return stripePaymentMethodId;
@@ -192,8 +210,10 @@ public class StripeService {
                 params.put("customer", customerId);
                 params.put("source", stripeToken);
                 
-                com.stripe.model.Customer customer = com.stripe.model.Customer.retrieve(customerId);
-                com.stripe.model.PaymentSource source = customer.getSources().create(params);
+                com.stripe.model.Customer customer = stripeCalls.execute("customer.retrieve",
+                        () -> com.stripe.model.Customer.retrieve(customerId));
+                com.stripe.model.PaymentSource source = stripeCalls.execute("source.create",
+                        () -> customer.getSources().create(params));
                 
                 log.info("Created payment method from token: {}", source.getId());
                 return source.getId();
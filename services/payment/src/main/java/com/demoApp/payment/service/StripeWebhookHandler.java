@@ -0,0 +1,70 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.entity.StripeWebhookEvent;
+import com.demoApp.payment.exception.PaymentException;
+import com.demoApp.payment.model.PaymentStatus;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.net.ApiResource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies a Stripe webhook event from the inbox to the payment it concerns.
+ * Throws if the event could not be applied, so the inbox retries it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookHandler {
+
+    private final PaymentService paymentService;
+
+    public void apply(StripeWebhookEvent inboxEvent) {
+        // The signature was checked when the event was received
+        Event event = ApiResource.GSON.fromJson(inboxEvent.getPayload(), Event.class);
+        StripeObject stripeObject = event.getDataObjectDeserializer().getObject().orElse(null);
+        if (stripeObject == null) {
+            throw new PaymentException("Failed to deserialize Stripe object for event " + event.getId());
+        }
+
+        switch (event.getType()) {
+            case "payment_intent.succeeded":
+                handlePaymentIntentSucceeded((PaymentIntent) stripeObject);
+                break;
+
+            case "payment_intent.payment_failed":
+                handlePaymentIntentFailed((PaymentIntent) stripeObject);
+                break;
+
+            case "charge.refunded":
+                // Could add handling for refund events
+                log.info("Refund event received: {}", event.getId());
+                break;
+
+            default:
+                log.info("Unhandled event type: {}", event.getType());
+        }
+    }
+
+    private void handlePaymentIntentSucceeded(PaymentIntent paymentIntent) {
+        log.info("Payment intent succeeded: {}", paymentIntent.getId());
+        paymentService.updatePaymentStatus(paymentIntent.getId(), PaymentStatus.COMPLETED, null, null);
+    }
+
+    private void handlePaymentIntentFailed(PaymentIntent paymentIntent) {
+        log.info("Payment intent failed: {}", paymentIntent.getId());
+
+        String failureMessage = paymentIntent.getLastPaymentError() != null
+                ? paymentIntent.getLastPaymentError().getMessage()
+                : "Payment failed";
+
+        String failureCode = paymentIntent.getLastPaymentError() != null
+                ? paymentIntent.getLastPaymentError().getCode()
+                : "unknown";
+
+        paymentService.updatePaymentStatus(paymentIntent.getId(), PaymentStatus.FAILED, failureMessage, failureCode);
+    }
+}
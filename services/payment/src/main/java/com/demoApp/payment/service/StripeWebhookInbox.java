@@ -0,0 +1,149 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.entity.StripeWebhookEvent;
+import com.demoApp.payment.repository.StripeWebhookEventRepository;
+import com.stripe.model.Charge;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
+import com.stripe.model.StripeObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Durable inbox of verified Stripe webhook events, kept in {@code stripe_webhook_events}.
+ *
+ * Appending is a single insert that ignores an event id already seen, so Stripe's
+ * redeliveries are acknowledged without being applied twice. Events are claimed with a
+ * lease, so an event claimed by an instance that died is picked up again.
+ *
+ * Applied events are deleted after {@code retention-days}. Stripe redelivers an event for up
+ * to three days, so the retention may not be shorter: a redelivery must still find its id.
+ * Failed events are kept for investigation.
+ */
+@Component
+@Slf4j
+public class StripeWebhookInbox {
+
+    static final int MIN_RETENTION_DAYS = 3;
+
+    private final StripeWebhookEventRepository eventRepository;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration retention;
+    private final int purgeBatchSize;
+
+    public StripeWebhookInbox(StripeWebhookEventRepository eventRepository,
+                              @Value("${payment.webhook.inbox.lease-seconds:60}") long leaseSeconds,
+                              @Value("${payment.webhook.inbox.max-attempts:10}") int maxAttempts,
+                              @Value("${payment.webhook.inbox.retry-backoff-ms:1000}") long retryBackoffMillis,
+                              @Value("${payment.webhook.inbox.retention-days:7}") int retentionDays,
+                              @Value("${payment.webhook.inbox.purge-batch-size:1000}") int purgeBatchSize) {
+        if (retentionDays < MIN_RETENTION_DAYS) {
+            throw new IllegalArgumentException("Webhook events must be kept for at least " + MIN_RETENTION_DAYS
+                    + " days, Stripe's redelivery window");
+        }
+        this.eventRepository = eventRepository;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+        this.retention = Duration.ofDays(retentionDays);
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Store a verified event; returns false if it was already in the inbox.
+     */
+    @Transactional
+    public boolean append(Event event, String payload) {
+        long created = event.getCreated() != null ? event.getCreated() : 0;
+        return eventRepository.insertIfAbsent(event.getId(), event.getType(), orderingKey(event), payload,
+                created, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Claim up to {@code limit} events for this instance.
+     */
+    @Transactional
+    public List<StripeWebhookEvent> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StripeWebhookEvent> events = eventRepository.lockDue(now, limit);
+        for (StripeWebhookEvent event : events) {
+            event.setStatus(StripeWebhookEvent.Status.PROCESSING);
+            event.setLockedUntil(now.plus(lease));
+            event.setAttempts(event.getAttempts() + 1);
+        }
+        return eventRepository.saveAll(events);
+    }
+
+    @Transactional
+    public void markProcessed(StripeWebhookEvent event) {
+        event.setStatus(StripeWebhookEvent.Status.PROCESSED);
+        event.setProcessedAt(LocalDateTime.now());
+        event.setLockedUntil(null);
+        event.setLastError(null);
+        eventRepository.save(event);
+    }
+
+    /**
+     * Schedule a retry with exponential backoff, or give up once the attempts are spent.
+     * Returns true if the event will be retried. Later events for the same payment intent
+     * wait until this one is retried successfully or given up on.
+     */
+    @Transactional
+    public boolean markFailed(StripeWebhookEvent event, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean retry = event.getAttempts() < maxAttempts;
+        event.setStatus(retry ? StripeWebhookEvent.Status.RECEIVED : StripeWebhookEvent.Status.FAILED);
+        event.setNextAttemptAt(now.plus(retryBackoff.multipliedBy(1L << Math.min(event.getAttempts() - 1, 10))));
+        event.setLockedUntil(null);
+        event.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        eventRepository.save(event);
+        return retry;
+    }
+
+    public StripeWebhookEventRepository.PendingStats pendingStats() {
+        return eventRepository.findPendingStats();
+    }
+
+    /**
+     * Delete applied events past retention, a batch per transaction so a large backlog does
+     * not hold locks the workers are waiting on. Returns the number deleted.
+     */
+    @Scheduled(fixedDelayString = "${payment.webhook.inbox.purge-interval-ms:3600000}")
+    public int purgeProcessed() {
+        LocalDateTime processedBefore = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = eventRepository.deleteProcessedBefore(processedBefore, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.info("Purged {} processed webhook events", total);
+        }
+        return total;
+    }
+
+    // Events that do not belong to a payment intent need no ordering, so they key on themselves
+    private static String orderingKey(Event event) {
+        StripeObject object = event.getDataObjectDeserializer().getObject().orElse(null);
+        String paymentIntentId = null;
+        if (object instanceof PaymentIntent paymentIntent) {
+            paymentIntentId = paymentIntent.getId();
+        } else if (object instanceof Charge charge) {
+            paymentIntentId = charge.getPaymentIntent();
+        } else if (object instanceof Refund refund) {
+            paymentIntentId = refund.getPaymentIntent();
+        }
+        return paymentIntentId != null ? paymentIntentId : event.getId();
+    }
+}
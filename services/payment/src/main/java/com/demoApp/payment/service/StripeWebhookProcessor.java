@@ -0,0 +1,149 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.entity.StripeWebhookEvent;
+import com.demoApp.payment.repository.StripeWebhookEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the Stripe webhook inbox on a bounded worker pool.
+ *
+ * The inbox hands out at most one event per payment intent at a time, so events for
+ * the same intent are applied in order while different intents run in parallel. Each
+ * poll claims only as many events as there are free workers.
+ */
+@Component
+@Slf4j
+public class StripeWebhookProcessor {
+
+    private final StripeWebhookInbox inbox;
+    private final StripeWebhookHandler handler;
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final Timer lagTimer;
+    private final Counter processed;
+    private final Counter retried;
+    private final Counter abandoned;
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+
+    public StripeWebhookProcessor(StripeWebhookInbox inbox,
+                                  StripeWebhookHandler handler,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${payment.webhook.inbox.workers:4}") int workerCount) {
+        this.inbox = inbox;
+        this.handler = handler;
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "stripe-webhook");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.permits = new Semaphore(workerCount);
+        this.lagTimer = Timer.builder("payment.webhook.lag")
+                .description("Time from receiving a webhook event to applying it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.processed = meterRegistry.counter("payment.webhook.events", "outcome", "processed");
+        this.retried = meterRegistry.counter("payment.webhook.events", "outcome", "retry");
+        this.abandoned = meterRegistry.counter("payment.webhook.events", "outcome", "failed");
+        meterRegistry.gauge("payment.webhook.inbox.depth", depth);
+        meterRegistry.gauge("payment.webhook.inbox.oldest-age-seconds", oldestPendingAgeSeconds);
+    }
+
+    // Only the scheduler thread claims, so the free permits cannot shrink underneath us
+    @Scheduled(fixedDelayString = "${payment.webhook.inbox.poll-interval-ms:200}")
+    public void poll() {
+        int free = permits.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        List<StripeWebhookEvent> claimed;
+        try {
+            claimed = inbox.claim(free);
+        } catch (RuntimeException e) {
+            log.warn("Failed to claim webhook events: {}", e.getMessage());
+            return;
+        }
+        for (StripeWebhookEvent event : claimed) {
+            permits.acquireUninterruptibly();
+            try {
+                workers.execute(() -> {
+                    try {
+                        process(event);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Shutting down; the lease returns the rest to the inbox
+                permits.release();
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook.inbox.stats-interval-ms:5000}")
+    public void refreshStats() {
+        try {
+            StripeWebhookEventRepository.PendingStats stats = inbox.pendingStats();
+            depth.set(stats.getCount());
+            LocalDateTime oldest = stats.getOldestReceivedAt();
+            oldestPendingAgeSeconds.set(oldest != null ? Duration.between(oldest, LocalDateTime.now()).toSeconds() : 0);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read webhook inbox stats: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void process(StripeWebhookEvent event) {
+        try {
+            handler.apply(event);
+        } catch (RuntimeException e) {
+            fail(event, e);
+            return;
+        }
+        try {
+            inbox.markProcessed(event);
+            processed.increment();
+            lagTimer.record(Duration.between(event.getReceivedAt(), LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            // The lease returns it to the inbox; applying a status update twice is harmless
+            log.warn("Failed to mark webhook event {} processed: {}", event.getEventId(), e.getMessage());
+        }
+    }
+
+    private void fail(StripeWebhookEvent event, RuntimeException cause) {
+        try {
+            if (inbox.markFailed(event, cause.getMessage())) {
+                retried.increment();
+                log.warn("Webhook event {} ({}) failed, will retry: {}", event.getEventId(), event.getType(), cause.getMessage());
+            } else {
+                abandoned.increment();
+                log.error("Giving up on webhook event {} ({}) after {} attempts",
+                        event.getEventId(), event.getType(), event.getAttempts(), cause);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to record failure of webhook event {}: {}", event.getEventId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.demoApp.payment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentExportServiceTest {
+
+	private static final List<String> COLUMNS = List.of(
+			"id", "payment_id", "user_id", "merchant_id", "owner_id", "amount", "tax", "currency", "status",
+			"payment_method", "payment_provider_reference", "order_reference", "refund_amount", "refund_id",
+			"failure_code", "created_at", "completed_at", "refund_date");
+	private static final String HEADER = String.join(",", COLUMNS) + "\r\n";
+	private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+	private final List<Object[]> payments = new ArrayList<>();
+	private final List<String> queries = new ArrayList<>();
+	private final DataSource dataSource = mock(DataSource.class);
+
+	PaymentExportServiceTest() throws SQLException {
+		Connection connection = mock(Connection.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.prepareStatement(anyString(), anyInt(), anyInt()))
+				.thenAnswer(invocation -> statement(invocation.getArgument(0)));
+	}
+
+	@Test
+	void quotesCsvFieldsOnlyWhenNeeded() throws IOException {
+		Object[] row = payment(1, CREATED);
+		row[column("payment_provider_reference")] = "pi_1, pi_2";
+		row[column("order_reference")] = "order \"A\"";
+		row[column("failure_code")] = "line\r\nbreak";
+		row[column("payment_method")] = "plain";
+
+		String csv = export(10, PaymentExportService.Format.CSV);
+
+		assertEquals(HEADER + "1,pay-1,7,9,,12.50,0,USD,COMPLETED,plain,\"pi_1, pi_2\",\"order \"\"A\"\"\",,,"
+				+ "\"line\r\nbreak\",2024-03-01T12:00,,\r\n", csv);
+	}
+
+	@Test
+	void turnsFormulasIntoText() throws IOException {
+		Object[] row = payment(1, CREATED);
+		row[column("payment_method")] = "=HYPERLINK(\"http://example.com\")";
+		row[column("payment_provider_reference")] = "+1";
+		row[column("order_reference")] = "-2";
+		row[column("failure_code")] = "@SUM(A1)";
+		// Numbers are never formulas
+		row[column("refund_amount")] = new BigDecimal("-3.00");
+
+		String line = export(10, PaymentExportService.Format.CSV).substring(HEADER.length());
+
+		assertEquals("1,pay-1,7,9,,12.50,0,USD,COMPLETED,\"'=HYPERLINK(\"\"http://example.com\"\")\",'+1,'-2,-3.00,,"
+				+ "'@SUM(A1),2024-03-01T12:00,,\r\n", line);
+	}
+
+	@Test
+	void writesNdjsonNumbersAsNumbersAndNullsAsNull() throws IOException {
+		payment(1, CREATED);
+		payment(2, CREATED.plusMinutes(1))[column("refund_amount")] = new BigDecimal("5.00");
+
+		String ndjson = export(10, PaymentExportService.Format.NDJSON);
+
+		assertEquals("{\"id\":1,\"payment_id\":\"pay-1\",\"user_id\":7,\"merchant_id\":9,\"owner_id\":null,"
+				+ "\"amount\":12.50,\"tax\":0,\"currency\":\"USD\",\"status\":\"COMPLETED\",\"payment_method\":null,"
+				+ "\"payment_provider_reference\":null,\"order_reference\":null,\"refund_amount\":null,"
+				+ "\"refund_id\":null,\"failure_code\":null,\"created_at\":\"2024-03-01T12:00\","
+				+ "\"completed_at\":null,\"refund_date\":null}\n"
+				+ "{\"id\":2,\"payment_id\":\"pay-2\",\"user_id\":7,\"merchant_id\":9,\"owner_id\":null,"
+				+ "\"amount\":12.50,\"tax\":0,\"currency\":\"USD\",\"status\":\"COMPLETED\",\"payment_method\":null,"
+				+ "\"payment_provider_reference\":null,\"order_reference\":null,\"refund_amount\":5.00,"
+				+ "\"refund_id\":null,\"failure_code\":null,\"created_at\":\"2024-03-01T12:01\","
+				+ "\"completed_at\":null,\"refund_date\":null}\n", ndjson);
+	}
+
+	@Test
+	void writesNothingForAnEmptyNdjsonExport() throws IOException {
+		assertEquals("", export(10, PaymentExportService.Format.NDJSON));
+	}
+
+	@Test
+	void continuesPastABatchBoundaryWithinTheSameCreatedAt() throws IOException {
+		// Ids 2, 3 and 4 share created_at, and the first batch ends at 2
+		payment(5, CREATED.plusMinutes(1));
+		payment(3, CREATED);
+		payment(1, CREATED.minusMinutes(1));
+		payment(4, CREATED);
+		payment(2, CREATED);
+
+		String csv = export(2, PaymentExportService.Format.CSV);
+
+		assertEquals(List.of("1", "2", "3", "4", "5"), ids(csv));
+		assertEquals(3, queries.size());
+	}
+
+	@Test
+	void stopsAfterAnEmptyBatchWhenTheLastOneWasFull() throws IOException {
+		payment(1, CREATED);
+		payment(2, CREATED);
+
+		String csv = export(2, PaymentExportService.Format.CSV);
+
+		assertEquals(List.of("1", "2"), ids(csv));
+		assertEquals(2, queries.size());
+	}
+
+	private String export(int batchSize, PaymentExportService.Format format) throws IOException {
+		PaymentExportService service = new PaymentExportService(dataSource, mock(PlatformTransactionManager.class),
+				new ObjectMapper(), batchSize, 100);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = service.export(new PaymentExportService.Filter(null, null, null, null), format, out);
+		assertEquals(payments.size(), rows);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private Object[] payment(long id, LocalDateTime createdAt) {
+		Object[] row = new Object[COLUMNS.size()];
+		row[column("id")] = id;
+		row[column("payment_id")] = "pay-" + id;
+		row[column("user_id")] = 7L;
+		row[column("merchant_id")] = 9L;
+		row[column("amount")] = new BigDecimal("12.50");
+		row[column("tax")] = BigDecimal.ZERO;
+		row[column("currency")] = "USD";
+		row[column("status")] = "COMPLETED";
+		row[column("created_at")] = Timestamp.valueOf(createdAt);
+		payments.add(row);
+		return row;
+	}
+
+	private static int column(String name) {
+		return COLUMNS.indexOf(name);
+	}
+
+	private static List<String> ids(String csv) {
+		return Arrays.stream(csv.substring(HEADER.length()).split("\r\n"))
+				.map(line -> line.substring(0, line.indexOf(',')))
+				.toList();
+	}
+
+	// Answers the export's query over the in-memory payments: keyset, order and limit
+	private PreparedStatement statement(String sql) throws SQLException {
+		queries.add(sql);
+		Map<Integer, Object> params = new HashMap<>();
+		PreparedStatement statement = mock(PreparedStatement.class);
+		doAnswer(invocation -> params.put(invocation.getArgument(0), invocation.getArgument(1)))
+				.when(statement).setObject(anyInt(), any());
+		when(statement.executeQuery()).thenAnswer(invocation -> {
+			Comparator<Object[]> order = Comparator.<Object[], Timestamp>comparing(row -> (Timestamp) row[column("created_at")])
+					.thenComparing(row -> (Long) row[column("id")]);
+			List<Object[]> rows = payments.stream().sorted(order).toList();
+			if (sql.contains("(created_at, id) > (?, ?)")) {
+				Object[] after = new Object[COLUMNS.size()];
+				after[column("created_at")] = params.get(1);
+				after[column("id")] = params.get(2);
+				rows = rows.stream().filter(row -> order.compare(row, after) > 0).toList();
+			}
+			int limit = (Integer) params.get(params.size());
+			return resultSet(rows.subList(0, Math.min(limit, rows.size())));
+		});
+		return statement;
+	}
+
+	private static ResultSet resultSet(List<Object[]> rows) throws SQLException {
+		int[] cursor = {-1};
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.next()).thenAnswer(invocation -> ++cursor[0] < rows.size());
+		when(resultSet.getObject(anyInt())).thenAnswer(invocation -> rows.get(cursor[0])[(int) invocation.getArgument(0) - 1]);
+		when(resultSet.getTimestamp("created_at")).thenAnswer(invocation -> rows.get(cursor[0])[column("created_at")]);
+		when(resultSet.getLong("id")).thenAnswer(invocation -> rows.get(cursor[0])[column("id")]);
+		return resultSet;
+	}
+}
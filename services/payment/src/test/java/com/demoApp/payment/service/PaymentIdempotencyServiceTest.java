@@ -0,0 +1,203 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.dto.PaymentRequestDTO;
+import com.demoApp.payment.dto.PaymentResponseDTO;
+import com.demoApp.payment.entity.PaymentIdempotencyKey;
+import com.demoApp.payment.exception.IdempotencyConflictException;
+import com.demoApp.payment.exception.PaymentException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentIdempotencyServiceTest {
+
+	private static final String KEY = "7:order-42";
+
+	private final PaymentService paymentService = mock(PaymentService.class);
+	private final PaymentIdempotencyStore store = mock(PaymentIdempotencyStore.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PaymentIdempotencyService service =
+			new PaymentIdempotencyService(paymentService, store, new ObjectMapper(), meterRegistry, 0, 100);
+	// The request hash the service claimed the key with
+	private final AtomicReference<String> claimedHash = new AtomicReference<>();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(store.getTtl()).thenReturn(Duration.ofHours(24));
+		when(store.runAndRecord(anyString(), any()))
+				.thenAnswer(invocation -> ((Supplier<PaymentResponseDTO>) invocation.getArgument(1)).get());
+	}
+
+	@Test
+	void replaysTheFirstResponseWithoutPayingTwice() {
+		claimSucceeds();
+		PaymentResponseDTO response = response("pay_1");
+		when(paymentService.processPayment(any(), eq(KEY))).thenReturn(response);
+
+		assertSame(response, service.processPayment(request(BigDecimal.TEN), "order-42"));
+		assertSame(response, service.processPayment(request(BigDecimal.TEN), "order-42"));
+
+		verify(paymentService, times(1)).processPayment(any(), eq(KEY));
+		assertEquals(1.0, count("replayed"));
+	}
+
+	@Test
+	void rejectsTheKeyForADifferentRequest() {
+		claimSucceeds();
+		when(paymentService.processPayment(any(), eq(KEY))).thenReturn(response("pay_1"));
+		service.processPayment(request(BigDecimal.TEN), "order-42");
+
+		assertThrows(IdempotencyConflictException.class, () -> service.processPayment(request(BigDecimal.ONE), "order-42"));
+		assertEquals(1.0, count("conflict"));
+	}
+
+	@Test
+	void replaysAResponseRecordedByAnotherInstance() {
+		claimFails();
+		PaymentResponseDTO recorded = response("pay_1");
+		when(store.find(KEY)).thenAnswer(invocation -> Optional.of(record(claimedHash.get(), PaymentIdempotencyKey.Status.COMPLETED)));
+		when(store.readResponse(any())).thenReturn(recorded);
+
+		assertSame(recorded, service.processPayment(request(BigDecimal.TEN), "order-42"));
+
+		verify(paymentService, never()).processPayment(any(), anyString());
+		assertEquals(1.0, count("replayed"));
+	}
+
+	@Test
+	void rejectsARecordedKeyForADifferentRequest() {
+		claimFails();
+		when(store.find(KEY)).thenReturn(Optional.of(record("another-request", PaymentIdempotencyKey.Status.COMPLETED)));
+
+		assertThrows(IdempotencyConflictException.class, () -> service.processPayment(request(BigDecimal.TEN), "order-42"));
+		verify(paymentService, never()).processPayment(any(), anyString());
+	}
+
+	@Test
+	void reportsAConflictWhileAnotherInstanceIsStillRunning() {
+		claimFails();
+		when(store.find(KEY)).thenAnswer(invocation -> Optional.of(record(claimedHash.get(), PaymentIdempotencyKey.Status.IN_PROGRESS)));
+
+		assertThrows(IdempotencyConflictException.class, () -> service.processPayment(request(BigDecimal.TEN), "order-42"));
+		verify(paymentService, never()).processPayment(any(), anyString());
+	}
+
+	@Test
+	void takesOverARequestWhoseLeaseRanOut() {
+		claimFails();
+		when(store.find(KEY)).thenAnswer(invocation -> Optional.of(record(claimedHash.get(), PaymentIdempotencyKey.Status.IN_PROGRESS)));
+		when(store.takeOver(eq(KEY), anyString())).thenReturn(true);
+		PaymentResponseDTO response = response("pay_1");
+		when(paymentService.processPayment(any(), eq(KEY))).thenReturn(response);
+
+		assertSame(response, service.processPayment(request(BigDecimal.TEN), "order-42"));
+		assertEquals(1.0, count("executed"));
+	}
+
+	@Test
+	void givesTheKeyBackWhenThePaymentFails() {
+		claimSucceeds();
+		PaymentResponseDTO response = response("pay_2");
+		when(paymentService.processPayment(any(), eq(KEY)))
+				.thenThrow(new PaymentException("Card declined"))
+				.thenReturn(response);
+
+		assertThrows(PaymentException.class, () -> service.processPayment(request(BigDecimal.TEN), "order-42"));
+		verify(store).release(KEY);
+
+		assertSame(response, service.processPayment(request(BigDecimal.TEN), "order-42"));
+	}
+
+	@Test
+	void aConcurrentDuplicateWaitsForTheFirstResult() throws Exception {
+		PaymentIdempotencyService waiting =
+				new PaymentIdempotencyService(paymentService, store, new ObjectMapper(), meterRegistry, 5_000, 100);
+		claimSucceeds();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PaymentResponseDTO response = response("pay_1");
+		when(paymentService.processPayment(any(), eq(KEY))).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return response;
+		});
+
+		CompletableFuture<PaymentResponseDTO> first =
+				CompletableFuture.supplyAsync(() -> waiting.processPayment(request(BigDecimal.TEN), "order-42"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<PaymentResponseDTO> duplicate =
+				CompletableFuture.supplyAsync(() -> waiting.processPayment(request(BigDecimal.TEN), "order-42"));
+		release.countDown();
+
+		assertSame(response, first.get(5, TimeUnit.SECONDS));
+		assertSame(response, duplicate.get(5, TimeUnit.SECONDS));
+		verify(paymentService, times(1)).processPayment(any(), eq(KEY));
+	}
+
+	@Test
+	void rejectsABlankKey() {
+		assertThrows(PaymentException.class, () -> service.processPayment(request(BigDecimal.TEN), " "));
+	}
+
+	private void claimSucceeds() {
+		when(store.claim(eq(KEY), anyString())).thenReturn(true);
+	}
+
+	private void claimFails() {
+		when(store.claim(eq(KEY), anyString())).thenAnswer(invocation -> {
+			claimedHash.set(invocation.getArgument(1));
+			return false;
+		});
+	}
+
+	private double count(String outcome) {
+		return meterRegistry.counter("payment.idempotency.requests", "outcome", outcome).count();
+	}
+
+	private static PaymentRequestDTO request(BigDecimal amount) {
+		PaymentRequestDTO request = new PaymentRequestDTO();
+		request.setUserId(7L);
+		request.setDescription("Lunch");
+		request.setAmount(amount);
+		request.setCurrency("usd");
+		return request;
+	}
+
+	private static PaymentResponseDTO response(String paymentId) {
+		PaymentResponseDTO response = new PaymentResponseDTO();
+		response.setPaymentId(paymentId);
+		return response;
+	}
+
+	private static PaymentIdempotencyKey record(String requestHash, PaymentIdempotencyKey.Status status) {
+		PaymentIdempotencyKey record = new PaymentIdempotencyKey();
+		record.setIdempotencyKey(KEY);
+		record.setRequestHash(requestHash);
+		record.setStatus(status);
+		return record;
+	}
+}
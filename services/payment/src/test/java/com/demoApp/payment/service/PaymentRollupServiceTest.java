@@ -0,0 +1,119 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.entity.Payment;
+import com.demoApp.payment.model.PaymentStatus;
+import com.demoApp.payment.repository.PaymentRevenueRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class PaymentRollupServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+	private static final BigDecimal AMOUNT = new BigDecimal("25.00");
+
+	private final PaymentRevenueRollupRepository repository = mock(PaymentRevenueRollupRepository.class);
+	private final PaymentRollupService service = new PaymentRollupService(repository);
+
+	@Test
+	void countsAPaymentOnceItLeavesPending() {
+		Payment payment = payment(35L, 9L, 4L);
+		PaymentRollupService.Snapshot before = service.snapshot(payment);
+		payment.setStatus(PaymentStatus.COMPLETED);
+
+		service.recordTransition(payment, before);
+
+		// Service-wide totals are sharded by payment id
+		verify(repository).add("ALL", 35 % PaymentRollupService.ALL_SHARDS, "COMPLETED", DAY, AMOUNT, BigDecimal.ZERO, 1);
+		verify(repository).add("USER", 7L, "COMPLETED", DAY, AMOUNT, BigDecimal.ZERO, 1);
+		verify(repository).add("MERCHANT", 9L, "COMPLETED", DAY, AMOUNT, BigDecimal.ZERO, 1);
+		verify(repository).add("OWNER", 4L, "COMPLETED", DAY, AMOUNT, BigDecimal.ZERO, 1);
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	void movesARefundedPaymentBetweenBucketsInLockOrder() {
+		Payment payment = payment(35L, 9L, null);
+		payment.setStatus(PaymentStatus.COMPLETED);
+		PaymentRollupService.Snapshot before = service.snapshot(payment);
+		BigDecimal refund = new BigDecimal("10.00");
+		payment.setStatus(PaymentStatus.PARTIALLY_REFUNDED);
+		payment.setRefundAmount(refund);
+
+		service.recordTransition(payment, before);
+
+		long shard = 35 % PaymentRollupService.ALL_SHARDS;
+		InOrder order = inOrder(repository);
+		order.verify(repository).add("ALL", shard, "COMPLETED", DAY, AMOUNT.negate(), BigDecimal.ZERO.negate(), -1);
+		order.verify(repository).add("ALL", shard, "PARTIALLY_REFUNDED", DAY, AMOUNT, refund, 1);
+		order.verify(repository).add("USER", 7L, "COMPLETED", DAY, AMOUNT.negate(), BigDecimal.ZERO.negate(), -1);
+		order.verify(repository).add("USER", 7L, "PARTIALLY_REFUNDED", DAY, AMOUNT, refund, 1);
+		order.verify(repository).add("MERCHANT", 9L, "COMPLETED", DAY, AMOUNT.negate(), BigDecimal.ZERO.negate(), -1);
+		order.verify(repository).add("MERCHANT", 9L, "PARTIALLY_REFUNDED", DAY, AMOUNT, refund, 1);
+		verify(repository, never()).add(eq("OWNER"), anyLong(), anyString(), any(), any(), any(), anyLong());
+	}
+
+	@Test
+	void movesAFurtherRefundWithinTheSameStatus() {
+		Payment payment = payment(35L, null, null);
+		payment.setStatus(PaymentStatus.PARTIALLY_REFUNDED);
+		payment.setRefundAmount(new BigDecimal("5.00"));
+		PaymentRollupService.Snapshot before = service.snapshot(payment);
+		payment.setRefundAmount(new BigDecimal("15.00"));
+
+		service.recordTransition(payment, before);
+
+		verify(repository).add("USER", 7L, "PARTIALLY_REFUNDED", DAY, AMOUNT.negate(), new BigDecimal("-5.00"), -1);
+		verify(repository).add("USER", 7L, "PARTIALLY_REFUNDED", DAY, AMOUNT, new BigDecimal("15.00"), 1);
+		verify(repository, times(4)).add(anyString(), anyLong(), anyString(), any(), any(), any(), anyLong());
+	}
+
+	@Test
+	void ignoresAnUnchangedPayment() {
+		Payment payment = payment(35L, 9L, 4L);
+		payment.setStatus(PaymentStatus.COMPLETED);
+
+		// e.g. the same webhook applied twice
+		service.recordTransition(payment, service.snapshot(payment));
+
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void takesAPaymentOutWhenItGoesBackToPending() {
+		Payment payment = payment(35L, null, null);
+		payment.setStatus(PaymentStatus.PROCESSING);
+		PaymentRollupService.Snapshot before = service.snapshot(payment);
+		payment.setStatus(PaymentStatus.PENDING);
+
+		service.recordTransition(payment, before);
+
+		verify(repository).add("USER", 7L, "PROCESSING", DAY, AMOUNT.negate(), BigDecimal.ZERO.negate(), -1);
+		verify(repository, never()).add(anyString(), anyLong(), eq("PENDING"), any(), any(), any(), anyLong());
+	}
+
+	private static Payment payment(Long id, Long merchantId, Long ownerId) {
+		Payment payment = new Payment();
+		payment.setId(id);
+		payment.setUserId(7L);
+		payment.setMerchantId(merchantId);
+		payment.setOwnerId(ownerId);
+		payment.setAmount(AMOUNT);
+		payment.setCreatedAt(DAY.atTime(12, 0));
+		return payment;
+	}
+}
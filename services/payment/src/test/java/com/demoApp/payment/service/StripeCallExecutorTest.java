@@ -0,0 +1,138 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.exception.PaymentProviderUnavailableException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.InvalidRequestException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripeCallExecutorTest {
+
+	private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+	private final ThreadPoolBulkheadRegistry bulkheadRegistry = ThreadPoolBulkheadRegistry.ofDefaults();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void closeBulkhead() throws Exception {
+		bulkheadRegistry.bulkhead("stripe").close();
+	}
+
+	@Test
+	void returnsTheResultAndTimesTheCall() throws Exception {
+		StripeCallExecutor executor = executor(4, 4, 1_000);
+
+		assertEquals("pi_1", executor.execute("payment_intent.create", () -> "pi_1"));
+		assertEquals(1, timerCount("payment_intent.create", "success"));
+	}
+
+	@Test
+	void passesDeclinesThroughWithoutOpeningTheCircuit() {
+		StripeCallExecutor executor = executor(4, 4, 1_000);
+
+		for (int i = 0; i < 20; i++) {
+			assertThrows(InvalidRequestException.class, () -> executor.execute("payment_intent.confirm", () -> {
+				throw new InvalidRequestException("Your card was declined.", null, "req_1", "card_declined", 402, null);
+			}));
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("stripe").getState());
+		assertEquals(20, timerCount("payment_intent.confirm", "error"));
+	}
+
+	@Test
+	void opensTheCircuitOnOutagesAndStopsCallingStripe() {
+		StripeCallExecutor executor = executor(4, 4, 1_000);
+		for (int i = 0; i < 10; i++) {
+			assertThrows(ApiConnectionException.class, () -> executor.execute("refund.create", () -> {
+				throw new ApiConnectionException("Connection refused");
+			}));
+		}
+
+		AtomicInteger calls = new AtomicInteger();
+		assertThrows(PaymentProviderUnavailableException.class,
+				() -> executor.execute("refund.create", calls::incrementAndGet));
+
+		assertEquals(0, calls.get());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("stripe").getState());
+		assertEquals(10, timerCount("refund.create", "unavailable"));
+		assertEquals(1, timerCount("refund.create", "circuit_open"));
+	}
+
+	@Test
+	void stopsWaitingForASlowCall() {
+		StripeCallExecutor executor = executor(4, 4, 50);
+
+		assertThrows(PaymentProviderUnavailableException.class, () -> executor.execute("customer.create", () -> {
+			await(new CountDownLatch(1));
+			return "cus_1";
+		}));
+		assertEquals(1, timerCount("customer.create", "timeout"));
+	}
+
+	@Test
+	void rejectsCallsBeyondThePoolAndQueue() throws Exception {
+		StripeCallExecutor executor = executor(1, 1, 5_000);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		StripeCallExecutor.StripeCall<String> slow = () -> {
+			running.countDown();
+			await(release);
+			return "ok";
+		};
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> call(executor, slow));
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> call(executor, () -> "ok"));
+		// Wait until the second call has taken the only queue slot
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (bulkheadRegistry.bulkhead("stripe").getMetrics().getQueueDepth() == 0
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertThrows(PaymentProviderUnavailableException.class, () -> executor.execute("payment_intent.create", () -> "ok"));
+		release.countDown();
+		assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+		assertEquals("ok", queued.get(5, TimeUnit.SECONDS));
+		assertEquals(1, timerCount("payment_intent.create", "bulkhead_full"));
+	}
+
+	private StripeCallExecutor executor(int maxConcurrentCalls, int queueCapacity, long timeoutMillis) {
+		// Opens once half of at least 10 calls were outages
+		return new StripeCallExecutor(circuitBreakerRegistry, bulkheadRegistry, meterRegistry,
+				maxConcurrentCalls, queueCapacity, timeoutMillis, 50, 60);
+	}
+
+	// Stripe calls only throw StripeException; an interrupt from the timeout just ends the wait
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String call(StripeCallExecutor executor, StripeCallExecutor.StripeCall<String> call) {
+		try {
+			return executor.execute("payment_intent.create", call);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private long timerCount(String operation, String outcome) {
+		return meterRegistry.get("payment.stripe.calls").tag("operation", operation).tag("outcome", outcome).timer().count();
+	}
+}
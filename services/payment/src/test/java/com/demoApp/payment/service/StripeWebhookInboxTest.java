@@ -0,0 +1,100 @@
+package com.demoApp.payment.service;
+
+import com.demoApp.payment.entity.StripeWebhookEvent;
+import com.demoApp.payment.repository.StripeWebhookEventRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StripeWebhookInboxTest {
+
+	private final StripeWebhookEventRepository repository = mock(StripeWebhookEventRepository.class);
+	// 60s lease, 3 attempts, 1s backoff doubling per attempt, 7 days retention, purge batches of 2
+	private final StripeWebhookInbox inbox = new StripeWebhookInbox(repository, 60, 3, 1_000, 7, 2);
+
+	@Test
+	void claimLeasesTheDueEvents() {
+		StripeWebhookEvent event = event();
+		when(repository.lockDue(any(), eq(4))).thenReturn(List.of(event));
+		when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		inbox.claim(4);
+
+		assertEquals(StripeWebhookEvent.Status.PROCESSING, event.getStatus());
+		assertEquals(1, event.getAttempts());
+		assertTrue(event.getLockedUntil().isAfter(LocalDateTime.now().plusSeconds(55)));
+	}
+
+	@Test
+	void retriesAFailedEventWithBackoff() {
+		StripeWebhookEvent event = event();
+		event.setAttempts(2);
+
+		assertTrue(inbox.markFailed(event, "payment not found"));
+
+		assertEquals(StripeWebhookEvent.Status.RECEIVED, event.getStatus());
+		assertNull(event.getLockedUntil());
+		// Second attempt failed: 1s doubled once
+		assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now().plusNanos(1_500_000_000)));
+	}
+
+	@Test
+	void givesUpOnceTheAttemptsAreSpent() {
+		StripeWebhookEvent event = event();
+		event.setAttempts(3);
+
+		assertFalse(inbox.markFailed(event, "payment not found"));
+		assertEquals(StripeWebhookEvent.Status.FAILED, event.getStatus());
+	}
+
+	@Test
+	void purgesProcessedEventsInBatchesUntilNoneAreLeft() {
+		when(repository.deleteProcessedBefore(any(), anyInt())).thenReturn(2, 2, 0);
+
+		assertEquals(4, inbox.purgeProcessed());
+
+		verify(repository, times(3)).deleteProcessedBefore(any(), eq(2));
+	}
+
+	@Test
+	void keepsProcessedEventsForTheRetention() {
+		LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
+
+		inbox.purgeProcessed();
+
+		verify(repository).deleteProcessedBefore(
+				argThat(cutoff -> !cutoff.isBefore(weekAgo) && cutoff.isBefore(weekAgo.plusSeconds(5))), eq(2));
+	}
+
+	@Test
+	void refusesARetentionShorterThanStripesRedeliveryWindow() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new StripeWebhookInbox(repository, 60, 3, 1_000, StripeWebhookInbox.MIN_RETENTION_DAYS - 1, 2));
+	}
+
+	private static StripeWebhookEvent event() {
+		StripeWebhookEvent event = new StripeWebhookEvent();
+		event.setEventId("evt_1");
+		event.setType("payment_intent.succeeded");
+		event.setOrderingKey("pi_1");
+		event.setPayload("{}");
+		event.setReceivedAt(LocalDateTime.now());
+		event.setNextAttemptAt(LocalDateTime.now());
+		return event;
+	}
+}
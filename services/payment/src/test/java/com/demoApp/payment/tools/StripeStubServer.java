@@ -0,0 +1,171 @@
+package com.demoApp.payment.tools;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Stripe API, for load testing checkout without Stripe.
+ *
+ * Answers the calls the payment service makes with minimal objects after a configurable
+ * delay, and injects server errors, card declines and hung requests at configurable rates.
+ * Start it, then run the payment service with {@code stripe.api-base=http://localhost:12111}.
+ *
+ * <pre>
+ * StripeStubServer [--port 12111] [--latency-ms 150] [--jitter-ms 100] [--failure-rate 0.01]
+ *     [--decline-rate 0.05] [--hang-rate 0] [--threads 200]
+ * </pre>
+ */
+public class StripeStubServer {
+
+	private final long latencyMillis;
+	private final long jitterMillis;
+	private final double failureRate;
+	private final double declineRate;
+	private final double hangRate;
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong injected = new AtomicLong();
+
+	private StripeStubServer(Map<String, String> options) {
+		this.latencyMillis = Long.parseLong(options.getOrDefault("latency-ms", "150"));
+		this.jitterMillis = Long.parseLong(options.getOrDefault("jitter-ms", "100"));
+		this.failureRate = Double.parseDouble(options.getOrDefault("failure-rate", "0.01"));
+		this.declineRate = Double.parseDouble(options.getOrDefault("decline-rate", "0.05"));
+		this.hangRate = Double.parseDouble(options.getOrDefault("hang-rate", "0"));
+	}
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+		}
+		int port = Integer.parseInt(options.getOrDefault("port", "12111"));
+		int threads = Integer.parseInt(options.getOrDefault("threads", "200"));
+
+		StripeStubServer stub = new StripeStubServer(options);
+		HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+		server.createContext("/v1/", stub::handle);
+		server.setExecutor(Executors.newFixedThreadPool(threads));
+		server.start();
+		System.out.printf("Stripe stub listening on http://localhost:%d (latency %d+%d ms, failures %.2f, declines %.2f, hangs %.2f)%n",
+				port, stub.latencyMillis, stub.jitterMillis, stub.failureRate, stub.declineRate, stub.hangRate);
+
+		Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(() -> System.out.printf(
+				"%d requests, %d with injected faults%n", stub.requests.get(), stub.injected.get()),
+				10, 10, TimeUnit.SECONDS);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			requests.incrementAndGet();
+			String path = exchange.getRequestURI().getPath();
+			Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+
+			if (random.nextDouble() < hangRate) {
+				injected.incrementAndGet();
+				// Longer than any sensible client timeout
+				sleep(120_000);
+				return;
+			}
+			sleep(latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0));
+
+			if (random.nextDouble() < failureRate) {
+				injected.incrementAndGet();
+				respond(exchange, 500, "{\"error\":{\"type\":\"api_error\",\"message\":\"Injected failure\"}}");
+				return;
+			}
+			if (path.equals("/v1/payment_intents") && random.nextDouble() < declineRate) {
+				injected.incrementAndGet();
+				respond(exchange, 402, "{\"error\":{\"type\":\"card_error\",\"code\":\"card_declined\","
+						+ "\"decline_code\":\"generic_decline\",\"message\":\"Your card was declined.\"}}");
+				return;
+			}
+			respond(exchange, 200, body(exchange.getRequestMethod(), path, form));
+		}
+	}
+
+	private static String body(String method, String path, Map<String, String> form) {
+		String[] parts = path.split("/");
+		if (path.equals("/v1/payment_intents")) {
+			String id = id("pi");
+			return "{\"id\":\"" + id + "\",\"object\":\"payment_intent\",\"amount\":" + form.getOrDefault("amount", "0")
+					+ ",\"currency\":\"" + form.getOrDefault("currency", "usd") + "\",\"status\":\"requires_payment_method\","
+					+ "\"client_secret\":\"" + id + "_secret_" + id("s") + "\"}";
+		}
+		if (path.equals("/v1/refunds")) {
+			return "{\"id\":\"" + id("re") + "\",\"object\":\"refund\",\"status\":\"succeeded\",\"amount\":"
+					+ form.getOrDefault("amount", "0") + ",\"payment_intent\":\"" + form.getOrDefault("payment_intent", "") + "\"}";
+		}
+		if (path.equals("/v1/setup_intents")) {
+			String id = id("seti");
+			return "{\"id\":\"" + id + "\",\"object\":\"setup_intent\",\"status\":\"requires_payment_method\","
+					+ "\"client_secret\":\"" + id + "_secret_" + id("s") + "\"}";
+		}
+		if (path.equals("/v1/customers")) {
+			return customer(id("cus"));
+		}
+		if (parts.length == 4 && parts[2].equals("customers") && method.equals("GET")) {
+			return customer(parts[3]);
+		}
+		if (parts.length == 5 && parts[2].equals("customers") && parts[4].equals("sources")) {
+			return "{\"id\":\"" + id("card") + "\",\"object\":\"card\",\"customer\":\"" + parts[3] + "\"}";
+		}
+		if (parts.length >= 4 && parts[2].equals("payment_methods")) {
+			return "{\"id\":\"" + parts[3] + "\",\"object\":\"payment_method\",\"type\":\"card\","
+					+ "\"customer\":" + (form.containsKey("customer") ? "\"" + form.get("customer") + "\"" : "null") + "}";
+		}
+		return "{\"id\":\"" + id("obj") + "\",\"object\":\"unknown\"}";
+	}
+
+	private static String customer(String id) {
+		return "{\"id\":\"" + id + "\",\"object\":\"customer\",\"sources\":{\"object\":\"list\",\"data\":[],"
+				+ "\"has_more\":false,\"url\":\"/v1/customers/" + id + "/sources\"}}";
+	}
+
+	private static String id(String prefix) {
+		return prefix + "_stub" + UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.getResponseHeaders().set("Request-Id", id("req"));
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static Map<String, String> parseForm(String body) {
+		Map<String, String> form = new HashMap<>();
+		for (String pair : body.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq > 0) {
+				form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+						URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return form;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
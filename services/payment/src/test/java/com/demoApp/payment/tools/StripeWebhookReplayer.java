@@ -0,0 +1,150 @@
+package com.demoApp.payment.tools;
+
+import com.stripe.Stripe;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signs and posts Stripe webhook events to a locally running payment service, for load
+ * testing the webhook endpoint without Stripe.
+ *
+ * Replays the payloads of an NDJSON file (one event per line), or generates
+ * {@code payment_intent.succeeded} events for a set of payment intents. A share of the
+ * events can be sent twice to exercise duplicate handling.
+ *
+ * <pre>
+ * StripeWebhookReplayer --secret whsec_... [--url http://localhost:8087/api/v1/payments/webhook/stripe]
+ *     (--file events.ndjson | --events 10000 --intents 500) [--concurrency 32] [--duplicates 0.1]
+ * </pre>
+ */
+public class StripeWebhookReplayer {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parse(args);
+		String secret = options.getOrDefault("secret", System.getenv("STRIPE_WEBHOOK_SECRET"));
+		if (secret == null) {
+			System.err.println("--secret or STRIPE_WEBHOOK_SECRET is required");
+			System.exit(2);
+		}
+		URI url = URI.create(options.getOrDefault("url", "http://localhost:8087/api/v1/payments/webhook/stripe"));
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+		double duplicates = Double.parseDouble(options.getOrDefault("duplicates", "0"));
+
+		List<String> payloads = options.containsKey("file")
+				? Files.readAllLines(Path.of(options.get("file"))).stream().filter(line -> !line.isBlank()).toList()
+				: synthetic(Integer.parseInt(options.getOrDefault("events", "1000")),
+						Integer.parseInt(options.getOrDefault("intents", "100")));
+		List<String> sends = new ArrayList<>(payloads);
+		for (String payload : payloads) {
+			if (ThreadLocalRandom.current().nextDouble() < duplicates) {
+				sends.add(payload);
+			}
+		}
+
+		HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(concurrency)).build();
+		ExecutorService senders = Executors.newFixedThreadPool(concurrency);
+		long[] latencies = new long[sends.size()];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger failures = new AtomicInteger();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < concurrency; i++) {
+			senders.execute(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < sends.size()) {
+					long sent = System.nanoTime();
+					try {
+						int status = post(client, url, secret, sends.get(index));
+						if (status != 200) {
+							failures.incrementAndGet();
+						}
+					} catch (IOException | GeneralSecurityException e) {
+						failures.incrementAndGet();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					latencies[index] = System.nanoTime() - sent;
+				}
+			});
+		}
+		senders.shutdown();
+		senders.awaitTermination(1, TimeUnit.HOURS);
+		long elapsed = System.nanoTime() - start;
+
+		Arrays.sort(latencies);
+		System.out.printf("sent %d events (%d unique) in %.1fs, %.0f/s, %d non-200%n",
+				sends.size(), payloads.size(), elapsed / 1e9, sends.size() / (elapsed / 1e9), failures.get());
+		System.out.printf("ack latency ms: p50 %.1f  p95 %.1f  p99 %.1f  max %.1f%n",
+				percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+				latencies[latencies.length - 1] / 1e6);
+		System.exit(0);
+	}
+
+	private static int post(HttpClient client, URI url, String secret, String payload)
+			throws IOException, InterruptedException, GeneralSecurityException {
+		HttpRequest request = HttpRequest.newBuilder(url)
+				.header("Content-Type", "application/json")
+				.header("Stripe-Signature", sign(payload, secret))
+				.POST(HttpRequest.BodyPublishers.ofString(payload))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	// Stripe's scheme: v1 is the HMAC-SHA256 of "<timestamp>.<payload>" keyed with the endpoint secret
+	private static String sign(String payload, String secret) throws GeneralSecurityException {
+		long timestamp = System.currentTimeMillis() / 1000;
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		byte[] signature = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+		return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(signature);
+	}
+
+	private static List<String> synthetic(int events, int intents) {
+		List<String> payloads = new ArrayList<>(events);
+		long created = System.currentTimeMillis() / 1000;
+		for (int i = 0; i < events; i++) {
+			String intent = "pi_replay_" + (i % intents);
+			payloads.add("{\"id\":\"evt_" + UUID.randomUUID().toString().replace("-", "") + "\","
+					+ "\"object\":\"event\",\"api_version\":\"" + Stripe.API_VERSION + "\","
+					+ "\"created\":" + (created + i) + ",\"type\":\"payment_intent.succeeded\","
+					+ "\"data\":{\"object\":{\"id\":\"" + intent + "\",\"object\":\"payment_intent\","
+					+ "\"status\":\"succeeded\"}}}");
+		}
+		return payloads;
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+	}
+
+	private static Map<String, String> parse(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+		}
+		return options;
+	}
+}